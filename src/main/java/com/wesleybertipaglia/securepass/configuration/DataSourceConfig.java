@@ -0,0 +1,92 @@
+package com.wesleybertipaglia.securepass.configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sends read-only transactions to the replicas listed in
+ * {@code securepass.datasource.replicas.urls} and everything else to the
+ * {@code spring.datasource} primary. Connections are taken lazily, on the
+ * first statement, by when the transaction is known to be read-only. Without
+ * replicas Spring Boot's single data source is left in place.
+ *
+ * Replica pools take their settings from
+ * {@code securepass.datasource.replicas.hikari}, with a connection timeout
+ * of {@link #REPLICA_CONNECTION_TIMEOUT} unless set, so a replica that is
+ * down does not hold reads back long before the next one is tried.
+ */
+@Configuration
+@ConditionalOnExpression("!'${securepass.datasource.replicas.urls:}'.isBlank()")
+public class DataSourceConfig {
+    static final Duration REPLICA_CONNECTION_TIMEOUT = Duration.ofSeconds(2);
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${securepass.datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${securepass.datasource.replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${securepass.datasource.replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${securepass.datasource.replicas.balance:round-robin}")
+    private ReplicaDataSource.Balance balance;
+
+    @Value("${securepass.datasource.replicas.read-your-writes:PT5S}")
+    private Duration readYourWrites;
+
+    @Value("${securepass.datasource.replicas.retry-after:PT30S}")
+    private Duration retryAfter;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT.toMillis());
+            Binder.get(environment).bind("securepass.datasource.replicas.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setJdbcUrl(url.strip());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, balance, readYourWrites, retryAfter);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaDataSource.writeTracking());
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,238 @@
+package com.wesleybertipaglia.securepass.configuration;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Connections for read-only transactions, taken from one of the replicas.
+ * Users who committed a write less than the read-your-writes window ago
+ * read from the primary instead, so they never miss their own changes
+ * while the replicas catch up. A replica that cannot hand out a connection
+ * is left alone for the retry-after period and the next one is tried; when
+ * none can, the primary serves the read.
+ *
+ * Writes are noticed through {@link #writeTracking()}, which wraps the
+ * primary for read-write transactions. The window is kept per instance, so
+ * replica reads can still miss writes made through other instances; caches
+ * ask {@link #readingFromReplica()} before keeping what was read.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    static final int MAX_TRACKED_WRITERS = 10_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSource.class);
+    private static final Object REPLICA_READ = new Object();
+
+    public enum Balance {
+        ROUND_ROBIN, LEAST_LOADED
+    }
+
+    private final DataSource primary;
+    private final List<? extends DataSource> replicas;
+    private final Balance balance;
+    private final long readYourWritesNanos;
+    private final long retryAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+    private final Map<DataSource, Long> unavailableUntil = new ConcurrentHashMap<>();
+
+    public ReplicaDataSource(DataSource primary, List<? extends DataSource> replicas, Balance balance,
+            Duration readYourWrites, Duration retryAfter) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.balance = balance;
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        this.retryAfterNanos = retryAfter.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        String user = currentUser();
+        if (user != null && wroteRecently(user)) {
+            return connect(primary, username, password);
+        }
+        for (DataSource replica : candidates()) {
+            try {
+                Connection connection = connect(replica, username, password);
+                markReplicaRead();
+                return connection;
+            } catch (SQLException e) {
+                unavailableUntil.put(replica, System.nanoTime() + retryAfterNanos);
+                logger.warn("Replica {} is unavailable, trying again in {} ms", replicas.indexOf(replica),
+                        retryAfterNanos / 1_000_000, e);
+            }
+        }
+        return connect(primary, username, password);
+    }
+
+    /**
+     * The primary, recording the current user as a writer when a read-write
+     * transaction that took a connection from it commits.
+     */
+    public DataSource writeTracking() {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                trackWrite();
+                return super.getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                trackWrite();
+                return super.getConnection(username, password);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Could not close replica {}", replicas.indexOf(replica), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the current transaction took a connection from a replica, whose
+     * data may lag behind the primary.
+     */
+    public static boolean readingFromReplica() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ);
+    }
+
+    boolean wroteRecently(String user) {
+        Long until = recentWriters.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        recentWriters.remove(user, until);
+        return false;
+    }
+
+    private void trackWrite() {
+        String user = currentUser();
+        if (readYourWritesNanos <= 0 || user == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = System.nanoTime();
+                if (recentWriters.size() >= MAX_TRACKED_WRITERS) {
+                    recentWriters.values().removeIf(until -> now - until >= 0);
+                }
+                recentWriters.put(user, now + readYourWritesNanos);
+            }
+        });
+    }
+
+    private static void markReplicaRead() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_READ)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READ, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ);
+            }
+        });
+    }
+
+    /**
+     * The available replicas in the order to try them: taking turns, or
+     * fewest connections in use first with turns breaking ties.
+     */
+    private List<DataSource> candidates() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        long now = System.nanoTime();
+        List<Candidate> candidates = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            DataSource replica = replicas.get((start + i) % replicas.size());
+            if (available(replica, now)) {
+                candidates.add(new Candidate(replica,
+                        balance == Balance.LEAST_LOADED ? activeConnections(replica) : 0));
+            }
+        }
+        candidates.sort(Comparator.comparingInt(Candidate::active));
+        return candidates.stream().map(Candidate::replica).toList();
+    }
+
+    private record Candidate(DataSource replica, int active) {
+    }
+
+    private boolean available(DataSource replica, long now) {
+        Long until = unavailableUntil.get(replica);
+        if (until == null) {
+            return true;
+        }
+        if (now - until < 0) {
+            return false;
+        }
+        unavailableUntil.remove(replica, until);
+        return true;
+    }
+
+    private static int activeConnections(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+        return 0;
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username != null ? dataSource.getConnection(username, password) : dataSource.getConnection();
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,22 @@
+package com.wesleybertipaglia.securepass.configuration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import com.wesleybertipaglia.securepass.controllers.PasswordCheckerWebSocketHandler;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    @Autowired
+    private PasswordCheckerWebSocketHandler passwordCheckerWebSocketHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(passwordCheckerWebSocketHandler, "/utils/checker/live").setAllowedOriginPatterns("*");
+    }
+}
@@ -0,0 +1,181 @@
+package com.wesleybertipaglia.securepass.controllers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.wesleybertipaglia.securepass.services.checker.PasswordCheckerEngine;
+import com.wesleybertipaglia.securepass.services.checker.PasswordCheckerService;
+import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerEditRecord;
+import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerLiveResponseRecord;
+
+/**
+ * Live password checks for front ends that check on every keystroke. The
+ * client sends edits (append, delete, replace, reset) as JSON text frames and
+ * each edit is answered with the check of the whole password, which the
+ * session keeps up to date incrementally. A policy can be selected with the
+ * {@code policy} query parameter of the handshake.
+ */
+@Component
+public class PasswordCheckerWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordCheckerWebSocketHandler.class);
+    private static final CloseStatus IDLE = CloseStatus.GOING_AWAY.withReason("Idle timeout");
+    private static final CloseStatus OVERLOADED = CloseStatus.SERVICE_OVERLOAD.withReason("Too many live checks");
+
+    @Autowired
+    private PasswordCheckerService passwordCheckerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${securepass.checker.live.max-length:1024}")
+    private int maxLength;
+
+    @Value("${securepass.checker.live.max-sessions:10000}")
+    private int maxSessions;
+
+    @Value("${securepass.checker.live.idle-timeout:5m}")
+    private Duration idleTimeout;
+
+    private final Map<String, LiveSession> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        if (sessions.size() >= maxSessions) {
+            session.close(OVERLOADED);
+            return;
+        }
+        PasswordCheckerEngine.Session password;
+        try {
+            password = passwordCheckerService.openSession(maxLength, policyOf(session));
+        } catch (IllegalArgumentException e) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason(e.getMessage()));
+            return;
+        }
+        sessions.put(session.getId(), new LiveSession(session, password));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        LiveSession live = sessions.get(session.getId());
+        if (live == null) {
+            return;
+        }
+
+        PasswordCheckerLiveResponseRecord response;
+        synchronized (live) {
+            live.lastActive = System.nanoTime();
+            response = apply(live.password, message.getPayload());
+        }
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsBytes(response)));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        LiveSession live = sessions.remove(session.getId());
+        if (live != null) {
+            live.clear();
+        }
+    }
+
+    @Scheduled(fixedDelay = 30, timeUnit = TimeUnit.SECONDS)
+    void evictIdleSessions() {
+        long idleSince = System.nanoTime() - idleTimeout.toNanos();
+        int evicted = 0;
+        for (Iterator<LiveSession> iterator = sessions.values().iterator(); iterator.hasNext();) {
+            LiveSession live = iterator.next();
+            if (live.lastActive - idleSince < 0) {
+                iterator.remove();
+                live.clear();
+                try {
+                    live.session.close(IDLE);
+                } catch (IOException e) {
+                    logger.debug("Failed to close idle live check session {}", live.session.getId(), e);
+                }
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            logger.info("Evicted {} idle live check sessions", evicted);
+        }
+    }
+
+    int sessionCount() {
+        return sessions.size();
+    }
+
+    private PasswordCheckerLiveResponseRecord apply(PasswordCheckerEngine.Session password, String payload) {
+        PasswordCheckerEditRecord edit;
+        try {
+            edit = objectMapper.readValue(payload, PasswordCheckerEditRecord.class);
+        } catch (JsonProcessingException e) {
+            return PasswordCheckerLiveResponseRecord.error(password.length(), "Edit must be a JSON object");
+        }
+
+        try {
+            switch (edit.op() == null ? "" : edit.op()) {
+                case "append" -> password.append(required(edit.text(), "text"));
+                case "delete" -> password.delete(required(edit.start(), "start"), required(edit.end(), "end"));
+                case "replace" -> password.replace(required(edit.start(), "start"), required(edit.end(), "end"),
+                        required(edit.text(), "text"));
+                case "reset" -> {
+                    password.clear();
+                    password.append(edit.text() == null ? "" : edit.text());
+                }
+                default -> throw new IllegalArgumentException("Edit op must be append, delete, replace or reset");
+            }
+        } catch (IllegalArgumentException e) {
+            return PasswordCheckerLiveResponseRecord.error(password.length(), e.getMessage());
+        }
+        return PasswordCheckerLiveResponseRecord.of(password.length(),
+                passwordCheckerService.checkSession(password, edit.estimate()));
+    }
+
+    private static String policyOf(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return null;
+        }
+        return UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("policy");
+    }
+
+    private static <T> T required(T value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException("Edit " + field + " is required");
+        }
+        return value;
+    }
+
+    private static final class LiveSession {
+        private final WebSocketSession session;
+        private final PasswordCheckerEngine.Session password;
+        private volatile long lastActive = System.nanoTime();
+
+        LiveSession(WebSocketSession session, PasswordCheckerEngine.Session password) {
+            this.session = session;
+            this.password = password;
+        }
+
+        synchronized void clear() {
+            password.clear();
+        }
+    }
+}
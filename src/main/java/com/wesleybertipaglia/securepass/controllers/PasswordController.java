@@ -1,10 +1,15 @@
 package com.wesleybertipaglia.securepass.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.UUID;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
@@ -14,12 +19,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchRequestRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordCursorPageRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordMultiGetRequestRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordMultiGetResponseRecord;
 import com.wesleybertipaglia.securepass.records.password.PasswordRequestRecord;
 import com.wesleybertipaglia.securepass.records.password.PasswordResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord;
+import com.wesleybertipaglia.securepass.services.password.PasswordExportService;
+import com.wesleybertipaglia.securepass.services.password.PasswordImportService;
 import com.wesleybertipaglia.securepass.services.password.PasswordService;
 
 @RestController
@@ -29,31 +44,87 @@ public class PasswordController {
     @Autowired
     private PasswordService passwordService;
 
+    @Autowired
+    private PasswordImportService passwordImportService;
+
+    @Autowired
+    private PasswordExportService passwordExportService;
+
     @PostMapping
     public ResponseEntity<PasswordResponseRecord> createPassword(
             @Valid @RequestBody PasswordRequestRecord passwordRequest,
             JwtAuthenticationToken token) {
-        return ResponseEntity.ok(passwordService.createPassword(passwordRequest, token.getName()));
+        return withETag(passwordService.createPassword(passwordRequest, token.getName()));
     }
 
     @GetMapping
-    public ResponseEntity<Page<PasswordResponseRecord>> listPasswords(
+    public ResponseEntity<Page<PasswordSummaryRecord>> listPasswords(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeSecret,
             JwtAuthenticationToken token) {
-        return ResponseEntity.ok(passwordService.listPasswords(page, size, token.getName()));
+        return ResponseEntity.ok(passwordService.listPasswords(page, size, includeSecret, token.getName()));
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<PasswordCursorPageRecord> listPasswords(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeSecret,
+            JwtAuthenticationToken token) {
+        return ResponseEntity.ok(passwordService.listPasswords(cursor, size, includeSecret, token.getName()));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<PasswordResponseRecord> getPassword(@PathVariable UUID id, JwtAuthenticationToken token) {
-        return ResponseEntity.ok(passwordService.getPassword(id, token.getName()));
+        return withETag(passwordService.getPassword(id, token.getName()));
+    }
+
+    @PostMapping("/_mget")
+    public ResponseEntity<PasswordMultiGetResponseRecord> getPasswords(
+            @Valid @RequestBody PasswordMultiGetRequestRecord passwordMultiGetRequest,
+            JwtAuthenticationToken token) {
+        return ResponseEntity.ok(passwordService.getPasswords(passwordMultiGetRequest.ids(), token.getName()));
+    }
+
+    @PostMapping("/_batch")
+    public ResponseEntity<PasswordBatchResponseRecord> applyBatch(
+            @Valid @RequestBody PasswordBatchRequestRecord passwordBatchRequest,
+            JwtAuthenticationToken token) {
+        return ResponseEntity.ok(passwordService.applyBatch(passwordBatchRequest.operations(), token.getName()));
+    }
+
+    @PostMapping(value = "/_import", consumes = { "text/csv", MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE }, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importPasswords(HttpServletRequest request,
+            JwtAuthenticationToken token) throws IOException {
+        String format = importFormatOf(MediaType.parseMediaType(request.getContentType()));
+        String tokenSubject = token.getName();
+        passwordImportService.requireImport(format, tokenSubject);
+        InputStream input = request.getInputStream();
+        return ResponseEntity.ok(output -> passwordImportService.importPasswords(input, format, output, tokenSubject));
+    }
+
+    @GetMapping(value = "/_export", produces = { MediaType.APPLICATION_NDJSON_VALUE, "text/csv" })
+    public ResponseEntity<StreamingResponseBody> exportPasswords(
+            @RequestParam(defaultValue = "ndjson") String format,
+            JwtAuthenticationToken token) {
+        passwordExportService.requireExport(format);
+        String tokenSubject = token.getName();
+        MediaType contentType = format.equals(PasswordExportService.FORMAT_CSV) ? MediaType.parseMediaType("text/csv")
+                : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"passwords." + format + "\"")
+                .body(output -> passwordExportService.exportPasswords(format, output, tokenSubject));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<PasswordResponseRecord> updatePassword(@PathVariable UUID id,
             @Valid @RequestBody PasswordRequestRecord passwordRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             JwtAuthenticationToken token) {
-        return ResponseEntity.ok(passwordService.updatePassword(id, passwordRequest, token.getName()));
+        return withETag(passwordService.updatePassword(id, passwordRequest, versionOf(ifMatch), token.getName()));
     }
 
     @DeleteMapping("/{id}")
@@ -61,4 +132,36 @@ public class PasswordController {
         passwordService.deletePassword(id, token.getName());
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<PasswordResponseRecord> withETag(PasswordResponseRecord password) {
+        if (password == null || password.version() == null) {
+            return ResponseEntity.ok(password);
+        }
+        return ResponseEntity.ok().eTag(Long.toString(password.version())).body(password);
+    }
+
+    private static String importFormatOf(MediaType contentType) {
+        if (contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            return PasswordImportService.FORMAT_NDJSON;
+        }
+        if (contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return PasswordImportService.FORMAT_JSON;
+        }
+        return PasswordImportService.FORMAT_CSV;
+    }
+
+    private static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.strip();
+        if (eTag.length() < 3 || eTag.charAt(0) != '"' || eTag.charAt(eTag.length() - 1) != '"') {
+            throw new IllegalArgumentException("If-Match must be a single ETag returned for this password");
+        }
+        try {
+            return Long.parseLong(eTag.substring(1, eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be a single ETag returned for this password");
+        }
+    }
 }
@@ -1,18 +1,28 @@
 package com.wesleybertipaglia.securepass.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+
+import jakarta.servlet.http.HttpServletRequest;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.wesleybertipaglia.securepass.services.breach.BreachRangeService;
 import com.wesleybertipaglia.securepass.services.checker.PasswordCheckerService;
 import com.wesleybertipaglia.securepass.services.generator.PasswordGeneratorService;
 import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerRequestRecord;
 import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerResponseRecord;
+import com.wesleybertipaglia.securepass.records.generator.PassphraseGeneratorResponseRecord;
 import com.wesleybertipaglia.securepass.records.generator.PasswordGeneratorResponseRecord;
 
 @RestController
@@ -25,10 +35,23 @@ public class UtilsController {
     @Autowired
     private PasswordGeneratorService passwordGeneratorService;
 
+    @Autowired
+    private BreachRangeService breachRangeService;
+
     @PostMapping("/checker")
     public ResponseEntity<PasswordCheckerResponseRecord> checkPassword(
-            @RequestBody PasswordCheckerRequestRecord passwordCheckerRequestRecord) {
-        return ResponseEntity.ok(passwordCheckerService.checkPassword(passwordCheckerRequestRecord));
+            @RequestBody PasswordCheckerRequestRecord passwordCheckerRequestRecord,
+            @RequestParam(required = false) String policy) {
+        return ResponseEntity.ok(passwordCheckerService.checkPassword(passwordCheckerRequestRecord, policy));
+    }
+
+    @PostMapping(value = "/checker/batch", consumes = { MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE }, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> checkPasswords(HttpServletRequest request,
+            @RequestParam(required = false) String policy) throws IOException {
+        passwordCheckerService.requirePolicy(policy);
+        InputStream input = request.getInputStream();
+        return ResponseEntity.ok(output -> passwordCheckerService.checkPasswords(input, output, policy));
     }
 
     @GetMapping("/generator")
@@ -37,9 +60,45 @@ public class UtilsController {
             @RequestParam(defaultValue = "true") boolean uppercase,
             @RequestParam(defaultValue = "true") boolean lowercase,
             @RequestParam(defaultValue = "true") boolean numbers,
-            @RequestParam(defaultValue = "true") boolean special) {
+            @RequestParam(defaultValue = "true") boolean special,
+            @RequestParam(required = false) String template) {
+        if (template != null) {
+            return ResponseEntity.ok(passwordGeneratorService.generatePassword(template));
+        }
         return ResponseEntity
                 .ok(passwordGeneratorService.generatePassword(length, uppercase, lowercase, numbers, special));
     }
 
+    @GetMapping("/generator/passphrase")
+    public ResponseEntity<PassphraseGeneratorResponseRecord> generatePassphrase(
+            @RequestParam(defaultValue = "6") int words,
+            @RequestParam(defaultValue = "-") String separator,
+            @RequestParam(defaultValue = "false") boolean capitalize,
+            @RequestParam(defaultValue = "0") int digits,
+            @RequestParam(defaultValue = "default") String wordlist) {
+        return ResponseEntity
+                .ok(passwordGeneratorService.generatePassphrase(words, separator, capitalize, digits, wordlist));
+    }
+
+    @GetMapping(value = "/generator/bulk", produces = { MediaType.APPLICATION_NDJSON_VALUE,
+            MediaType.TEXT_PLAIN_VALUE })
+    public ResponseEntity<StreamingResponseBody> generatePasswords(
+            @RequestParam long count,
+            @RequestParam(defaultValue = "12") int length,
+            @RequestParam(defaultValue = "true") boolean uppercase,
+            @RequestParam(defaultValue = "true") boolean lowercase,
+            @RequestParam(defaultValue = "true") boolean numbers,
+            @RequestParam(defaultValue = "true") boolean special,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        passwordGeneratorService.requireBulkRequest(count, length, uppercase, lowercase, numbers, special, format);
+        MediaType contentType = format.equals("text") ? MediaType.TEXT_PLAIN : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok().contentType(contentType).body(output -> passwordGeneratorService
+                .generatePasswords(count, length, uppercase, lowercase, numbers, special, format, output));
+    }
+
+    @GetMapping(value = "/breach/range/{prefix}", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<byte[]> getBreachRange(@PathVariable String prefix) {
+        return ResponseEntity.ok(breachRangeService.findRange(prefix));
+    }
+
 }
@@ -0,0 +1,41 @@
+package com.wesleybertipaglia.securepass.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * Lease on a scheduled job, held by the instance that runs it until
+ * {@code lockedUntil}. Rows are written and read with plain JDBC; the entity
+ * only defines the table.
+ */
+@Entity
+@Table(name = "job_locks")
+public class JobLock {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_by", nullable = false, length = 36)
+    private String lockedBy;
+
+    public JobLock() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+}
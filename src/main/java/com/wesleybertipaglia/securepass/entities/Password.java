@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.annotations.OnDelete;
@@ -16,12 +17,12 @@ import org.springframework.hateoas.RepresentationModel;
 @Entity
 @Table(name = "passwords", indexes = {
         @Index(name = "idx_password_label", columnList = "label"),
-        @Index(name = "idx_password_owner_id", columnList = "owner_id")
+        @Index(name = "idx_password_owner_created_id", columnList = "owner_id, created_at, id")
 })
 public class Password extends RepresentationModel<Password> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @NotBlank(message = "Label cannot be blank")
@@ -30,7 +31,7 @@ public class Password extends RepresentationModel<Password> {
     @NotBlank(message = "Password cannot be blank")
     private String password;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private User owner;
@@ -41,6 +42,10 @@ public class Password extends RepresentationModel<Password> {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     public Password() {
     }
 
@@ -105,4 +110,12 @@ public class Password extends RepresentationModel<Password> {
         this.updatedAt = updatedAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
 }
@@ -18,7 +18,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 })
 public class User extends RepresentationModel<User> {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @NotBlank(message = "Name cannot be blank")
@@ -0,0 +1,48 @@
+package com.wesleybertipaglia.securepass.entities;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+/**
+ * Time ordered UUIDs (RFC 9562 version 7): 48 bits of Unix milliseconds, a
+ * 12 bit counter in {@code rand_a} and 62 random bits. The timestamp and
+ * counter come from one atomic value that only moves forward, so ids are
+ * strictly increasing within the JVM even when many are generated in the same
+ * millisecond or the clock steps back.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID next() {
+        long candidate = System.currentTimeMillis() << 12;
+        long current;
+        long next;
+        do {
+            current = LAST.get();
+            next = Math.max(candidate, current + 1);
+        } while (!LAST.compareAndSet(current, next));
+
+        long mostSigBits = (next >>> 12) << 16 | 0x7000L | (next & 0xFFFL);
+        long leastSigBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
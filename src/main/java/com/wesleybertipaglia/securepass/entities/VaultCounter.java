@@ -0,0 +1,45 @@
+package com.wesleybertipaglia.securepass.entities;
+
+import java.util.UUID;
+
+import jakarta.persistence.*;
+
+/**
+ * Number of passwords each user holds, kept up to date by the writes that
+ * add or remove passwords so listing pages does not need a COUNT query.
+ */
+@Entity
+@Table(name = "vault_counters")
+public class VaultCounter {
+
+    @Id
+    @Column(name = "owner_id")
+    private UUID ownerId;
+
+    private long passwordCount;
+
+    public VaultCounter() {
+    }
+
+    public VaultCounter(UUID ownerId, long passwordCount) {
+        this.ownerId = ownerId;
+        this.passwordCount = passwordCount;
+    }
+
+    public UUID getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(UUID ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public long getPasswordCount() {
+        return passwordCount;
+    }
+
+    public void setPasswordCount(long passwordCount) {
+        this.passwordCount = passwordCount;
+    }
+
+}
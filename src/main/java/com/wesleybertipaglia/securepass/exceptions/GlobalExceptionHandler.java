@@ -1,5 +1,6 @@
 package com.wesleybertipaglia.securepass.exceptions;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -8,6 +9,10 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchResponseRecord;
+import com.wesleybertipaglia.securepass.services.breach.BreachRangeUnavailableException;
+import com.wesleybertipaglia.securepass.services.password.PasswordBatchException;
+
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 
@@ -45,6 +50,27 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(PasswordBatchException.class)
+    public ResponseEntity<PasswordBatchResponseRecord> handlePasswordBatchException(PasswordBatchException ex) {
+        return new ResponseEntity<>(ex.getResponse(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(BreachRangeUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleBreachRangeUnavailableException(
+            BreachRangeUnavailableException ex) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<Map<String, String>> handleAccessDeniedException(AccessDeniedException ex) {
         Map<String, String> response = new HashMap<>();
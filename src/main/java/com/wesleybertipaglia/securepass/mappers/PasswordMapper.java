@@ -8,7 +8,7 @@ import com.wesleybertipaglia.securepass.records.password.PasswordRequestRecord;
 public class PasswordMapper {
     public static PasswordResponseRecord entityToResponseRecord(Password password) {
         return new PasswordResponseRecord(password.getId(), password.getLabel(), password.getPassword(),
-                password.getLinks());
+                password.getLinks(), password.getVersion());
     }
 
     public static Password requestRecordToEntity(PasswordRequestRecord passwordRequest, User owner) {
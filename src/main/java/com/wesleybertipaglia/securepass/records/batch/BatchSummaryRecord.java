@@ -0,0 +1,10 @@
+package com.wesleybertipaglia.securepass.records.batch;
+
+public record BatchSummaryRecord(long count, long errors, long elapsedMillis, double itemsPerSecond) {
+
+        public static BatchSummaryRecord of(long count, long errors, long startNanos) {
+                long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+                return new BatchSummaryRecord(count, errors, elapsedNanos / 1_000_000,
+                                count * 1_000_000_000.0 / elapsedNanos);
+        }
+}
@@ -0,0 +1,27 @@
+package com.wesleybertipaglia.securepass.records.cache;
+
+import java.util.UUID;
+
+/**
+ * A change other instances must drop from their caches. Password
+ * invalidations carry the version that was written, or no version for a
+ * delete; vault invalidations drop everything cached for the owner.
+ */
+public record CacheInvalidationRecord(Type type, UUID id, UUID ownerId, Long version) {
+
+    public enum Type {
+        USER, PASSWORD, VAULT
+    }
+
+    public static CacheInvalidationRecord user(UUID id) {
+        return new CacheInvalidationRecord(Type.USER, id, null, null);
+    }
+
+    public static CacheInvalidationRecord password(UUID ownerId, UUID id, Long version) {
+        return new CacheInvalidationRecord(Type.PASSWORD, id, ownerId, version);
+    }
+
+    public static CacheInvalidationRecord vault(UUID ownerId) {
+        return new CacheInvalidationRecord(Type.VAULT, ownerId, ownerId, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.wesleybertipaglia.securepass.records.checker;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PasswordCheckerBatchResultRecord(
+        long index,
+        String strength,
+        List<String> suggestions,
+        PasswordCheckerResponseRecord.Estimate estimate,
+        String error) {
+}
@@ -0,0 +1,9 @@
+package com.wesleybertipaglia.securepass.records.checker;
+
+public record PasswordCheckerEditRecord(
+        String op,
+        Integer start,
+        Integer end,
+        String text,
+        boolean estimate) {
+}
@@ -0,0 +1,23 @@
+package com.wesleybertipaglia.securepass.records.checker;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PasswordCheckerLiveResponseRecord(
+        int length,
+        String strength,
+        List<String> suggestions,
+        PasswordCheckerResponseRecord.Estimate estimate,
+        String error) {
+
+    public static PasswordCheckerLiveResponseRecord of(int length, PasswordCheckerResponseRecord result) {
+        return new PasswordCheckerLiveResponseRecord(length, result.strength(), result.suggestions(),
+                result.estimate(), null);
+    }
+
+    public static PasswordCheckerLiveResponseRecord error(int length, String error) {
+        return new PasswordCheckerLiveResponseRecord(length, null, null, null, error);
+    }
+}
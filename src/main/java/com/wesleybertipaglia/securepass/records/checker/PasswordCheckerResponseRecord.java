@@ -2,9 +2,26 @@ package com.wesleybertipaglia.securepass.records.checker;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import jakarta.validation.constraints.*;
 
 public record PasswordCheckerResponseRecord(
                 @NotBlank(message = "Strength cannot be blank") String strength,
-                @NotNull(message = "Suggestions cannot be null") List<String> suggestions) {
+                @NotNull(message = "Suggestions cannot be null") List<String> suggestions,
+                @JsonInclude(JsonInclude.Include.NON_NULL) Estimate estimate) {
+
+        public PasswordCheckerResponseRecord(String strength, List<String> suggestions) {
+                this(strength, suggestions, null);
+        }
+
+        public PasswordCheckerResponseRecord withEstimate(Estimate estimate) {
+                return new PasswordCheckerResponseRecord(strength, suggestions, estimate);
+        }
+
+        public record Estimate(
+                        double guessesLog10,
+                        double entropyBits,
+                        List<String> patterns) {
+        }
 }
@@ -0,0 +1,8 @@
+package com.wesleybertipaglia.securepass.records.generator;
+
+public record PassphraseGeneratorResponseRecord(String passphrase, GenerationProperties properties) {
+
+        public record GenerationProperties(int words, String separator, boolean capitalize, int digits,
+                        String wordlist, double entropyBits) {
+        }
+}
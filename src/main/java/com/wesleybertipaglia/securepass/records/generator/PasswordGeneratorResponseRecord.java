@@ -1,8 +1,16 @@
 package com.wesleybertipaglia.securepass.records.generator;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public record PasswordGeneratorResponseRecord(String password, GenerationProperties properties) {
 
         public record GenerationProperties(int length, boolean uppercase,
-                        boolean lowercase, boolean numbers, boolean special) {
+                        boolean lowercase, boolean numbers, boolean special,
+                        @JsonInclude(JsonInclude.Include.NON_NULL) String template) {
+
+                public GenerationProperties(int length, boolean uppercase,
+                                boolean lowercase, boolean numbers, boolean special) {
+                        this(length, uppercase, lowercase, numbers, special, null);
+                }
         }
 }
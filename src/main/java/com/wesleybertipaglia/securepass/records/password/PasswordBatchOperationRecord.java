@@ -0,0 +1,18 @@
+package com.wesleybertipaglia.securepass.records.password;
+
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record PasswordBatchOperationRecord(
+        @NotBlank(message = "Operation cannot be blank") String op,
+        UUID id,
+        @Size(max = 255, message = "Label must be at most 255 characters long") String label,
+        @Size(max = 255, message = "Password must be at most 255 characters long") String password,
+        Long version) {
+
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+}
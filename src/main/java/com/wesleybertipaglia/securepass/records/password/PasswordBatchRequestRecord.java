@@ -0,0 +1,13 @@
+package com.wesleybertipaglia.securepass.records.password;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record PasswordBatchRequestRecord(
+        @NotNull(message = "Operations cannot be null")
+        @Size(min = 1, max = 1000, message = "Operations must contain between 1 and 1000 entries")
+        List<@Valid @NotNull(message = "Operations cannot contain null") PasswordBatchOperationRecord> operations) {
+}
@@ -0,0 +1,8 @@
+package com.wesleybertipaglia.securepass.records.password;
+
+import java.util.List;
+
+public record PasswordBatchResponseRecord(
+        boolean committed,
+        List<PasswordBatchResultRecord> results) {
+}
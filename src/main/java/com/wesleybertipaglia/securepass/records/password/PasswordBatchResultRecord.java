@@ -0,0 +1,15 @@
+package com.wesleybertipaglia.securepass.records.password;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PasswordBatchResultRecord(
+        int index,
+        String op,
+        UUID id,
+        int status,
+        Long version,
+        String error) {
+}
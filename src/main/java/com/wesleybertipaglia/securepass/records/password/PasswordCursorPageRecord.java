@@ -0,0 +1,8 @@
+package com.wesleybertipaglia.securepass.records.password;
+
+import java.util.List;
+
+public record PasswordCursorPageRecord(
+        List<PasswordSummaryRecord> content,
+        String nextCursor) {
+}
@@ -0,0 +1,6 @@
+package com.wesleybertipaglia.securepass.records.password;
+
+public record PasswordImportErrorRecord(
+        long index,
+        String error) {
+}
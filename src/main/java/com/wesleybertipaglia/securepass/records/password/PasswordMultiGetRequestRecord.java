@@ -0,0 +1,13 @@
+package com.wesleybertipaglia.securepass.records.password;
+
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record PasswordMultiGetRequestRecord(
+        @NotNull(message = "Ids cannot be null")
+        @Size(min = 1, max = 100, message = "Ids must contain between 1 and 100 entries")
+        List<@NotNull(message = "Ids cannot contain null") UUID> ids) {
+}
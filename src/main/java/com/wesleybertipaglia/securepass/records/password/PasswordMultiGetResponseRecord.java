@@ -0,0 +1,9 @@
+package com.wesleybertipaglia.securepass.records.password;
+
+import java.util.List;
+import java.util.UUID;
+
+public record PasswordMultiGetResponseRecord(
+        List<PasswordResponseRecord> found,
+        List<UUID> missing) {
+}
@@ -1,8 +1,9 @@
 package com.wesleybertipaglia.securepass.records.password;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 public record PasswordRequestRecord(
-        @NotBlank(message = "Label cannot be blank") String label,
-        @NotBlank(message = "Password cannot be blank") String password) {
+        @NotBlank(message = "Label cannot be blank") @Size(max = 255, message = "Label must be at most 255 characters long") String label,
+        @NotBlank(message = "Password cannot be blank") @Size(max = 255, message = "Password must be at most 255 characters long") String password) {
 }
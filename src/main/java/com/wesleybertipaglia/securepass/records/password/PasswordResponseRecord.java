@@ -4,11 +4,18 @@ import java.util.UUID;
 
 import org.springframework.hateoas.Links;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import jakarta.validation.constraints.NotBlank;
 
 public record PasswordResponseRecord(
         UUID id,
         @NotBlank(message = "Label cannot be blank") String label,
         @NotBlank(message = "Password cannot be blank") String password,
-        Links links) {
+        Links links,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long version) {
+
+    public PasswordResponseRecord(UUID id, String label, String password, Links links) {
+        this(id, label, password, links, null);
+    }
 }
@@ -0,0 +1,14 @@
+package com.wesleybertipaglia.securepass.records.password;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public record PasswordSummaryRecord(
+        UUID id,
+        String label,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String password,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,15 @@
+package com.wesleybertipaglia.securepass.records.policy;
+
+public record PasswordPolicyRecord(
+        String id,
+        Integer minLength,
+        Integer maxLength,
+        Boolean requireLowercase,
+        Boolean requireUppercase,
+        Boolean requireNumber,
+        Boolean requireSpecial,
+        String specialCharacters,
+        Boolean breachCheck,
+        Integer mediumMaxSuggestions,
+        Integer mediumMinLength) {
+}
@@ -1,18 +1,83 @@
 package com.wesleybertipaglia.securepass.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 
 import com.wesleybertipaglia.securepass.entities.Password;
+import com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord;
 
 public interface PasswordRepository extends JpaRepository<Password, UUID> {
     Optional<Password> findByIdAndOwnerId(UUID id, UUID ownerId);
 
     Boolean existsByIdAndOwnerId(UUID id, UUID ownerId);
 
-    Page<Password> findAllByOwnerId(UUID ownerId, Pageable pageable);
-}
\ No newline at end of file
+    long countByOwnerId(UUID ownerId);
+
+    List<Password> findAllByOwnerIdAndIdIn(UUID ownerId, Collection<UUID> ids);
+
+    List<Password> findAllByOwnerIdOrderByCreatedAtAscIdAsc(UUID ownerId, Limit limit);
+
+    @Query("select new com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord("
+            + "p.id, p.label, case when :includeSecret = true then p.password end, p.createdAt, p.updatedAt)"
+            + " from Password p where p.owner.id = :ownerId order by p.createdAt, p.id")
+    List<PasswordSummaryRecord> findSummariesByOwnerId(@Param("ownerId") UUID ownerId,
+            @Param("includeSecret") boolean includeSecret, Pageable pageable);
+
+    @Query("select new com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord("
+            + "p.id, p.label, case when :includeSecret = true then p.password end, p.createdAt, p.updatedAt)"
+            + " from Password p where p.owner.id = :ownerId order by p.createdAt, p.id")
+    List<PasswordSummaryRecord> findFirstSummariesByOwnerId(@Param("ownerId") UUID ownerId,
+            @Param("includeSecret") boolean includeSecret, Limit limit);
+
+    @Query("select new com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord("
+            + "p.id, p.label, case when :includeSecret = true then p.password end, p.createdAt, p.updatedAt)"
+            + " from Password p where p.owner.id = :ownerId"
+            + " and (p.createdAt > :createdAt or (p.createdAt = :createdAt and p.id > :id))"
+            + " order by p.createdAt, p.id")
+    List<PasswordSummaryRecord> findNextSummariesByOwnerId(@Param("ownerId") UUID ownerId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+            @Param("includeSecret") boolean includeSecret, Limit limit);
+
+    /**
+     * Streams every password of the owner, oldest first, as projections so
+     * nothing accumulates in the persistence context. Must be consumed and
+     * closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord("
+            + "p.id, p.label, p.password, p.createdAt, p.updatedAt)"
+            + " from Password p where p.owner.id = :ownerId order by p.createdAt, p.id")
+    Stream<PasswordSummaryRecord> streamSummariesByOwnerId(@Param("ownerId") UUID ownerId);
+
+    /**
+     * Updates a password in one statement, only when it belongs to the owner
+     * and, if an expected version is given, is still at that version. Null
+     * label or password keep the stored value.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Password p set p.label = coalesce(:label, p.label), p.password = coalesce(:password, p.password),"
+            + " p.updatedAt = :updatedAt, p.version = p.version + 1"
+            + " where p.id = :id and p.owner.id = :ownerId and (:version is null or p.version = :version)")
+    int updateByIdAndOwnerId(@Param("id") UUID id, @Param("ownerId") UUID ownerId, @Param("label") String label,
+            @Param("password") String password, @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("version") Long version);
+}
@@ -0,0 +1,45 @@
+package com.wesleybertipaglia.securepass.repositories;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+import com.wesleybertipaglia.securepass.entities.VaultCounter;
+
+public interface VaultCounterRepository extends JpaRepository<VaultCounter, UUID> {
+    @Query("select c.passwordCount from VaultCounter c where c.ownerId = :ownerId")
+    Optional<Long> findPasswordCountByOwnerId(@Param("ownerId") UUID ownerId);
+
+    @Modifying
+    @Query("update VaultCounter c set c.passwordCount = c.passwordCount + :delta where c.ownerId = :ownerId")
+    int addToPasswordCount(@Param("ownerId") UUID ownerId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("delete from VaultCounter c where c.ownerId = :ownerId")
+    int deleteByOwnerId(@Param("ownerId") UUID ownerId);
+
+    @Modifying
+    @Query("insert into VaultCounter (ownerId, passwordCount) select u.id, 0 from User u"
+            + " where not exists (select 1 from VaultCounter c where c.ownerId = u.id)")
+    int createMissing();
+
+    @Modifying
+    @Query("delete from VaultCounter c where not exists (select 1 from User u where u.id = c.ownerId)")
+    int deleteOrphans();
+
+    @Query("select c.ownerId from VaultCounter c"
+            + " where c.passwordCount <> (select count(p) from Password p where p.owner.id = c.ownerId)")
+    List<UUID> findDriftedOwnerIds();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from VaultCounter c where c.ownerId = :ownerId")
+    Optional<VaultCounter> findForUpdateByOwnerId(@Param("ownerId") UUID ownerId);
+}
@@ -13,17 +13,29 @@ import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 
 import com.wesleybertipaglia.securepass.entities.User;
+import com.wesleybertipaglia.securepass.entities.VaultCounter;
 import com.wesleybertipaglia.securepass.repositories.UserRepository;
+import com.wesleybertipaglia.securepass.repositories.VaultCounterRepository;
 import com.wesleybertipaglia.securepass.records.auth.SignInRequestRecord;
 import com.wesleybertipaglia.securepass.records.auth.SignInResponseRecord;
 import com.wesleybertipaglia.securepass.records.auth.SignUpRequestRecord;
 import com.wesleybertipaglia.securepass.records.auth.SignUpResponseRecord;
+import com.wesleybertipaglia.securepass.services.password.VaultCache;
 
 @Service
 public class AuthService implements AuthServiceInterface {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VaultCounterRepository vaultCounterRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private VaultCache vaultCache;
+
     @Autowired
     private JwtEncoder jwtEncoder;
 
@@ -64,14 +76,18 @@ public class AuthService implements AuthServiceInterface {
                 passwordEncoder.encode(signUpRequest.password()));
 
         userRepository.save(user);
+        vaultCounterRepository.save(new VaultCounter(user.getId(), 0));
         return new SignUpResponseRecord(user.getName(), user.getEmail());
     }
 
     @Transactional
     public void deleteAccount(String tokenSubject) {
-        User user = userRepository.findById(UUID.fromString(tokenSubject)).orElseThrow(
+        User user = userCache.find(UUID.fromString(tokenSubject)).orElseThrow(
                 () -> new BadCredentialsException("Account not found."));
-        userRepository.delete(user);
+        vaultCounterRepository.deleteByOwnerId(user.getId());
+        userRepository.deleteAccountById(user.getId());
+        userCache.evict(user.getId());
+        vaultCache.evictVault(user.getId());
     }
 
 }
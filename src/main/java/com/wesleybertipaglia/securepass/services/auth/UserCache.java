@@ -0,0 +1,92 @@
+package com.wesleybertipaglia.securepass.services.auth;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+
+import com.wesleybertipaglia.securepass.entities.User;
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord;
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord.Type;
+import com.wesleybertipaglia.securepass.repositories.UserRepository;
+import com.wesleybertipaglia.securepass.services.cache.CacheInvalidationBus;
+
+/**
+ * Detached user rows by id, for the few places that need the user itself
+ * rather than a reference to attach as owner. Users are never updated, so an
+ * entry only goes stale when the account is deleted, which evicts it here and,
+ * through the {@link CacheInvalidationBus}, on the other instances. When the
+ * cache is full an arbitrary entry makes room.
+ */
+@Component
+public class UserCache {
+    private final Map<UUID, User> users = new ConcurrentHashMap<>();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${securepass.auth.user.cache-size:1024}")
+    private int cacheSize;
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(this::invalidate);
+    }
+
+    public Optional<User> find(UUID id) {
+        User user = users.get(id);
+        if (user != null) {
+            return Optional.of(user);
+        }
+        Optional<User> loaded = userRepository.findById(id);
+        loaded.ifPresent(found -> {
+            if (users.size() >= cacheSize) {
+                Iterator<UUID> evicted = users.keySet().iterator();
+                if (evicted.hasNext()) {
+                    users.remove(evicted.next());
+                }
+            }
+            users.putIfAbsent(id, found);
+        });
+        return loaded;
+    }
+
+    /**
+     * Evicts the user now and, inside a transaction, again after commit so a
+     * concurrent lookup cannot put back a row that is about to be deleted.
+     */
+    public void evict(UUID id) {
+        invalidationBus.publish(CacheInvalidationRecord.user(id));
+        users.remove(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.remove(id);
+                }
+            });
+        }
+    }
+
+    void invalidate(CacheInvalidationRecord invalidation) {
+        if (invalidation.type() == Type.USER) {
+            users.remove(invalidation.id());
+        }
+    }
+
+    int size() {
+        return users.size();
+    }
+}
@@ -0,0 +1,64 @@
+package com.wesleybertipaglia.securepass.services.batch;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Renders chunks in parallel and writes them in submission order. At most
+ * {@code maxInFlight} chunks are pending at once, so memory stays bounded by
+ * the chunk size whatever the number of chunks.
+ */
+public final class ParallelChunkWriter {
+    private final ExecutorService executor;
+    private final int maxInFlight;
+
+    public ParallelChunkWriter(ExecutorService executor, int maxInFlight) {
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public static ParallelChunkWriter forAvailableProcessors(ExecutorService executor) {
+        return new ParallelChunkWriter(executor, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public void write(Iterator<Callable<byte[]>> chunks, OutputStream output) throws IOException {
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        try {
+            while (chunks.hasNext()) {
+                pending.add(executor.submit(chunks.next()));
+                if (pending.size() >= maxInFlight) {
+                    writeNext(pending, output);
+                }
+            }
+            while (!pending.isEmpty()) {
+                writeNext(pending, output);
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private void writeNext(Deque<Future<byte[]>> pending, OutputStream output) throws IOException {
+        byte[] chunk;
+        try {
+            chunk = pending.poll().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a chunk", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Failed to render a chunk", e.getCause());
+        }
+        output.write(chunk);
+        output.flush();
+    }
+}
@@ -0,0 +1,93 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only Bloom filter over SHA-1 hashes, memory-mapped from a file written
+ * by {@link BreachBloomFilterBuilder}. The k bit positions are derived from
+ * the hash itself with double hashing, so a lookup is k byte reads.
+ *
+ * File layout: a 32 byte big-endian header (magic, version, bit count, hash
+ * count, entry count) followed by the bit array.
+ */
+public final class BreachBloomFilter {
+    static final int MAGIC = 0x53504246;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private final MappedRegion bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final long entryCount;
+
+    BreachBloomFilter(MappedRegion bits, long bitCount, int hashCount, long entryCount) {
+        this.bits = bits;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.entryCount = entryCount;
+    }
+
+    public static BreachBloomFilter open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = MappedRegion.readHeader(channel, HEADER_SIZE);
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a breach Bloom filter file: " + path);
+            }
+            if (header.getInt() != VERSION) {
+                throw new IllegalStateException("Unsupported breach Bloom filter version: " + path);
+            }
+            long bitCount = header.getLong();
+            int hashCount = header.getInt();
+            header.getInt();
+            long entryCount = header.getLong();
+
+            long byteCount = byteCount(bitCount);
+            if (channel.size() < HEADER_SIZE + byteCount) {
+                throw new IllegalStateException("Truncated breach Bloom filter file: " + path);
+            }
+            MappedRegion bits = MappedRegion.map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE, byteCount,
+                    MappedRegion.DEFAULT_SEGMENT_SIZE);
+            return new BreachBloomFilter(bits, bitCount, hashCount, entryCount);
+        }
+    }
+
+    public boolean mightContain(byte[] sha1) {
+        long hash1 = firstHash(sha1);
+        long hash2 = secondHash(sha1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits.get(bit >>> 3) & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long entryCount() {
+        return entryCount;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    static long byteCount(long bitCount) {
+        return (bitCount + 7) / 8;
+    }
+
+    static long firstHash(byte[] sha1) {
+        return ByteBuffer.wrap(sha1, 0, Long.BYTES).getLong();
+    }
+
+    static long secondHash(byte[] sha1) {
+        return ByteBuffer.wrap(sha1, Long.BYTES, Long.BYTES).getLong() | 1;
+    }
+}
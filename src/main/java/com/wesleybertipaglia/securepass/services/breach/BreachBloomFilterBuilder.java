@@ -0,0 +1,126 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builds a {@link BreachBloomFilter} file from a text corpus. Lines in the
+ * HIBP format ({@code SHA1HEX[:COUNT]}) are used as hashes; any other
+ * non-empty line is treated as a plaintext password and hashed.
+ *
+ * Usage: {@code BreachBloomFilterBuilder <corpus> <output> [false-positive-rate]}
+ */
+public final class BreachBloomFilterBuilder {
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    private static final int MAX_HASH_COUNT = 30;
+
+    private BreachBloomFilterBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BreachBloomFilterBuilder <corpus> <output> [false-positive-rate]");
+            System.exit(1);
+        }
+        double falsePositiveRate = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_FALSE_POSITIVE_RATE;
+
+        long start = System.nanoTime();
+        BreachBloomFilter filter = build(Path.of(args[0]), Path.of(args[1]), falsePositiveRate);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("Wrote %d entries into %d bits with %d hash functions in %d ms%n",
+                filter.entryCount(), filter.bitCount(), filter.hashCount(), elapsedMillis);
+    }
+
+    public static BreachBloomFilter build(Path corpus, Path output, double falsePositiveRate) throws IOException {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        long entryCount = countEntries(corpus);
+        long bitCount = bitCount(Math.max(entryCount, 1), falsePositiveRate);
+        int hashCount = hashCount(Math.max(entryCount, 1), bitCount);
+        long byteCount = BreachBloomFilter.byteCount(bitCount);
+
+        try (RandomAccessFile file = new RandomAccessFile(output.toFile(), "rw");
+                FileChannel channel = file.getChannel()) {
+            file.setLength(0);
+            file.setLength(BreachBloomFilter.HEADER_SIZE + byteCount);
+
+            MappedRegion bits = MappedRegion.map(channel, FileChannel.MapMode.READ_WRITE,
+                    BreachBloomFilter.HEADER_SIZE, byteCount, MappedRegion.DEFAULT_SEGMENT_SIZE);
+            try (BufferedReader reader = Files.newBufferedReader(corpus, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    byte[] hash = hashOf(line);
+                    if (hash != null) {
+                        add(bits, bitCount, hashCount, hash);
+                    }
+                }
+            }
+            bits.force();
+
+            ByteBuffer header = ByteBuffer.allocate(BreachBloomFilter.HEADER_SIZE)
+                    .putInt(BreachBloomFilter.MAGIC)
+                    .putInt(BreachBloomFilter.VERSION)
+                    .putLong(bitCount)
+                    .putInt(hashCount)
+                    .putInt(0)
+                    .putLong(entryCount)
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        return BreachBloomFilter.open(output);
+    }
+
+    static long bitCount(long entryCount, double falsePositiveRate) {
+        double bits = -entryCount * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        return Math.max(Long.SIZE, (long) Math.ceil(bits / Long.SIZE) * Long.SIZE);
+    }
+
+    static int hashCount(long entryCount, long bitCount) {
+        int hashCount = (int) Math.round((double) bitCount / entryCount * Math.log(2));
+        return Math.max(1, Math.min(MAX_HASH_COUNT, hashCount));
+    }
+
+    private static long countEntries(Path corpus) throws IOException {
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(corpus, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static byte[] hashOf(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        if (BreachHashes.isSha1Hex(line, 0)
+                && (line.length() == BreachHashes.SHA1_HEX_LENGTH || line.charAt(BreachHashes.SHA1_HEX_LENGTH) == ':')) {
+            return BreachHashes.parseSha1Hex(line, 0);
+        }
+        return BreachHashes.sha1(line);
+    }
+
+    private static void add(MappedRegion bits, long bitCount, int hashCount, byte[] sha1) {
+        long hash1 = BreachBloomFilter.firstHash(sha1);
+        long hash2 = BreachBloomFilter.secondHash(sha1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            long position = bit >>> 3;
+            bits.put(position, (byte) (bits.get(position) | (1 << (bit & 7))));
+        }
+    }
+}
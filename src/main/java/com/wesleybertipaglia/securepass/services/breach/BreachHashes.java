@@ -0,0 +1,67 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public final class BreachHashes {
+    public static final int SHA1_LENGTH = 20;
+    public static final int SHA1_HEX_LENGTH = SHA1_LENGTH * 2;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> SHA1 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    });
+
+    private BreachHashes() {
+    }
+
+    public static byte[] sha1(CharSequence password) {
+        return SHA1.get().digest(password.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static boolean isSha1Hex(CharSequence value, int offset) {
+        if (value.length() - offset < SHA1_HEX_LENGTH) {
+            return false;
+        }
+        for (int i = offset; i < offset + SHA1_HEX_LENGTH; i++) {
+            if (hexValue(value.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static byte[] parseSha1Hex(CharSequence value, int offset) {
+        byte[] hash = new byte[SHA1_LENGTH];
+        for (int i = 0; i < SHA1_LENGTH; i++) {
+            int high = hexValue(value.charAt(offset + i * 2));
+            int low = hexValue(value.charAt(offset + i * 2 + 1));
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Invalid SHA-1 hash: " + value);
+            }
+            hash[i] = (byte) ((high << 4) | low);
+        }
+        return hash;
+    }
+
+    public static int hexValue(char character) {
+        if (character >= '0' && character <= '9') {
+            return character - '0';
+        } else if (character >= 'A' && character <= 'F') {
+            return character - 'A' + 10;
+        } else if (character >= 'a' && character <= 'f') {
+            return character - 'a' + 10;
+        }
+        return -1;
+    }
+
+    public static char hexDigit(int value) {
+        return HEX_DIGITS[value & 0xF];
+    }
+}
@@ -0,0 +1,128 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sorted SHA-1 hashes memory-mapped from a file written by
+ * {@link BreachRangeIndexBuilder}, answering k-anonymity range queries for a
+ * 5 hex character (20 bit) prefix.
+ *
+ * File layout: a 32 byte big-endian header (magic, version, record count),
+ * an offset table with the first record index of every prefix plus the
+ * record count, then fixed-width records of the 18 trailing hash bytes and
+ * the breach count.
+ */
+public final class BreachRangeIndex {
+    public static final int PREFIX_LENGTH = 5;
+
+    static final int MAGIC = 0x53504252;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int PREFIX_BITS = PREFIX_LENGTH * 4;
+    static final int PREFIX_COUNT = 1 << PREFIX_BITS;
+    static final long OFFSET_TABLE_SIZE = (PREFIX_COUNT + 1L) * Integer.BYTES;
+    static final int HASH_TAIL_OFFSET = 2;
+    static final int HASH_TAIL_LENGTH = BreachHashes.SHA1_LENGTH - HASH_TAIL_OFFSET;
+    static final int RECORD_SIZE = HASH_TAIL_LENGTH + Integer.BYTES;
+
+    private static final int SUFFIX_LENGTH = BreachHashes.SHA1_HEX_LENGTH - PREFIX_LENGTH;
+    private static final int RECORDS_PER_SEGMENT = MappedRegion.DEFAULT_SEGMENT_SIZE / RECORD_SIZE;
+    private static final byte[] LINE_SEPARATOR = { '\r', '\n' };
+
+    private final MappedRegion offsets;
+    private final MappedRegion records;
+    private final long recordCount;
+
+    private BreachRangeIndex(MappedRegion offsets, MappedRegion records, long recordCount) {
+        this.offsets = offsets;
+        this.records = records;
+        this.recordCount = recordCount;
+    }
+
+    public static BreachRangeIndex open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = MappedRegion.readHeader(channel, HEADER_SIZE);
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a breach range index file: " + path);
+            }
+            if (header.getInt() != VERSION) {
+                throw new IllegalStateException("Unsupported breach range index version: " + path);
+            }
+            long recordCount = header.getLong();
+
+            long recordsOffset = HEADER_SIZE + OFFSET_TABLE_SIZE;
+            if (channel.size() < recordsOffset + recordCount * RECORD_SIZE) {
+                throw new IllegalStateException("Truncated breach range index file: " + path);
+            }
+            MappedRegion offsets = MappedRegion.map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE,
+                    OFFSET_TABLE_SIZE, MappedRegion.DEFAULT_SEGMENT_SIZE);
+            MappedRegion records = MappedRegion.map(channel, FileChannel.MapMode.READ_ONLY, recordsOffset,
+                    recordCount * RECORD_SIZE, RECORDS_PER_SEGMENT * RECORD_SIZE);
+            return new BreachRangeIndex(offsets, records, recordCount);
+        }
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Encodes every {@code SUFFIX:COUNT} line for the prefix into a single
+     * array, sized exactly by a first pass over the counts.
+     */
+    public byte[] range(int prefix) {
+        if (prefix < 0 || prefix >= PREFIX_COUNT) {
+            throw new IllegalArgumentException("Prefix must be " + PREFIX_LENGTH + " hexadecimal characters");
+        }
+        long first = Integer.toUnsignedLong(offsets.getInt((long) prefix * Integer.BYTES));
+        long last = Integer.toUnsignedLong(offsets.getInt((long) (prefix + 1) * Integer.BYTES));
+
+        int size = 0;
+        for (long record = first; record < last; record++) {
+            size += SUFFIX_LENGTH + 1 + digits(count(record)) + LINE_SEPARATOR.length;
+        }
+
+        byte[] response = new byte[size];
+        int position = 0;
+        for (long record = first; record < last; record++) {
+            long base = record * RECORD_SIZE;
+            response[position++] = (byte) BreachHashes.hexDigit(records.get(base));
+            for (int i = 1; i < HASH_TAIL_LENGTH; i++) {
+                byte value = records.get(base + i);
+                response[position++] = (byte) BreachHashes.hexDigit(value >> 4);
+                response[position++] = (byte) BreachHashes.hexDigit(value);
+            }
+            response[position++] = ':';
+            position = writeCount(response, position, count(record));
+            response[position++] = LINE_SEPARATOR[0];
+            response[position++] = LINE_SEPARATOR[1];
+        }
+        return response;
+    }
+
+    private int count(long record) {
+        return records.getInt(record * RECORD_SIZE + HASH_TAIL_LENGTH);
+    }
+
+    private static int digits(int value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static int writeCount(byte[] target, int position, int value) {
+        int end = position + digits(value);
+        for (int i = end - 1; i >= position; i--) {
+            target[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,114 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Builds a {@link BreachRangeIndex} file from an HIBP-style corpus of
+ * {@code SHA1HEX[:COUNT]} lines sorted by hash, such as the ordered-by-hash
+ * download of the Pwned Passwords list.
+ *
+ * Usage: {@code BreachRangeIndexBuilder <sorted-corpus> <output>}
+ */
+public final class BreachRangeIndexBuilder {
+
+    private BreachRangeIndexBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BreachRangeIndexBuilder <sorted-corpus> <output>");
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        BreachRangeIndex index = build(Path.of(args[0]), Path.of(args[1]));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("Wrote %d records in %d ms%n", index.recordCount(), elapsedMillis);
+    }
+
+    public static BreachRangeIndex build(Path corpus, Path output) throws IOException {
+        int[] prefixCounts = new int[BreachRangeIndex.PREFIX_COUNT];
+        long recordCount = 0;
+
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(BreachRangeIndex.HEADER_SIZE + BreachRangeIndex.OFFSET_TABLE_SIZE);
+            OutputStream stream = Channels.newOutputStream(channel);
+            DataOutputStream records = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+
+            try (BufferedReader reader = Files.newBufferedReader(corpus, StandardCharsets.UTF_8)) {
+                byte[] previous = null;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    byte[] hash = parseHash(line);
+                    if (previous != null && Arrays.compareUnsigned(previous, hash) >= 0) {
+                        throw new IllegalArgumentException("Corpus must be sorted by hash without duplicates: " + line);
+                    }
+                    if (recordCount == Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException("Corpus has more than " + Integer.MAX_VALUE + " hashes");
+                    }
+
+                    records.write(hash, BreachRangeIndex.HASH_TAIL_OFFSET, BreachRangeIndex.HASH_TAIL_LENGTH);
+                    records.writeInt(parseCount(line));
+                    prefixCounts[prefixOf(hash)]++;
+                    recordCount++;
+                    previous = hash;
+                }
+            }
+            records.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(BreachRangeIndex.HEADER_SIZE)
+                    .putInt(BreachRangeIndex.MAGIC)
+                    .putInt(BreachRangeIndex.VERSION)
+                    .putLong(recordCount)
+                    .flip();
+            channel.write(header, 0);
+
+            ByteBuffer offsets = ByteBuffer.allocate((int) BreachRangeIndex.OFFSET_TABLE_SIZE);
+            int offset = 0;
+            for (int prefixCount : prefixCounts) {
+                offsets.putInt(offset);
+                offset += prefixCount;
+            }
+            offsets.putInt(offset).flip();
+            channel.write(offsets, BreachRangeIndex.HEADER_SIZE);
+            channel.force(true);
+        }
+        return BreachRangeIndex.open(output);
+    }
+
+    private static byte[] parseHash(String line) {
+        if (!BreachHashes.isSha1Hex(line, 0)
+                || (line.length() > BreachHashes.SHA1_HEX_LENGTH && line.charAt(BreachHashes.SHA1_HEX_LENGTH) != ':')) {
+            throw new IllegalArgumentException("Expected a SHA1:COUNT line: " + line);
+        }
+        return BreachHashes.parseSha1Hex(line, 0);
+    }
+
+    private static int parseCount(String line) {
+        if (line.length() <= BreachHashes.SHA1_HEX_LENGTH + 1) {
+            return 1;
+        }
+        long count = Long.parseLong(line.substring(BreachHashes.SHA1_HEX_LENGTH + 1).trim());
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, count));
+    }
+
+    private static int prefixOf(byte[] hash) {
+        return ((hash[0] & 0xFF) << 12) | ((hash[1] & 0xFF) << 4) | ((hash[2] & 0xFF) >>> 4);
+    }
+}
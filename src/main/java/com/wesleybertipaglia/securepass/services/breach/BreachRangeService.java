@@ -0,0 +1,53 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BreachRangeService implements BreachRangeServiceInterface {
+
+    @Value("${securepass.breach.range-index:}")
+    private String rangeIndexPath;
+
+    private BreachRangeIndex rangeIndex;
+
+    @PostConstruct
+    void loadRangeIndex() throws IOException {
+        if (!rangeIndexPath.isBlank()) {
+            rangeIndex = BreachRangeIndex.open(Path.of(rangeIndexPath));
+        }
+    }
+
+    public byte[] findRange(String prefix) {
+        int value = parsePrefix(prefix);
+
+        if (rangeIndex == null) {
+            throw new BreachRangeUnavailableException("Breach range index is not configured");
+        }
+
+        return rangeIndex.range(value);
+    }
+
+    private int parsePrefix(String prefix) {
+        if (prefix == null || prefix.length() != BreachRangeIndex.PREFIX_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Prefix must be " + BreachRangeIndex.PREFIX_LENGTH + " hexadecimal characters");
+        }
+
+        int value = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            int digit = BreachHashes.hexValue(prefix.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException(
+                        "Prefix must be " + BreachRangeIndex.PREFIX_LENGTH + " hexadecimal characters");
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+}
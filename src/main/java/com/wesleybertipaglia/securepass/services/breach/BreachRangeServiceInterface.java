@@ -0,0 +1,5 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+public interface BreachRangeServiceInterface {
+    byte[] findRange(String prefix);
+}
@@ -0,0 +1,12 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+/**
+ * Thrown when breach ranges are requested but no range index is configured,
+ * which is a matter of server setup rather than a bad request.
+ */
+public class BreachRangeUnavailableException extends RuntimeException {
+
+    public BreachRangeUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,67 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file region mapped as consecutive segments so files larger than 2 GB can
+ * be addressed with a long position. Multi-byte reads must not cross a
+ * segment boundary, so callers pick a segment size aligned to their records.
+ */
+final class MappedRegion {
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    private final MappedByteBuffer[] segments;
+    private final int segmentSize;
+    private final long length;
+
+    private MappedRegion(MappedByteBuffer[] segments, int segmentSize, long length) {
+        this.segments = segments;
+        this.segmentSize = segmentSize;
+        this.length = length;
+    }
+
+    static MappedRegion map(FileChannel channel, FileChannel.MapMode mode, long offset, long length, int segmentSize)
+            throws IOException {
+        int count = (int) ((length + segmentSize - 1) / segmentSize);
+        MappedByteBuffer[] segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i * segmentSize;
+            segments[i] = channel.map(mode, offset + start, Math.min(segmentSize, length - start));
+        }
+        return new MappedRegion(segments, segmentSize, length);
+    }
+
+    static ByteBuffer readHeader(FileChannel channel, int size) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(size);
+        int read;
+        do {
+            read = channel.read(header, header.position());
+        } while (read > 0 && header.hasRemaining());
+        return header.flip();
+    }
+
+    long length() {
+        return length;
+    }
+
+    byte get(long position) {
+        return segments[(int) (position / segmentSize)].get((int) (position % segmentSize));
+    }
+
+    void put(long position, byte value) {
+        segments[(int) (position / segmentSize)].put((int) (position % segmentSize), value);
+    }
+
+    int getInt(long position) {
+        return segments[(int) (position / segmentSize)].getInt((int) (position % segmentSize));
+    }
+
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+}
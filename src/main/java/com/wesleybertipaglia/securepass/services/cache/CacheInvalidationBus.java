@@ -0,0 +1,160 @@
+package com.wesleybertipaglia.securepass.services.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.annotation.PostConstruct;
+
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord;
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord.Type;
+
+/**
+ * Tells the other instances which cached users and passwords changed. The
+ * invalidations of a transaction are collected, coalesced and handed to the
+ * transport in one batch just before it commits; invalidations received
+ * from other instances are passed to the subscribed caches. Without a
+ * transport bean publishing does nothing.
+ */
+@Component
+public class CacheInvalidationBus implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final String node = UUID.randomUUID().toString();
+    private final List<Consumer<CacheInvalidationRecord>> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+
+    @Autowired(required = false)
+    private CacheInvalidationTransport transport;
+
+    @PostConstruct
+    void start() {
+        if (transport != null) {
+            transport.subscribe(node, this::deliver);
+            logger.info("Cache invalidations go through {} as node {}", transport.getClass().getSimpleName(), node);
+        }
+    }
+
+    public String node() {
+        return node;
+    }
+
+    public void subscribe(Consumer<CacheInvalidationRecord> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Publishes an invalidation with the current transaction, or right away
+     * outside of one.
+     */
+    public void publish(CacheInvalidationRecord invalidation) {
+        if (transport == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(invalidation));
+            return;
+        }
+        pending().add(invalidation);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.invalidations", published, LongAdder::sum).tags("direction", "published")
+                .description("Cache invalidations exchanged with other instances").register(registry);
+        FunctionCounter.builder("cache.invalidations", received, LongAdder::sum).tags("direction", "received")
+                .description("Cache invalidations exchanged with other instances").register(registry);
+    }
+
+    private Pending pending() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Pending pending && pending.bus() == this) {
+                return pending;
+            }
+        }
+        Pending pending = new Pending();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private void send(List<CacheInvalidationRecord> invalidations) {
+        transport.publish(node, invalidations);
+        published.add(invalidations.size());
+    }
+
+    private void deliver(List<CacheInvalidationRecord> invalidations) {
+        received.add(invalidations.size());
+        for (CacheInvalidationRecord invalidation : invalidations) {
+            for (Consumer<CacheInvalidationRecord> listener : listeners) {
+                listener.accept(invalidation);
+            }
+        }
+    }
+
+    /**
+     * Keeps one invalidation per user, password and vault: the highest
+     * version of a password wins over lower ones and a delete over both, and
+     * a vault invalidation covers the owner's passwords.
+     */
+    static List<CacheInvalidationRecord> coalesce(Collection<CacheInvalidationRecord> invalidations) {
+        Map<Key, CacheInvalidationRecord> coalesced = new LinkedHashMap<>();
+        for (CacheInvalidationRecord invalidation : invalidations) {
+            if (invalidation.type() == Type.VAULT) {
+                coalesced.values().removeIf(other -> other.type() == Type.PASSWORD
+                        && invalidation.ownerId().equals(other.ownerId()));
+            } else if (invalidation.type() == Type.PASSWORD
+                    && coalesced.containsKey(new Key(Type.VAULT, invalidation.ownerId()))) {
+                continue;
+            }
+            coalesced.merge(new Key(invalidation.type(), invalidation.id()), invalidation,
+                    CacheInvalidationBus::latest);
+        }
+        return new ArrayList<>(coalesced.values());
+    }
+
+    private static CacheInvalidationRecord latest(CacheInvalidationRecord a, CacheInvalidationRecord b) {
+        if (a.version() == null) {
+            return a;
+        }
+        return b.version() == null || b.version() >= a.version() ? b : a;
+    }
+
+    private record Key(Type type, UUID id) {
+    }
+
+    private final class Pending implements TransactionSynchronization {
+        private final List<CacheInvalidationRecord> invalidations = new ArrayList<>();
+
+        CacheInvalidationBus bus() {
+            return CacheInvalidationBus.this;
+        }
+
+        void add(CacheInvalidationRecord invalidation) {
+            invalidations.add(invalidation);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            send(coalesce(invalidations));
+        }
+    }
+}
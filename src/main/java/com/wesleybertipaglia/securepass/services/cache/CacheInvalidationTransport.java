@@ -0,0 +1,25 @@
+package com.wesleybertipaglia.securepass.services.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord;
+
+/**
+ * Carries cache invalidations between instances. The bus works without one,
+ * for a single instance, and uses whichever bean implements this interface.
+ */
+public interface CacheInvalidationTransport {
+    /**
+     * Sends the invalidations of one transaction. Called just before the
+     * transaction commits, so a transport writing to the application's
+     * database commits them together with the change.
+     */
+    public void publish(String node, List<CacheInvalidationRecord> invalidations);
+
+    /**
+     * Starts delivering the invalidations published by every node other
+     * than {@code node}, in batches and from any thread.
+     */
+    public void subscribe(String node, Consumer<List<CacheInvalidationRecord>> listener);
+}
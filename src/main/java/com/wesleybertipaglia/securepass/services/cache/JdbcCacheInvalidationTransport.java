@@ -0,0 +1,179 @@
+package com.wesleybertipaglia.securepass.services.cache;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord;
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord.Type;
+
+/**
+ * Default transport: invalidations are appended to the
+ * {@code cache_invalidations} table in the publishing transaction, and every
+ * instance polls the rows after the last id it has seen. One batched INSERT
+ * per writing transaction and one primary key range scan per poll keep the
+ * cost to the database small.
+ *
+ * Ids are handed out when rows are inserted, not when they commit, so a row
+ * can become visible after rows with higher ids. Polls read on from the
+ * highest id seen, and every id skipped below it is looked up again on each
+ * poll until it shows up, or until {@link #GAP_TIMEOUT} passes and it is
+ * taken for a rolled back insert.
+ */
+@Component
+@ConditionalOnProperty(name = "securepass.cache.invalidation.transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    static final int POLL_LIMIT = 1000;
+    static final int MAX_GAPS = 1000;
+    static final Duration GAP_TIMEOUT = Duration.ofSeconds(30);
+    static final Duration CLEANUP_INTERVAL = Duration.ofMinutes(1);
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcCacheInvalidationTransport.class);
+
+    private static final String INSERT = "insert into cache_invalidations"
+            + " (node, entity_type, entity_id, owner_id, version, created_at) values (?, ?, ?, ?, ?, ?)";
+    private static final String COLUMNS = "select id, node, entity_type, entity_id, owner_id, version"
+            + " from cache_invalidations";
+    private static final String SELECT = COLUMNS + " where id > ? order by id fetch first " + POLL_LIMIT
+            + " rows only";
+    private static final String SELECT_LAST_ID = "select coalesce(max(id), 0) from cache_invalidations";
+    private static final String DELETE_BEFORE = "delete from cache_invalidations where created_at < ?";
+
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private String node;
+    private Consumer<List<CacheInvalidationRecord>> listener;
+    private long cursor = -1;
+    private long lastCleanup;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${securepass.cache.invalidation.retention:PT10M}")
+    private Duration retention;
+
+    private record Row(long id, String node, CacheInvalidationRecord invalidation) {
+    }
+
+    @Override
+    public void publish(String node, List<CacheInvalidationRecord> invalidations) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT, invalidations, invalidations.size(), (statement, invalidation) -> {
+            statement.setString(1, node);
+            statement.setString(2, invalidation.type().name());
+            statement.setObject(3, invalidation.id());
+            statement.setObject(4, invalidation.ownerId());
+            statement.setObject(5, invalidation.version());
+            statement.setObject(6, now);
+        });
+    }
+
+    @Override
+    public synchronized void subscribe(String node, Consumer<List<CacheInvalidationRecord>> listener) {
+        this.node = node;
+        this.listener = listener;
+    }
+
+    /**
+     * Delivers the invalidations committed since the last poll, those that
+     * filled a gap first. The first poll only records where the log ends:
+     * caches start empty, so earlier invalidations have nothing to drop.
+     */
+    @Scheduled(fixedDelayString = "${securepass.cache.invalidation.poll-interval:PT1S}")
+    public synchronized void poll() {
+        if (listener == null) {
+            return;
+        }
+        try {
+            if (cursor < 0) {
+                cursor = jdbcTemplate.queryForObject(SELECT_LAST_ID, Long.class);
+                lastCleanup = System.nanoTime();
+                return;
+            }
+            long now = System.nanoTime();
+            List<CacheInvalidationRecord> received = new ArrayList<>();
+            if (!gaps.isEmpty()) {
+                for (Row row : jdbcTemplate.query(selectIds(gaps.size()), this::mapRow, gaps.keySet().toArray())) {
+                    gaps.remove(row.id());
+                    receive(row, received);
+                }
+                expireGaps(now);
+            }
+            for (Row row : jdbcTemplate.query(SELECT, this::mapRow, cursor)) {
+                for (long id = Math.max(cursor + 1, row.id() - MAX_GAPS); id < row.id(); id++) {
+                    gaps.put(id, now);
+                }
+                cursor = row.id();
+                receive(row, received);
+            }
+            while (gaps.size() > MAX_GAPS) {
+                gaps.pollFirstEntry();
+            }
+            if (!received.isEmpty()) {
+                listener.accept(received);
+            }
+            cleanup();
+        } catch (DataAccessException e) {
+            logger.warn("Could not poll cache invalidations", e);
+        }
+    }
+
+    private void receive(Row row, List<CacheInvalidationRecord> received) {
+        if (!row.node().equals(node)) {
+            received.add(row.invalidation());
+        }
+    }
+
+    /**
+     * Stops waiting for ids missing for longer than {@link #GAP_TIMEOUT}.
+     */
+    private void expireGaps(long now) {
+        int before = gaps.size();
+        gaps.values().removeIf(missingSince -> now - missingSince >= GAP_TIMEOUT.toNanos());
+        if (gaps.size() < before) {
+            logger.debug("Skipped {} cache invalidations missing for {}", before - gaps.size(), GAP_TIMEOUT);
+        }
+    }
+
+    private static String selectIds(int count) {
+        return COLUMNS + " where id in (" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    private void cleanup() {
+        long now = System.nanoTime();
+        if (now - lastCleanup < CLEANUP_INTERVAL.toNanos()) {
+            return;
+        }
+        lastCleanup = now;
+        int deleted = jdbcTemplate.update(DELETE_BEFORE, LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            logger.debug("Deleted {} cache invalidations older than {}", deleted, retention);
+        }
+    }
+
+    private Row mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        long version = resultSet.getLong("version");
+        Long nullableVersion = resultSet.wasNull() ? null : version;
+        return new Row(resultSet.getLong("id"), resultSet.getString("node"),
+                new CacheInvalidationRecord(Type.valueOf(resultSet.getString("entity_type")),
+                        resultSet.getObject("entity_id", UUID.class), resultSet.getObject("owner_id", UUID.class),
+                        nullableVersion));
+    }
+}
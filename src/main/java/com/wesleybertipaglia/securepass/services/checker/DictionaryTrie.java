@@ -0,0 +1,93 @@
+package com.wesleybertipaglia.securepass.services.checker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Ranked word list stored as a trie snapshot written by
+ * {@link DictionaryTrieBuilder}. The snapshot is read into a single buffer and
+ * navigated in place, so loading does not parse or insert any word.
+ *
+ * Layout: a 16 byte big-endian header (magic, version, node count, word
+ * count) followed by fixed-width nodes of edge label, child count, first
+ * child index and word rank (0 when no word ends at the node). The children
+ * of a node are contiguous and sorted by label; node 0 is the root.
+ */
+final class DictionaryTrie {
+    static final int MAGIC = 0x53504454;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int NODE_SIZE = 12;
+    static final int ROOT = 0;
+    static final int NONE = -1;
+
+    private static final int LABEL_OFFSET = 0;
+    private static final int CHILD_COUNT_OFFSET = 2;
+    private static final int FIRST_CHILD_OFFSET = 4;
+    private static final int RANK_OFFSET = 8;
+
+    private final String name;
+    private final ByteBuffer nodes;
+    private final int wordCount;
+
+    private DictionaryTrie(String name, ByteBuffer nodes, int wordCount) {
+        this.name = name;
+        this.nodes = nodes;
+        this.wordCount = wordCount;
+    }
+
+    static DictionaryTrie read(String name, InputStream input) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(input.readAllBytes());
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a dictionary trie snapshot: " + name);
+        }
+        if (buffer.getInt() != VERSION) {
+            throw new IllegalStateException("Unsupported dictionary trie version: " + name);
+        }
+        int nodeCount = buffer.getInt();
+        int wordCount = buffer.getInt();
+        if (buffer.remaining() < nodeCount * NODE_SIZE) {
+            throw new IllegalStateException("Truncated dictionary trie snapshot: " + name);
+        }
+        return new DictionaryTrie(name, buffer.slice(HEADER_SIZE, nodeCount * NODE_SIZE), wordCount);
+    }
+
+    String name() {
+        return name;
+    }
+
+    int wordCount() {
+        return wordCount;
+    }
+
+    int child(int node, char label) {
+        int base = node * NODE_SIZE;
+        int low = nodes.getInt(base + FIRST_CHILD_OFFSET);
+        int high = low + nodes.getChar(base + CHILD_COUNT_OFFSET) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleLabel = nodes.getChar(middle * NODE_SIZE + LABEL_OFFSET);
+            if (middleLabel < label) {
+                low = middle + 1;
+            } else if (middleLabel > label) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return NONE;
+    }
+
+    int rank(int node) {
+        return nodes.getInt(node * NODE_SIZE + RANK_OFFSET);
+    }
+
+    int rank(CharSequence word) {
+        int node = ROOT;
+        for (int i = 0; i < word.length() && node != NONE; i++) {
+            node = child(node, word.charAt(i));
+        }
+        return node == NONE ? 0 : rank(node);
+    }
+}
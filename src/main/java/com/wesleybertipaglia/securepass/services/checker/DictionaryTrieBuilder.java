@@ -0,0 +1,101 @@
+package com.wesleybertipaglia.securepass.services.checker;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Compiles a ranked word list, one word per line with the most common first,
+ * into a {@link DictionaryTrie} snapshot. Words are lower cased and only the
+ * best rank of a duplicated word is kept.
+ *
+ * Usage: {@code DictionaryTrieBuilder <word-list> <output>}
+ */
+public final class DictionaryTrieBuilder {
+
+    private DictionaryTrieBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DictionaryTrieBuilder <word-list> <output>");
+            System.exit(1);
+        }
+
+        try (OutputStream output = Files.newOutputStream(Path.of(args[1]))) {
+            int wordCount = build(Path.of(args[0]), output);
+            System.out.printf("Wrote %d words%n", wordCount);
+        }
+    }
+
+    public static int build(Path wordList, OutputStream output) throws IOException {
+        Node root = new Node();
+        int rank = 0;
+        int wordCount = 0;
+        try (BufferedReader reader = Files.newBufferedReader(wordList, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = line.strip().toLowerCase(Locale.ROOT);
+                if (word.isEmpty()) {
+                    continue;
+                }
+                rank++;
+                Node node = root;
+                for (int i = 0; i < word.length(); i++) {
+                    node = node.children.computeIfAbsent(word.charAt(i), label -> new Node());
+                }
+                if (node.rank == 0) {
+                    node.rank = rank;
+                    wordCount++;
+                }
+            }
+        }
+
+        List<Node> ordered = new ArrayList<>();
+        List<Character> labels = new ArrayList<>();
+        Deque<Node> queue = new ArrayDeque<>();
+        ordered.add(root);
+        labels.add('\0');
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            node.firstChild = ordered.size();
+            node.children.forEach((label, child) -> {
+                ordered.add(child);
+                labels.add(label);
+                queue.add(child);
+            });
+        }
+
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(DictionaryTrie.MAGIC);
+        data.writeInt(DictionaryTrie.VERSION);
+        data.writeInt(ordered.size());
+        data.writeInt(wordCount);
+        for (int i = 0; i < ordered.size(); i++) {
+            Node node = ordered.get(i);
+            data.writeChar(labels.get(i));
+            data.writeChar(node.children.size());
+            data.writeInt(node.firstChild);
+            data.writeInt(node.rank);
+        }
+        data.flush();
+        return wordCount;
+    }
+
+    private static final class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private int firstChild;
+        private int rank;
+    }
+}
@@ -0,0 +1,340 @@
+package com.wesleybertipaglia.securepass.services.checker;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerResponseRecord;
+import com.wesleybertipaglia.securepass.services.validation.CharacterClassValidationStrategyInterface;
+import com.wesleybertipaglia.securepass.services.validation.PasswordRuleValidationStrategyInterface;
+import com.wesleybertipaglia.securepass.services.validation.ValidationStrategyInterface;
+
+/**
+ * Validation strategies compiled into a single pass over the password.
+ *
+ * Character class strategies share an ASCII lookup table so every character
+ * is classified once, and the failed rules form a bitmask that indexes
+ * precomputed, immutable responses. Strategies that expose neither a
+ * character class nor a password rule are still called through
+ * {@link ValidationStrategyInterface#validate}.
+ *
+ * Password rules run cheapest first: constant time rules before the character
+ * scan, costlier ones after it. A failed fatal rule decides the result on its
+ * own and skips every other rule.
+ */
+public final class PasswordCheckerEngine {
+    private static final int ASCII_TABLE_SIZE = 128;
+    private static final int MAX_COMPILED_RULES = 10;
+
+    public static final int DEFAULT_MEDIUM_MAX_SUGGESTIONS = 2;
+    public static final int DEFAULT_MEDIUM_MIN_LENGTH = 8;
+
+    private final ValidationStrategyInterface[] strategies;
+    private final int[] strategyBits;
+    private final String[] strategySuggestions;
+    private final CharacterClassValidationStrategyInterface[] characterRules;
+    private final int[] characterRuleBits;
+    private final int characterRuleMask;
+    private final int[] asciiClasses;
+    private final PasswordRuleValidationStrategyInterface[] fatalRules;
+    private final PasswordCheckerResponseRecord[] fatalResults;
+    private final PasswordRuleValidationStrategyInterface[] passwordRules;
+    private final int[] passwordRuleBits;
+    private final int rulesBeforeScan;
+    private final int mediumMaxSuggestions;
+    private final int mediumMinLength;
+    private final boolean hasUncompiledStrategies;
+    private final PasswordCheckerResponseRecord[] shortResults;
+    private final PasswordCheckerResponseRecord[] longResults;
+
+    private PasswordCheckerEngine(List<? extends ValidationStrategyInterface> validationStrategies,
+            int mediumMaxSuggestions, int mediumMinLength) {
+        this.mediumMaxSuggestions = mediumMaxSuggestions;
+        this.mediumMinLength = mediumMinLength;
+        int size = validationStrategies.size();
+        strategies = validationStrategies.toArray(new ValidationStrategyInterface[0]);
+        strategyBits = new int[size];
+        strategySuggestions = new String[size];
+
+        List<CharacterClassValidationStrategyInterface> characterRuleList = new ArrayList<>();
+        List<Integer> characterRuleBitList = new ArrayList<>();
+        List<PasswordRuleValidationStrategyInterface> fatalRuleList = new ArrayList<>();
+        List<PasswordRuleValidationStrategyInterface> passwordRuleList = new ArrayList<>();
+        List<Integer> passwordRuleBitList = new ArrayList<>();
+        List<String> compiledSuggestions = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            ValidationStrategyInterface strategy = strategies[i];
+            if (compiledSuggestions.size() == MAX_COMPILED_RULES) {
+                continue;
+            }
+
+            int bit = 1 << compiledSuggestions.size();
+            if (strategy instanceof CharacterClassValidationStrategyInterface characterRule) {
+                characterRuleList.add(characterRule);
+                characterRuleBitList.add(bit);
+                strategySuggestions[i] = characterRule.suggestion();
+            } else if (strategy instanceof PasswordRuleValidationStrategyInterface passwordRule) {
+                if (passwordRule.isFatal()) {
+                    fatalRuleList.add(passwordRule);
+                } else {
+                    passwordRuleList.add(passwordRule);
+                    passwordRuleBitList.add(bit);
+                }
+                strategySuggestions[i] = passwordRule.suggestion();
+            } else {
+                continue;
+            }
+            strategyBits[i] = bit;
+            compiledSuggestions.add(strategySuggestions[i]);
+        }
+
+        characterRules = characterRuleList.toArray(new CharacterClassValidationStrategyInterface[0]);
+        characterRuleBits = characterRuleBitList.stream().mapToInt(Integer::intValue).toArray();
+        fatalRules = fatalRuleList.toArray(new PasswordRuleValidationStrategyInterface[0]);
+        fatalResults = fatalRuleList.stream()
+                .map(rule -> new PasswordCheckerResponseRecord("Weak", List.of(rule.suggestion())))
+                .toArray(PasswordCheckerResponseRecord[]::new);
+
+        Integer[] byCost = new Integer[passwordRuleList.size()];
+        for (int i = 0; i < byCost.length; i++) {
+            byCost[i] = i;
+        }
+        Arrays.sort(byCost, Comparator.comparingInt(i -> passwordRuleList.get(i).cost()));
+        passwordRules = new PasswordRuleValidationStrategyInterface[byCost.length];
+        passwordRuleBits = new int[byCost.length];
+        int constantRules = 0;
+        for (int i = 0; i < byCost.length; i++) {
+            passwordRules[i] = passwordRuleList.get(byCost[i]);
+            passwordRuleBits[i] = passwordRuleBitList.get(byCost[i]);
+            if (passwordRules[i].cost() == PasswordRuleValidationStrategyInterface.CONSTANT_COST) {
+                constantRules++;
+            }
+        }
+        rulesBeforeScan = constantRules;
+        hasUncompiledStrategies = compiledSuggestions.size() < size;
+
+        int mask = 0;
+        for (int bit : characterRuleBits) {
+            mask |= bit;
+        }
+        characterRuleMask = mask;
+
+        asciiClasses = new int[ASCII_TABLE_SIZE];
+        for (char character = 0; character < ASCII_TABLE_SIZE; character++) {
+            asciiClasses[character] = classifySlow(character);
+        }
+
+        int combinations = 1 << compiledSuggestions.size();
+        shortResults = new PasswordCheckerResponseRecord[combinations];
+        longResults = new PasswordCheckerResponseRecord[combinations];
+        for (int failed = 0; failed < combinations; failed++) {
+            List<String> suggestions = new ArrayList<>();
+            for (int bit = 0; bit < compiledSuggestions.size(); bit++) {
+                if ((failed & (1 << bit)) != 0) {
+                    suggestions.add(compiledSuggestions.get(bit));
+                }
+            }
+            List<String> immutableSuggestions = List.copyOf(suggestions);
+            shortResults[failed] = new PasswordCheckerResponseRecord(
+                    strength(immutableSuggestions.size(), 0), immutableSuggestions);
+            longResults[failed] = new PasswordCheckerResponseRecord(
+                    strength(immutableSuggestions.size(), mediumMinLength), immutableSuggestions);
+        }
+    }
+
+    public static PasswordCheckerEngine compile(List<? extends ValidationStrategyInterface> validationStrategies) {
+        return compile(validationStrategies, DEFAULT_MEDIUM_MAX_SUGGESTIONS, DEFAULT_MEDIUM_MIN_LENGTH);
+    }
+
+    public static PasswordCheckerEngine compile(List<? extends ValidationStrategyInterface> validationStrategies,
+            int mediumMaxSuggestions, int mediumMinLength) {
+        return new PasswordCheckerEngine(validationStrategies, mediumMaxSuggestions, mediumMinLength);
+    }
+
+    public PasswordCheckerResponseRecord check(String password) {
+        PasswordCheckerResponseRecord fatal = checkFatalRules(password);
+        if (fatal != null) {
+            return fatal;
+        }
+
+        int failed = failedPasswordRules(password, 0, rulesBeforeScan);
+        int seen = 0;
+        for (int i = 0; i < password.length() && seen != characterRuleMask; i++) {
+            seen |= classify(password.charAt(i));
+        }
+        failed |= characterRuleMask & ~seen;
+        failed |= failedPasswordRules(password, rulesBeforeScan, passwordRules.length);
+        return resultFor(failed, password);
+    }
+
+    public Session newSession(int maxLength) {
+        return new Session(maxLength);
+    }
+
+    private PasswordCheckerResponseRecord checkFatalRules(CharSequence password) {
+        for (int i = 0; i < fatalRules.length; i++) {
+            if (!fatalRules[i].isSatisfiedBy(password)) {
+                return fatalResults[i];
+            }
+        }
+        return null;
+    }
+
+    private int failedPasswordRules(CharSequence password, int from, int to) {
+        int failed = 0;
+        for (int i = from; i < to; i++) {
+            if (!passwordRules[i].isSatisfiedBy(password)) {
+                failed |= passwordRuleBits[i];
+            }
+        }
+        return failed;
+    }
+
+    private int classify(char character) {
+        return character < ASCII_TABLE_SIZE ? asciiClasses[character] : classifySlow(character);
+    }
+
+    private int classifySlow(char character) {
+        int classes = 0;
+        for (int i = 0; i < characterRules.length; i++) {
+            if (characterRules[i].matches(character)) {
+                classes |= characterRuleBits[i];
+            }
+        }
+        return classes;
+    }
+
+    private PasswordCheckerResponseRecord resultFor(int failed, CharSequence password) {
+        if (!hasUncompiledStrategies) {
+            return password.length() >= mediumMinLength ? longResults[failed] : shortResults[failed];
+        }
+
+        String text = password.toString();
+        List<String> suggestions = new ArrayList<>();
+        for (int i = 0; i < strategies.length; i++) {
+            if (strategyBits[i] == 0) {
+                strategies[i].validate(text, suggestions);
+            } else if ((failed & strategyBits[i]) != 0) {
+                suggestions.add(strategySuggestions[i]);
+            }
+        }
+        return new PasswordCheckerResponseRecord(strength(suggestions.size(), text.length()), suggestions);
+    }
+
+    private String strength(int suggestionCount, int length) {
+        return determineStrength(suggestionCount, length, mediumMaxSuggestions, mediumMinLength);
+    }
+
+    static String determineStrength(int suggestionCount, int length) {
+        return determineStrength(suggestionCount, length, DEFAULT_MEDIUM_MAX_SUGGESTIONS, DEFAULT_MEDIUM_MIN_LENGTH);
+    }
+
+    private static String determineStrength(int suggestionCount, int length, int mediumMaxSuggestions,
+            int mediumMinLength) {
+        if (suggestionCount == 0) {
+            return "Strong";
+        } else if (suggestionCount <= mediumMaxSuggestions && length >= mediumMinLength) {
+            return "Medium";
+        }
+        return "Weak";
+    }
+
+    /**
+     * Password buffer that keeps a count per character class, so an edit only
+     * classifies the characters it inserts or removes. Removed characters are
+     * zeroed. Not thread safe.
+     */
+    public final class Session {
+        private static final int INITIAL_CAPACITY = 32;
+
+        private final int maxLength;
+        private final int[] classCounts = new int[characterRules.length];
+        private char[] buffer = new char[INITIAL_CAPACITY];
+        private int length;
+
+        private Session(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public void append(CharSequence text) {
+            replace(length, length, text);
+        }
+
+        public void delete(int start, int end) {
+            replace(start, end, "");
+        }
+
+        public void replace(int start, int end, CharSequence text) {
+            if (start < 0 || end < start || end > length) {
+                throw new IllegalArgumentException("Edit range must be within the password");
+            }
+            int newLength = length - (end - start) + text.length();
+            if (newLength > maxLength) {
+                throw new IllegalArgumentException("Password cannot be longer than " + maxLength + " characters");
+            }
+
+            for (int i = start; i < end; i++) {
+                count(buffer[i], -1);
+            }
+            if (newLength > buffer.length) {
+                char[] grown = Arrays.copyOf(buffer, Math.min(Math.max(buffer.length * 2, newLength), maxLength));
+                Arrays.fill(buffer, '\0');
+                buffer = grown;
+            }
+            System.arraycopy(buffer, end, buffer, start + text.length(), length - end);
+            for (int i = 0; i < text.length(); i++) {
+                char character = text.charAt(i);
+                buffer[start + i] = character;
+                count(character, 1);
+            }
+            if (newLength < length) {
+                Arrays.fill(buffer, newLength, length, '\0');
+            }
+            length = newLength;
+        }
+
+        public void clear() {
+            Arrays.fill(buffer, 0, length, '\0');
+            Arrays.fill(classCounts, 0);
+            length = 0;
+        }
+
+        public PasswordCheckerResponseRecord check() {
+            CharSequence password = CharBuffer.wrap(buffer, 0, length);
+            PasswordCheckerResponseRecord fatal = checkFatalRules(password);
+            if (fatal != null) {
+                return fatal;
+            }
+
+            int failed = failedPasswordRules(password, 0, passwordRules.length);
+            for (int i = 0; i < characterRules.length; i++) {
+                if (classCounts[i] == 0) {
+                    failed |= characterRuleBits[i];
+                }
+            }
+            return resultFor(failed, password);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, 0, length);
+        }
+
+        private void count(char character, int delta) {
+            int classes = classify(character);
+            for (int i = 0; i < characterRules.length && classes != 0; i++) {
+                if ((classes & characterRuleBits[i]) != 0) {
+                    classCounts[i] += delta;
+                    classes &= ~characterRuleBits[i];
+                }
+            }
+        }
+    }
+}
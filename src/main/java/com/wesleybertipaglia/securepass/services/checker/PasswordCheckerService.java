@@ -1,48 +1,189 @@
 package com.wesleybertipaglia.securepass.services.checker;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
 
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import com.wesleybertipaglia.securepass.services.batch.ParallelChunkWriter;
+import com.wesleybertipaglia.securepass.services.policy.PasswordPolicyService;
 import com.wesleybertipaglia.securepass.services.validation.ValidationStrategyInterface;
+import com.wesleybertipaglia.securepass.records.batch.BatchSummaryRecord;
+import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerBatchResultRecord;
 import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerRequestRecord;
 import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerResponseRecord;
 
 @Service
 public class PasswordCheckerService implements PasswordCheckerServiceInterface {
 
+    private static final Logger logger = LoggerFactory.getLogger(PasswordCheckerService.class);
+    private static final int BATCH_CHUNK_SIZE = 1024;
+
     @Autowired
     private List<ValidationStrategyInterface> validationStrategies;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExecutorService batchExecutor;
+
+    @Autowired
+    private PasswordStrengthEstimator passwordStrengthEstimator;
+
+    @Autowired
+    private PasswordPolicyService passwordPolicyService;
+
+    private PasswordCheckerEngine defaultEngine;
+
+    @PostConstruct
+    void compileEngine() {
+        defaultEngine = PasswordCheckerEngine.compile(validationStrategies);
+    }
+
     public PasswordCheckerResponseRecord checkPassword(PasswordCheckerRequestRecord passwordCheckerRequestRecord) {
+        return checkPassword(passwordCheckerRequestRecord, null);
+    }
+
+    public PasswordCheckerResponseRecord checkPassword(PasswordCheckerRequestRecord passwordCheckerRequestRecord,
+            String policy) {
+        PasswordCheckerEngine engine = engineFor(policy);
         String password = passwordCheckerRequestRecord.password();
 
         if (password.isBlank()) {
             throw new IllegalArgumentException("Password cannot be blank");
         }
 
-        List<String> suggestions = determineSuggestions(password);
-        String strength = determinePasswordStrength(password, suggestions);
-        return new PasswordCheckerResponseRecord(strength, suggestions);
+        return engine.check(password).withEstimate(passwordStrengthEstimator.estimate(password));
+    }
+
+    public void requirePolicy(String policy) {
+        engineFor(policy);
+    }
+
+    public PasswordCheckerEngine.Session openSession(int maxLength, String policy) {
+        return engineFor(policy).newSession(maxLength);
+    }
+
+    public PasswordCheckerResponseRecord checkSession(PasswordCheckerEngine.Session session, boolean estimate) {
+        PasswordCheckerResponseRecord result = session.check();
+        return estimate ? result.withEstimate(passwordStrengthEstimator.estimate(session.toString())) : result;
+    }
+
+    public BatchSummaryRecord checkPasswords(InputStream input, OutputStream output) throws IOException {
+        return checkPasswords(input, output, null);
+    }
+
+    public BatchSummaryRecord checkPasswords(InputStream input, OutputStream output, String policy)
+            throws IOException {
+        PasswordCheckerEngine engine = engineFor(policy);
+        long start = System.nanoTime();
+        LongAdder errors = new LongAdder();
+        ObjectWriter writer = objectMapper.writer();
+
+        try (MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class).readValues(input)) {
+            BatchChunks chunks = new BatchChunks(engine, items, writer, errors);
+            ParallelChunkWriter.forAvailableProcessors(batchExecutor).write(chunks, output);
+
+            BatchSummaryRecord summary = BatchSummaryRecord.of(chunks.count, errors.sum(), start);
+            output.write(writer.writeValueAsBytes(Map.of("summary", summary)));
+            output.write('\n');
+            output.flush();
+            logger.info("Checked {} passwords in {} ms ({} passwords/s)", summary.count(), summary.elapsedMillis(),
+                    Math.round(summary.itemsPerSecond()));
+            return summary;
+        }
+    }
+
+    private PasswordCheckerEngine engineFor(String policy) {
+        return policy == null || policy.isBlank() ? defaultEngine : passwordPolicyService.getEngine(policy);
     }
 
-    private List<String> determineSuggestions(String password) {
-        List<String> suggestions = new ArrayList<>();
-        for (ValidationStrategyInterface strategy : validationStrategies) {
-            strategy.validate(password, suggestions);
+    private byte[] renderChunk(PasswordCheckerEngine engine, long firstIndex, List<String> passwords,
+            ObjectWriter writer, LongAdder errors) {
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream(passwords.size() * 64);
+        try {
+            for (int i = 0; i < passwords.size(); i++) {
+                chunk.write(writer.writeValueAsBytes(checkBatchItem(engine, firstIndex + i, passwords.get(i), errors)));
+                chunk.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return  suggestions;
+        return chunk.toByteArray();
     }
 
-    private String determinePasswordStrength(String password, List<String> suggestions) {
-        if (suggestions.isEmpty()) {
-            return "Strong";
-        } else if (suggestions.size() <= 2 && password.length() >= 8) {
-            return "Medium";
+    private PasswordCheckerBatchResultRecord checkBatchItem(PasswordCheckerEngine engine, long index, String password,
+            LongAdder errors) {
+        if (password == null || password.isBlank()) {
+            errors.increment();
+            String error = password == null ? "Password must be a string or an object with a password field"
+                    : "Password cannot be blank";
+            return new PasswordCheckerBatchResultRecord(index, null, null, null, error);
+        }
+        PasswordCheckerResponseRecord result = engine.check(password);
+        return new PasswordCheckerBatchResultRecord(index, result.strength(), result.suggestions(),
+                passwordStrengthEstimator.estimate(password), null);
+    }
+
+    private static String passwordOf(JsonNode item) {
+        if (item.isTextual()) {
+            return item.textValue();
+        }
+        JsonNode password = item.get("password");
+        return password != null && password.isTextual() ? password.textValue() : null;
+    }
+
+    private class BatchChunks implements Iterator<Callable<byte[]>> {
+        private final PasswordCheckerEngine engine;
+        private final MappingIterator<JsonNode> items;
+        private final ObjectWriter writer;
+        private final LongAdder errors;
+        private long count;
+
+        BatchChunks(PasswordCheckerEngine engine, MappingIterator<JsonNode> items, ObjectWriter writer,
+                LongAdder errors) {
+            this.engine = engine;
+            this.items = items;
+            this.writer = writer;
+            this.errors = errors;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return items.hasNext();
+        }
+
+        @Override
+        public Callable<byte[]> next() {
+            long firstIndex = count;
+            List<String> passwords = new ArrayList<>(BATCH_CHUNK_SIZE);
+            while (passwords.size() < BATCH_CHUNK_SIZE && items.hasNext()) {
+                passwords.add(passwordOf(items.next()));
+            }
+            count += passwords.size();
+            return () -> renderChunk(engine, firstIndex, passwords, writer, errors);
         }
-        return "Weak";
     }
 
 }
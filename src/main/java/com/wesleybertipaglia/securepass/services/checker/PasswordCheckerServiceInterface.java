@@ -1,8 +1,27 @@
 package com.wesleybertipaglia.securepass.services.checker;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.wesleybertipaglia.securepass.records.batch.BatchSummaryRecord;
 import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerRequestRecord;
 import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerResponseRecord;
 
 public interface PasswordCheckerServiceInterface {
     public PasswordCheckerResponseRecord checkPassword(PasswordCheckerRequestRecord passwordCheckerRequestRecord);
+
+    public PasswordCheckerResponseRecord checkPassword(PasswordCheckerRequestRecord passwordCheckerRequestRecord,
+            String policy);
+
+    public void requirePolicy(String policy);
+
+    public PasswordCheckerEngine.Session openSession(int maxLength, String policy);
+
+    public PasswordCheckerResponseRecord checkSession(PasswordCheckerEngine.Session session, boolean estimate);
+
+    public BatchSummaryRecord checkPasswords(InputStream input, OutputStream output) throws IOException;
+
+    public BatchSummaryRecord checkPasswords(InputStream input, OutputStream output, String policy)
+            throws IOException;
 }
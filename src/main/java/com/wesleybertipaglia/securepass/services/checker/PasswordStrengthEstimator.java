@@ -0,0 +1,489 @@
+package com.wesleybertipaglia.securepass.services.checker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerResponseRecord;
+
+/**
+ * Estimates how many guesses an attacker needs for a password, in the spirit
+ * of zxcvbn: the password is covered by dictionary words (with common l33t
+ * substitutions), keyboard walks, repeats, sequences and dates, and the
+ * cheapest cover wins, with bruteforce filling the gaps.
+ */
+@Component
+public class PasswordStrengthEstimator {
+    private static final int MAX_ANALYZED_LENGTH = 100;
+    private static final int MIN_MATCH_LENGTH = 3;
+    private static final double BRUTEFORCE_GUESSES_LOG10 = 1;
+    private static final double MIN_SUBMATCH_GUESSES_LOG10 = Math.log10(50);
+    private static final double LOG2_OF_10 = Math.log(10) / Math.log(2);
+
+    private static final String[] KEYBOARD_ROWS = { "`1234567890-=", "qwertyuiop[]\\", "asdfghjkl;'", "zxcvbnm,./" };
+    private static final String[] SHIFTED_KEYBOARD_ROWS = { "~!@#$%^&*()_+", "QWERTYUIOP{}|", "ASDFGHJKL:\"", "ZXCVBNM<>?" };
+    private static final double KEYBOARD_STARTING_POSITIONS = 94;
+    private static final double KEYBOARD_AVERAGE_DEGREE = 4.595;
+    private static final int[] KEY_ROWS = new int[128];
+    private static final int[] KEY_COLUMNS = new int[128];
+    private static final boolean[] SHIFTED_KEYS = new boolean[128];
+
+    private static final String[] LEET_SUBSTITUTES = new String[128];
+
+    private static final int MIN_YEAR_SPACE = 20;
+    private static final int DAYS_PER_YEAR = 365;
+    private static final Pattern SEPARATED_DATE = Pattern.compile("(\\d{1,4})([\\s/\\\\_.-])(\\d{1,2})\\2(\\d{1,4})");
+
+    static {
+        Arrays.fill(KEY_ROWS, -1);
+        for (int row = 0; row < KEYBOARD_ROWS.length; row++) {
+            for (int column = 0; column < KEYBOARD_ROWS[row].length(); column++) {
+                registerKey(KEYBOARD_ROWS[row].charAt(column), row, column, false);
+                registerKey(SHIFTED_KEYBOARD_ROWS[row].charAt(column), row, column, true);
+            }
+        }
+
+        String[][] substitutions = { { "4", "a" }, { "@", "a" }, { "8", "b" }, { "(", "c" }, { "3", "e" },
+                { "6", "g" }, { "1", "il" }, { "!", "i" }, { "|", "il" }, { "0", "o" }, { "$", "s" }, { "5", "s" },
+                { "7", "t" }, { "+", "t" }, { "%", "x" }, { "2", "z" } };
+        for (String[] substitution : substitutions) {
+            LEET_SUBSTITUTES[substitution[0].charAt(0)] = substitution[1];
+        }
+    }
+
+    @Value("${securepass.checker.dictionaries:classpath:dictionaries/passwords.trie,classpath:dictionaries/english.trie}")
+    private Resource[] dictionaryResources;
+
+    private List<DictionaryTrie> dictionaries;
+
+    private final int referenceYear = Year.now().getValue();
+
+    public PasswordStrengthEstimator() {
+    }
+
+    PasswordStrengthEstimator(List<DictionaryTrie> dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+
+    @PostConstruct
+    void loadDictionaries() throws IOException {
+        List<DictionaryTrie> loaded = new ArrayList<>();
+        for (Resource resource : dictionaryResources) {
+            try (InputStream input = resource.getInputStream()) {
+                loaded.add(DictionaryTrie.read(resource.getFilename(), input));
+            }
+        }
+        dictionaries = List.copyOf(loaded);
+    }
+
+    public PasswordCheckerResponseRecord.Estimate estimate(String password) {
+        String analyzed = password.length() > MAX_ANALYZED_LENGTH ? password.substring(0, MAX_ANALYZED_LENGTH)
+                : password;
+        List<String> patterns = new ArrayList<>();
+        double guessesLog10 = mostGuessableLog10(analyzed, true, patterns);
+
+        int remaining = password.length() - analyzed.length();
+        if (remaining > 0) {
+            guessesLog10 += remaining * BRUTEFORCE_GUESSES_LOG10;
+            if (patterns.isEmpty() || !patterns.get(patterns.size() - 1).equals("bruteforce")) {
+                patterns.add("bruteforce");
+            }
+        }
+        return new PasswordCheckerResponseRecord.Estimate(round(guessesLog10), round(guessesLog10 * LOG2_OF_10),
+                List.copyOf(patterns));
+    }
+
+    private double mostGuessableLog10(String password, boolean matchRepeats, List<String> patterns) {
+        int length = password.length();
+        List<List<Match>> matchesByEnd = new ArrayList<>(length + 1);
+        for (int i = 0; i <= length; i++) {
+            matchesByEnd.add(new ArrayList<>());
+        }
+        List<Match> matches = new ArrayList<>();
+        matchDictionaries(password, matches);
+        matchKeyboardWalks(password, matches);
+        matchSequences(password, matches);
+        matchDates(password, matches);
+        if (matchRepeats) {
+            matchRepeats(password, matches);
+        }
+        for (Match match : matches) {
+            matchesByEnd.get(match.end()).add(match);
+        }
+
+        double[] best = new double[length + 1];
+        int[] segments = new int[length + 1];
+        Match[] chosen = new Match[length + 1];
+        for (int end = 1; end <= length; end++) {
+            best[end] = best[end - 1] + BRUTEFORCE_GUESSES_LOG10;
+            segments[end] = segments[end - 1] + (end > 1 && chosen[end - 1] == null ? 0 : 1);
+            for (Match match : matchesByEnd.get(end)) {
+                double minimum = match.end() - match.start() < length ? MIN_SUBMATCH_GUESSES_LOG10 : 0;
+                double cost = best[match.start()] + Math.max(match.guessesLog10(), minimum);
+                if (cost < best[end]) {
+                    best[end] = cost;
+                    segments[end] = segments[match.start()] + 1;
+                    chosen[end] = match;
+                }
+            }
+        }
+
+        List<String> reversed = new ArrayList<>();
+        for (int end = length; end > 0;) {
+            Match match = chosen[end];
+            String pattern = match == null ? "bruteforce" : match.pattern();
+            if (reversed.isEmpty() || !reversed.get(reversed.size() - 1).equals(pattern) || match != null) {
+                reversed.add(pattern);
+            }
+            end = match == null ? end - 1 : match.start();
+        }
+        for (int i = reversed.size() - 1; i >= 0; i--) {
+            patterns.add(reversed.get(i));
+        }
+        return best[length] + log10Factorial(segments[length]);
+    }
+
+    private void matchDictionaries(String password, List<Match> matches) {
+        for (DictionaryTrie dictionary : dictionaries) {
+            for (int start = 0; start < password.length(); start++) {
+                walkDictionary(dictionary, password, start, DictionaryTrie.ROOT, start, 0, matches);
+            }
+        }
+    }
+
+    private void walkDictionary(DictionaryTrie dictionary, String password, int start, int node, int position,
+            int substitutions, List<Match> matches) {
+        if (position == password.length()) {
+            return;
+        }
+        char character = password.charAt(position);
+        char lower = Character.toLowerCase(character);
+        int next = dictionary.child(node, lower);
+        if (next != DictionaryTrie.NONE) {
+            visitDictionaryNode(dictionary, password, start, next, position, substitutions, matches);
+        }
+
+        String substitutes = character < LEET_SUBSTITUTES.length ? LEET_SUBSTITUTES[character] : null;
+        if (substitutes != null) {
+            for (int i = 0; i < substitutes.length(); i++) {
+                next = dictionary.child(node, substitutes.charAt(i));
+                if (next != DictionaryTrie.NONE) {
+                    visitDictionaryNode(dictionary, password, start, next, position, substitutions + 1, matches);
+                }
+            }
+        }
+    }
+
+    private void visitDictionaryNode(DictionaryTrie dictionary, String password, int start, int node, int position,
+            int substitutions, List<Match> matches) {
+        int rank = dictionary.rank(node);
+        int end = position + 1;
+        if (rank > 0 && end - start >= MIN_MATCH_LENGTH) {
+            double guessesLog10 = Math.log10(rank)
+                    + Math.log10(uppercaseVariations(password, start, end))
+                    + substitutions * Math.log10(2);
+            matches.add(new Match(start, end, guessesLog10, "dictionary"));
+        }
+        walkDictionary(dictionary, password, start, node, end, substitutions, matches);
+    }
+
+    private void matchKeyboardWalks(String password, List<Match> matches) {
+        int length = password.length();
+        int start = 0;
+        while (start < length - 1) {
+            int end = start;
+            int turns = 0;
+            int shifted = isShifted(password.charAt(start)) ? 1 : 0;
+            int direction = Integer.MIN_VALUE;
+            while (end + 1 < length) {
+                int nextDirection = keyDirection(password.charAt(end), password.charAt(end + 1));
+                if (nextDirection == Integer.MIN_VALUE) {
+                    break;
+                }
+                if (nextDirection != direction) {
+                    turns++;
+                    direction = nextDirection;
+                }
+                end++;
+                shifted += isShifted(password.charAt(end)) ? 1 : 0;
+            }
+
+            int walkLength = end - start + 1;
+            if (walkLength >= MIN_MATCH_LENGTH) {
+                matches.add(new Match(start, end + 1, keyboardGuessesLog10(walkLength, turns, shifted), "keyboard"));
+            }
+            start = Math.max(end, start + 1);
+        }
+    }
+
+    private double keyboardGuessesLog10(int length, int turns, int shifted) {
+        double guesses = 0;
+        for (int i = 2; i <= length; i++) {
+            for (int j = 1; j <= Math.min(turns, i - 1); j++) {
+                guesses += binomial(i - 1, j - 1) * KEYBOARD_STARTING_POSITIONS * Math.pow(KEYBOARD_AVERAGE_DEGREE, j);
+            }
+        }
+        int unshifted = length - shifted;
+        if (shifted > 0) {
+            guesses *= unshifted == 0 ? 2 : variations(shifted, unshifted);
+        }
+        return Math.log10(Math.max(guesses, 1));
+    }
+
+    private void matchSequences(String password, List<Match> matches) {
+        int length = password.length();
+        int start = 0;
+        while (start < length - 1) {
+            int delta = password.charAt(start + 1) - password.charAt(start);
+            int characterClass = sequenceClass(password.charAt(start));
+            int end = start + 1;
+            if ((delta == 1 || delta == -1) && characterClass != 0) {
+                while (end + 1 < length
+                        && password.charAt(end + 1) - password.charAt(end) == delta
+                        && sequenceClass(password.charAt(end + 1)) == characterClass) {
+                    end++;
+                }
+            }
+
+            int sequenceLength = end - start + 1;
+            if (sequenceLength >= MIN_MATCH_LENGTH && sequenceClass(password.charAt(end)) == characterClass) {
+                char first = password.charAt(start);
+                double base = "aAzZ019".indexOf(first) >= 0 ? 4 : characterClass == 3 ? 10 : 26;
+                double guesses = base * sequenceLength * (delta < 0 ? 2 : 1);
+                matches.add(new Match(start, end + 1, Math.log10(guesses), "sequence"));
+                start = end;
+            } else {
+                start++;
+            }
+        }
+    }
+
+    private void matchRepeats(String password, List<Match> matches) {
+        int length = password.length();
+        for (int start = 0; start < length; start++) {
+            int bestBlock = 0;
+            int bestRepeats = 0;
+            for (int block = 1; start + block * 2 <= length; block++) {
+                int repeats = 1;
+                while (start + block * (repeats + 1) <= length
+                        && password.regionMatches(start, password, start + block * repeats, block)) {
+                    repeats++;
+                }
+                boolean repeated = repeats >= (block == 1 ? MIN_MATCH_LENGTH : 2);
+                if (repeated && block * repeats > bestBlock * bestRepeats) {
+                    bestBlock = block;
+                    bestRepeats = repeats;
+                }
+            }
+            if (bestBlock > 0) {
+                String block = password.substring(start, start + bestBlock);
+                double baseGuessesLog10 = mostGuessableLog10(block, false, new ArrayList<>());
+                matches.add(new Match(start, start + bestBlock * bestRepeats,
+                        baseGuessesLog10 + Math.log10(bestRepeats), "repeat"));
+            }
+        }
+    }
+
+    private void matchDates(String password, List<Match> matches) {
+        int length = password.length();
+        for (int start = 0; start < length; start++) {
+            if (!Character.isDigit(password.charAt(start))) {
+                continue;
+            }
+            for (int end = start + 4; end <= Math.min(length, start + 8); end++) {
+                if (!isAsciiDigits(password, start, end)) {
+                    break;
+                }
+                int year = closestDateYear(password.substring(start, end));
+                if (year > 0) {
+                    matches.add(new Match(start, end, dateGuessesLog10(year, false), "date"));
+                }
+            }
+            if (start + 4 <= length && isAsciiDigits(password, start, start + 4)) {
+                int year = Integer.parseInt(password, start, start + 4, 10);
+                if (year >= 1900 && year <= 2099) {
+                    matches.add(new Match(start, start + 4, Math.log10(yearSpace(year)), "year"));
+                }
+            }
+
+            Matcher matcher = SEPARATED_DATE.matcher(password).region(start, length);
+            if (matcher.lookingAt()) {
+                int year = closestDateYear(matcher.group(1), matcher.group(3), matcher.group(4));
+                if (year > 0) {
+                    matches.add(new Match(start, matcher.end(), dateGuessesLog10(year, true), "date"));
+                }
+            }
+        }
+    }
+
+    private int closestDateYear(String digits) {
+        int best = 0;
+        for (int first = 1; first <= 4; first++) {
+            for (int second = 1; second <= 2; second++) {
+                int third = digits.length() - first - second;
+                if (third < 1 || third > 4) {
+                    continue;
+                }
+                best = closerYear(best, closestDateYear(digits.substring(0, first),
+                        digits.substring(first, first + second), digits.substring(first + second)));
+            }
+        }
+        return best;
+    }
+
+    private int closestDateYear(String first, String second, String third) {
+        int best = 0;
+        int a = Integer.parseInt(first);
+        int b = Integer.parseInt(second);
+        int c = Integer.parseInt(third);
+        if (third.length() == 2 || third.length() == 4) {
+            int year = normalizeYear(c, third.length());
+            if (year > 0 && (isDayMonth(a, b) || isDayMonth(b, a))) {
+                best = closerYear(best, year);
+            }
+        }
+        if (first.length() == 2 || first.length() == 4) {
+            int year = normalizeYear(a, first.length());
+            if (year > 0 && (isDayMonth(b, c) || isDayMonth(c, b)) && third.length() <= 2) {
+                best = closerYear(best, year);
+            }
+        }
+        return best;
+    }
+
+    private int normalizeYear(int year, int digits) {
+        if (digits == 2) {
+            return year > 50 ? 1900 + year : 2000 + year;
+        }
+        return year >= 1000 && year <= 2050 ? year : 0;
+    }
+
+    private static boolean isDayMonth(int day, int month) {
+        return day >= 1 && day <= 31 && month >= 1 && month <= 12;
+    }
+
+    private int closerYear(int current, int candidate) {
+        if (candidate == 0) {
+            return current;
+        }
+        if (current == 0 || Math.abs(candidate - referenceYear) < Math.abs(current - referenceYear)) {
+            return candidate;
+        }
+        return current;
+    }
+
+    private double dateGuessesLog10(int year, boolean separated) {
+        return Math.log10(yearSpace(year) * DAYS_PER_YEAR * (separated ? 4 : 1));
+    }
+
+    private double yearSpace(int year) {
+        return Math.max(Math.abs(year - referenceYear), MIN_YEAR_SPACE);
+    }
+
+    private static void registerKey(char key, int row, int column, boolean shifted) {
+        KEY_ROWS[key] = row;
+        KEY_COLUMNS[key] = column;
+        SHIFTED_KEYS[key] = shifted;
+    }
+
+    private static boolean isShifted(char character) {
+        return character < SHIFTED_KEYS.length && SHIFTED_KEYS[character];
+    }
+
+    private static int keyDirection(char from, char to) {
+        if (from >= KEY_ROWS.length || to >= KEY_ROWS.length || KEY_ROWS[from] < 0 || KEY_ROWS[to] < 0) {
+            return Integer.MIN_VALUE;
+        }
+        int rows = KEY_ROWS[to] - KEY_ROWS[from];
+        int columns = KEY_COLUMNS[to] - KEY_COLUMNS[from];
+        boolean adjacent = (rows == 0 && Math.abs(columns) == 1)
+                || (rows == -1 && (columns == 0 || columns == 1))
+                || (rows == 1 && (columns == -1 || columns == 0));
+        return adjacent ? rows * 3 + columns : Integer.MIN_VALUE;
+    }
+
+    private static int sequenceClass(char character) {
+        if (character >= 'a' && character <= 'z') {
+            return 1;
+        } else if (character >= 'A' && character <= 'Z') {
+            return 2;
+        } else if (character >= '0' && character <= '9') {
+            return 3;
+        }
+        return 0;
+    }
+
+    private static boolean isAsciiDigits(String password, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char character = password.charAt(i);
+            if (character < '0' || character > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double uppercaseVariations(String password, int start, int end) {
+        int upper = 0;
+        int lower = 0;
+        for (int i = start; i < end; i++) {
+            char character = password.charAt(i);
+            if (Character.isUpperCase(character)) {
+                upper++;
+            } else if (Character.isLowerCase(character)) {
+                lower++;
+            }
+        }
+        if (upper == 0) {
+            return 1;
+        }
+        boolean firstOnly = upper == 1 && Character.isUpperCase(password.charAt(start));
+        boolean lastOnly = upper == 1 && Character.isUpperCase(password.charAt(end - 1));
+        if (lower == 0 || firstOnly || lastOnly) {
+            return 2;
+        }
+        return variations(upper, lower);
+    }
+
+    private static double variations(int changed, int unchanged) {
+        double variations = 0;
+        for (int i = 1; i <= Math.min(changed, unchanged); i++) {
+            variations += binomial(changed + unchanged, i);
+        }
+        return variations;
+    }
+
+    private static double binomial(int n, int k) {
+        double result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+
+    private static double log10Factorial(int n) {
+        double result = 0;
+        for (int i = 2; i <= n; i++) {
+            result += Math.log10(i);
+        }
+        return result;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private record Match(int start, int end, double guessesLog10, String pattern) {
+    }
+}
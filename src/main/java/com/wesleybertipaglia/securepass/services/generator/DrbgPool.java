@@ -0,0 +1,193 @@
+package com.wesleybertipaglia.securepass.services.generator;
+
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Striped pool of DRBG {@link SecureRandom} instances. A thread always uses
+ * the same stripe, so threads rarely share a lock, and each stripe draws its
+ * random bytes in bulk and hands them out one at a time, zeroing them as
+ * they are consumed. Every stripe reseeds from the entropy source after
+ * {@link #RESEED_BYTES} bytes or {@link #RESEED_INTERVAL_NANOS}, whichever
+ * comes first.
+ *
+ * Values below a bound are drawn by rejection sampling, so every value is
+ * equally likely.
+ */
+public final class DrbgPool {
+    public static final int DEFAULT_BUFFER_SIZE = 512;
+    static final long RESEED_BYTES = 1L << 24;
+    static final long RESEED_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private static final int SECURITY_STRENGTH = 256;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public DrbgPool() {
+        this(Runtime.getRuntime().availableProcessors() * 2, DEFAULT_BUFFER_SIZE);
+    }
+
+    public DrbgPool(int stripeCount, int bufferSize) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(bufferSize);
+        }
+        stripeMask = size - 1;
+    }
+
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            return stripe.nextInt(bound);
+        }
+    }
+
+    /**
+     * Fills {@code target[from, to)} with characters drawn uniformly from the
+     * alphabet, taking the stripe lock once for the whole range.
+     */
+    public void fill(char[] target, int from, int to, char[] alphabet) {
+        if (alphabet.length == 0) {
+            throw new IllegalArgumentException("Alphabet cannot be empty");
+        }
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            for (int i = from; i < to; i++) {
+                target[i] = alphabet[stripe.nextInt(alphabet.length)];
+            }
+        }
+    }
+
+    /**
+     * Fills every position of {@code target} that has an alphabet with a
+     * character drawn uniformly from it, leaving the others untouched.
+     */
+    public void fill(char[] target, char[][] alphabets) {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            for (int i = 0; i < target.length; i++) {
+                if (alphabets[i] != null) {
+                    target[i] = alphabets[i][stripe.nextInt(alphabets[i].length)];
+                }
+            }
+        }
+    }
+
+    /**
+     * Fisher-Yates shuffle of {@code target[from, to)}.
+     */
+    public void shuffle(char[] target, int from, int to) {
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            stripe.shuffle(target, from, to);
+        }
+    }
+
+    /**
+     * Fills {@code count} passwords of {@code length} characters into
+     * {@code target}, back to back from {@code offset}. Each password gets one
+     * character from every required alphabet and the rest from
+     * {@code union}, and is then shuffled so the required characters can be
+     * anywhere. The stripe lock is taken once for all of them.
+     */
+    public void fillPasswords(char[] target, int offset, int count, int length, char[][] required, char[] union) {
+        if (union.length == 0 || length < required.length) {
+            throw new IllegalArgumentException("Length must fit one character of every required alphabet");
+        }
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            for (int start = offset, end = offset + count * length; start < end; start += length) {
+                int position = start;
+                for (char[] alphabet : required) {
+                    target[position++] = alphabet[stripe.nextInt(alphabet.length)];
+                }
+                for (int stop = start + length; position < stop; position++) {
+                    target[position] = union[stripe.nextInt(union.length)];
+                }
+                stripe.shuffle(target, start, start + length);
+            }
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private Stripe stripe() {
+        long id = Thread.currentThread().getId();
+        return stripes[(int) (id ^ (id >>> 32)) & stripeMask];
+    }
+
+    private static final class Stripe {
+        private final SecureRandom drbg;
+        private final byte[] buffer;
+        private int position;
+        private long bytesSinceReseed;
+        private long reseededAt;
+
+        Stripe(int bufferSize) {
+            try {
+                drbg = SecureRandom.getInstance("DRBG", DrbgParameters.instantiation(SECURITY_STRENGTH,
+                        DrbgParameters.Capability.RESEED_ONLY, null));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("DRBG is not available", e);
+            }
+            buffer = new byte[bufferSize];
+            position = bufferSize;
+            reseededAt = System.nanoTime();
+        }
+
+        int nextInt(int bound) {
+            if (bound <= 256) {
+                int limit = 256 - 256 % bound;
+                int value;
+                do {
+                    value = nextByte();
+                } while (value >= limit);
+                return value % bound;
+            }
+
+            int bits;
+            int value;
+            do {
+                bits = (nextByte() << 23 | nextByte() << 15 | nextByte() << 7 | nextByte() >>> 1);
+                value = bits % bound;
+            } while (bits - value + (bound - 1) < 0);
+            return value;
+        }
+
+        void shuffle(char[] target, int from, int to) {
+            for (int i = to - 1; i > from; i--) {
+                int j = from + nextInt(i - from + 1);
+                char swap = target[i];
+                target[i] = target[j];
+                target[j] = swap;
+            }
+        }
+
+        private int nextByte() {
+            if (position == buffer.length) {
+                refill();
+            }
+            int value = buffer[position] & 0xFF;
+            buffer[position++] = 0;
+            return value;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            if (bytesSinceReseed >= RESEED_BYTES || now - reseededAt >= RESEED_INTERVAL_NANOS) {
+                drbg.reseed();
+                bytesSinceReseed = 0;
+                reseededAt = now;
+            }
+            drbg.nextBytes(buffer);
+            bytesSinceReseed += buffer.length;
+            position = 0;
+        }
+    }
+}
@@ -1,64 +1,296 @@
 package com.wesleybertipaglia.securepass.services.generator;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.wesleybertipaglia.securepass.services.batch.ParallelChunkWriter;
+import com.wesleybertipaglia.securepass.records.batch.BatchSummaryRecord;
+import com.wesleybertipaglia.securepass.records.generator.PassphraseGeneratorResponseRecord;
 import com.wesleybertipaglia.securepass.records.generator.PasswordGeneratorResponseRecord;
 
-import java.security.SecureRandom;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 @Service
 public class PasswordGeneratorService implements PasswordGeneratorServiceInterface {
 
-    private static final String UPPERCASE_LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-    private static final String LOWERCASE_LETTERS = "abcdefghijklmnopqrstuvwxyz";
-    private static final String NUMBERS = "0123456789";
-    private static final String SPECIAL_CHARACTERS = "!@#$%^&*()-_+=<>?";
+    private static final Logger logger = LoggerFactory.getLogger(PasswordGeneratorService.class);
 
-    private final SecureRandom random = new SecureRandom();
+    static final String UPPERCASE_LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    static final String LOWERCASE_LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    static final String NUMBERS = "0123456789";
+    static final String SPECIAL_CHARACTERS = "!@#$%^&*()-_+=<>?";
+
+    private static final int UPPERCASE_CLASS = 1;
+    private static final int LOWERCASE_CLASS = 1 << 1;
+    private static final int NUMBERS_CLASS = 1 << 2;
+    private static final int SPECIAL_CLASS = 1 << 3;
+    private static final char[][] CLASS_CHARACTERS = {
+            UPPERCASE_LETTERS.toCharArray(),
+            LOWERCASE_LETTERS.toCharArray(),
+            NUMBERS.toCharArray(),
+            SPECIAL_CHARACTERS.toCharArray() };
+    private static final char[][] CHARACTER_SETS = new char[1 << CLASS_CHARACTERS.length][];
+    private static final char[][][] REQUIRED_CHARACTERS = new char[1 << CLASS_CHARACTERS.length][][];
+
+    private static final String FORMAT_NDJSON = "ndjson";
+    private static final String FORMAT_TEXT = "text";
+    private static final byte[] NDJSON_PREFIX = "{\"password\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NDJSON_SUFFIX = "\"}\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int BULK_CHUNK_BYTES = 1 << 18;
+    private static final int BULK_MAX_LENGTH = 1024;
+    private static final int PASSPHRASE_MAX_WORDS = 64;
+    private static final int PASSPHRASE_MAX_DIGITS = 16;
+    private static final int PASSPHRASE_MAX_SEPARATOR_LENGTH = 8;
+    private static final char[] DIGITS = NUMBERS.toCharArray();
+
+    static {
+        for (int classes = 0; classes < CHARACTER_SETS.length; classes++) {
+            StringBuilder characterSet = new StringBuilder();
+            char[][] required = new char[Integer.bitCount(classes)][];
+            int position = 0;
+            for (int i = 0; i < CLASS_CHARACTERS.length; i++) {
+                if ((classes & (1 << i)) != 0) {
+                    characterSet.append(CLASS_CHARACTERS[i]);
+                    required[position++] = CLASS_CHARACTERS[i];
+                }
+            }
+            CHARACTER_SETS[classes] = characterSet.toString().toCharArray();
+            REQUIRED_CHARACTERS[classes] = required;
+        }
+    }
+
+    private final DrbgPool random = new DrbgPool();
+
+    private final ConcurrentHashMap<String, PasswordTemplate> templates = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ExecutorService batchExecutor;
+
+    @Autowired
+    private WordlistRegistry wordlistRegistry;
+
+    @Value("${securepass.generator.bulk.max-count:10000}")
+    private long maxBulkCount;
+
+    @Value("${securepass.generator.template.cache-size:1024}")
+    private int templateCacheSize;
 
     public PasswordGeneratorResponseRecord generatePassword(int passwordLength, boolean includeUppercase,
             boolean includeLowercase, boolean includeNumbers, boolean includeSpecial) {
         validateLength(passwordLength);
-        String characterSet = buildCharacterSet(includeUppercase, includeLowercase, includeNumbers, includeSpecial);
-        validateCharacterSet(characterSet);
+        int classes = classesOf(includeUppercase, includeLowercase, includeNumbers, includeSpecial);
+        validateClasses(classes, passwordLength);
 
-        String password = generateRandomPassword(passwordLength, characterSet);
+        String password = generateRandomPassword(passwordLength, classes);
         PasswordGeneratorResponseRecord.GenerationProperties properties = new PasswordGeneratorResponseRecord.GenerationProperties(
                 passwordLength, includeUppercase, includeLowercase, includeNumbers, includeSpecial);
         return new PasswordGeneratorResponseRecord(password, properties);
     }
 
+    public PasswordGeneratorResponseRecord generatePassword(String template) {
+        PasswordTemplate compiled = compiledTemplate(template);
+        PasswordGeneratorResponseRecord.GenerationProperties properties = new PasswordGeneratorResponseRecord.GenerationProperties(
+                compiled.length(), compiled.uppercase(), compiled.lowercase(), compiled.numbers(), compiled.special(),
+                template);
+        return new PasswordGeneratorResponseRecord(compiled.generate(random), properties);
+    }
+
+    /**
+     * Templates are compiled once and kept by pattern. When the cache is full
+     * an arbitrary entry makes room, which is enough to bound memory against
+     * callers sending ever new patterns while the few in real use stay hot.
+     */
+    private PasswordTemplate compiledTemplate(String template) {
+        PasswordTemplate compiled = templates.get(template);
+        if (compiled != null) {
+            return compiled;
+        }
+        compiled = PasswordTemplate.compile(template);
+        if (templates.size() >= templateCacheSize) {
+            Iterator<String> evicted = templates.keySet().iterator();
+            if (evicted.hasNext()) {
+                templates.remove(evicted.next());
+            }
+        }
+        PasswordTemplate existing = templates.putIfAbsent(template, compiled);
+        return existing != null ? existing : compiled;
+    }
+
+    int cachedTemplateCount() {
+        return templates.size();
+    }
+
+    public PassphraseGeneratorResponseRecord generatePassphrase(int words, String separator, boolean capitalize,
+            int digits, String wordlistName) {
+        if (words <= 0 || words > PASSPHRASE_MAX_WORDS) {
+            throw new IllegalArgumentException("Words must be between 1 and " + PASSPHRASE_MAX_WORDS);
+        }
+        if (digits < 0 || digits > PASSPHRASE_MAX_DIGITS) {
+            throw new IllegalArgumentException("Digits must be between 0 and " + PASSPHRASE_MAX_DIGITS);
+        }
+        if (separator.length() > PASSPHRASE_MAX_SEPARATOR_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Separator must be at most " + PASSPHRASE_MAX_SEPARATOR_LENGTH + " characters");
+        }
+        Wordlist wordlist = wordlistRegistry.get(wordlistName);
+
+        int digitsWord = digits > 0 ? random.nextInt(words) : -1;
+        StringBuilder passphrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                passphrase.append(separator);
+            }
+            String word = wordlist.word(random.nextInt(wordlist.size()));
+            if (capitalize) {
+                passphrase.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                passphrase.append(word);
+            }
+            if (i == digitsWord) {
+                for (int j = 0; j < digits; j++) {
+                    passphrase.append(DIGITS[random.nextInt(DIGITS.length)]);
+                }
+            }
+        }
+
+        // The position of the digits is not counted, so the estimate stays a lower bound.
+        double entropyBits = words * log2(wordlist.size()) + digits * log2(DIGITS.length);
+        PassphraseGeneratorResponseRecord.GenerationProperties properties = new PassphraseGeneratorResponseRecord.GenerationProperties(
+                words, separator, capitalize, digits, wordlist.name(), Math.round(entropyBits * 100) / 100.0);
+        return new PassphraseGeneratorResponseRecord(passphrase.toString(), properties);
+    }
+
+    private static double log2(int value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    public void requireBulkRequest(long count, int passwordLength, boolean includeUppercase,
+            boolean includeLowercase, boolean includeNumbers, boolean includeSpecial, String format) {
+        if (count <= 0 || count > maxBulkCount) {
+            throw new IllegalArgumentException("Count must be between 1 and " + maxBulkCount);
+        }
+        if (!FORMAT_NDJSON.equals(format) && !FORMAT_TEXT.equals(format)) {
+            throw new IllegalArgumentException("Format must be " + FORMAT_NDJSON + " or " + FORMAT_TEXT);
+        }
+        validateLength(passwordLength);
+        if (passwordLength > BULK_MAX_LENGTH) {
+            throw new IllegalArgumentException("Password length must be at most " + BULK_MAX_LENGTH + " in bulk");
+        }
+        validateClasses(classesOf(includeUppercase, includeLowercase, includeNumbers, includeSpecial), passwordLength);
+    }
+
+    public BatchSummaryRecord generatePasswords(long count, int passwordLength, boolean includeUppercase,
+            boolean includeLowercase, boolean includeNumbers, boolean includeSpecial, String format,
+            OutputStream output) throws IOException {
+        requireBulkRequest(count, passwordLength, includeUppercase, includeLowercase, includeNumbers, includeSpecial,
+                format);
+        int classes = classesOf(includeUppercase, includeLowercase, includeNumbers, includeSpecial);
+        boolean ndjson = FORMAT_NDJSON.equals(format);
+        int lineLength = passwordLength + (ndjson ? NDJSON_PREFIX.length + NDJSON_SUFFIX.length : 1);
+        int chunkSize = Math.max(1, BULK_CHUNK_BYTES / lineLength);
+
+        long start = System.nanoTime();
+        ParallelChunkWriter.forAvailableProcessors(batchExecutor).write(new Iterator<Callable<byte[]>>() {
+            private long remaining = count;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Callable<byte[]> next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                int passwords = (int) Math.min(chunkSize, remaining);
+                remaining -= passwords;
+                return () -> renderChunk(passwords, passwordLength, classes, ndjson);
+            }
+        }, output);
+        output.flush();
+
+        BatchSummaryRecord summary = BatchSummaryRecord.of(count, 0, start);
+        logger.info("Generated {} passwords in {} ms ({} passwords/s)", summary.count(), summary.elapsedMillis(),
+                Math.round(summary.itemsPerSecond()));
+        return summary;
+    }
+
+    private byte[] renderChunk(int passwords, int passwordLength, int classes, boolean ndjson) {
+        char[] characters = new char[passwords * passwordLength];
+        fillPasswords(characters, passwords, passwordLength, classes);
+
+        int lineLength = passwordLength + (ndjson ? NDJSON_PREFIX.length + NDJSON_SUFFIX.length : 1);
+        byte[] chunk = new byte[passwords * lineLength];
+        int position = 0;
+        for (int i = 0; i < passwords; i++) {
+            if (ndjson) {
+                System.arraycopy(NDJSON_PREFIX, 0, chunk, position, NDJSON_PREFIX.length);
+                position += NDJSON_PREFIX.length;
+            }
+            for (int j = i * passwordLength, end = j + passwordLength; j < end; j++) {
+                chunk[position++] = (byte) characters[j];
+            }
+            if (ndjson) {
+                System.arraycopy(NDJSON_SUFFIX, 0, chunk, position, NDJSON_SUFFIX.length);
+                position += NDJSON_SUFFIX.length;
+            } else {
+                chunk[position++] = '\n';
+            }
+        }
+        Arrays.fill(characters, '\0');
+        return chunk;
+    }
+
     private void validateLength(int passwordLength) {
         if (passwordLength <= 0) {
             throw new IllegalArgumentException("Password length must be greater than zero");
         }
     }
 
-    private String buildCharacterSet(boolean includeUppercase, boolean includeLowercase, boolean includeNumbers,
+    private static int classesOf(boolean includeUppercase, boolean includeLowercase, boolean includeNumbers,
             boolean includeSpecial) {
-        StringBuilder characterSet = new StringBuilder();
-        if (includeUppercase)
-            characterSet.append(UPPERCASE_LETTERS);
-        if (includeLowercase)
-            characterSet.append(LOWERCASE_LETTERS);
-        if (includeNumbers)
-            characterSet.append(NUMBERS);
-        if (includeSpecial)
-            characterSet.append(SPECIAL_CHARACTERS);
-        return characterSet.toString();
+        return (includeUppercase ? UPPERCASE_CLASS : 0)
+                | (includeLowercase ? LOWERCASE_CLASS : 0)
+                | (includeNumbers ? NUMBERS_CLASS : 0)
+                | (includeSpecial ? SPECIAL_CLASS : 0);
     }
 
-    private void validateCharacterSet(String characterSet) {
-        if (characterSet.isEmpty()) {
+    private void validateClasses(int classes, int passwordLength) {
+        if (classes == 0) {
             throw new IllegalArgumentException("At least one character set must be selected");
         }
+        if (passwordLength < Integer.bitCount(classes)) {
+            throw new IllegalArgumentException("Password length must be at least " + Integer.bitCount(classes)
+                    + " to include every selected character set");
+        }
     }
 
-    private String generateRandomPassword(int passwordLength, String characterSet) {
-        StringBuilder password = new StringBuilder(passwordLength);
-        for (int i = 0; i < passwordLength; i++) {
-            password.append(characterSet.charAt(random.nextInt(characterSet.length())));
-        }
-        return password.toString();
+    private String generateRandomPassword(int passwordLength, int classes) {
+        char[] password = new char[passwordLength];
+        fillPasswords(password, 1, passwordLength, classes);
+        String result = new String(password);
+        Arrays.fill(password, '\0');
+        return result;
+    }
+
+    /**
+     * Draws one character from each selected class and the rest from their
+     * union, then shuffles so the guaranteed characters can be anywhere, for
+     * {@code count} passwords in a single pass over the DRBG pool.
+     */
+    private void fillPasswords(char[] target, int count, int passwordLength, int classes) {
+        random.fillPasswords(target, 0, count, passwordLength, REQUIRED_CHARACTERS[classes], CHARACTER_SETS[classes]);
     }
 }
@@ -1,8 +1,24 @@
 package com.wesleybertipaglia.securepass.services.generator;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.wesleybertipaglia.securepass.records.batch.BatchSummaryRecord;
+import com.wesleybertipaglia.securepass.records.generator.PassphraseGeneratorResponseRecord;
 import com.wesleybertipaglia.securepass.records.generator.PasswordGeneratorResponseRecord;
 
 public interface PasswordGeneratorServiceInterface {
     PasswordGeneratorResponseRecord generatePassword(int length, boolean includeUppercase, boolean includeLowercase,
             boolean includeNumbers, boolean includeSpecial);
+
+    PasswordGeneratorResponseRecord generatePassword(String template);
+
+    PassphraseGeneratorResponseRecord generatePassphrase(int words, String separator, boolean capitalize, int digits,
+            String wordlist);
+
+    void requireBulkRequest(long count, int length, boolean includeUppercase, boolean includeLowercase,
+            boolean includeNumbers, boolean includeSpecial, String format);
+
+    BatchSummaryRecord generatePasswords(long count, int length, boolean includeUppercase, boolean includeLowercase,
+            boolean includeNumbers, boolean includeSpecial, String format, OutputStream output) throws IOException;
 }
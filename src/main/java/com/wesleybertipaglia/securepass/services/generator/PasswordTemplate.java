@@ -0,0 +1,159 @@
+package com.wesleybertipaglia.securepass.services.generator;
+
+import java.util.Arrays;
+
+/**
+ * A password pattern compiled into one alphabet per position, so generating
+ * from it is a single pass over the positions with no parsing.
+ *
+ * Tokens: {@code A} uppercase, {@code a} lowercase, {@code 9} digit,
+ * {@code C}/{@code c} upper/lower consonant, {@code V}/{@code v} upper/lower
+ * vowel, {@code !} special character, {@code *} any of them. Any other
+ * character is copied as is, and {@code \} copies the next one literally.
+ */
+final class PasswordTemplate {
+    static final int MAX_LENGTH = 1024;
+
+    private static final String CONSONANTS = "bcdfghjklmnpqrstvwxyz";
+    private static final String VOWELS = "aeiou";
+    private static final char[] UPPERCASE = PasswordGeneratorService.UPPERCASE_LETTERS.toCharArray();
+    private static final char[] LOWERCASE = PasswordGeneratorService.LOWERCASE_LETTERS.toCharArray();
+    private static final char[] DIGITS = PasswordGeneratorService.NUMBERS.toCharArray();
+    private static final char[] SPECIAL = PasswordGeneratorService.SPECIAL_CHARACTERS.toCharArray();
+    private static final char[] UPPER_CONSONANTS = CONSONANTS.toUpperCase().toCharArray();
+    private static final char[] LOWER_CONSONANTS = CONSONANTS.toCharArray();
+    private static final char[] UPPER_VOWELS = VOWELS.toUpperCase().toCharArray();
+    private static final char[] LOWER_VOWELS = VOWELS.toCharArray();
+    private static final char[] ANY = (PasswordGeneratorService.UPPERCASE_LETTERS
+            + PasswordGeneratorService.LOWERCASE_LETTERS + PasswordGeneratorService.NUMBERS
+            + PasswordGeneratorService.SPECIAL_CHARACTERS).toCharArray();
+
+    private final char[] literals;
+    private final char[][] alphabets;
+    private final boolean uppercase;
+    private final boolean lowercase;
+    private final boolean numbers;
+    private final boolean special;
+
+    private PasswordTemplate(char[] literals, char[][] alphabets) {
+        this.literals = literals;
+        this.alphabets = alphabets;
+        this.uppercase = draws(alphabets, UPPERCASE);
+        this.lowercase = draws(alphabets, LOWERCASE);
+        this.numbers = draws(alphabets, DIGITS);
+        this.special = draws(alphabets, SPECIAL);
+    }
+
+    static PasswordTemplate compile(String pattern) {
+        if (pattern.isEmpty()) {
+            throw new IllegalArgumentException("Template cannot be empty");
+        }
+        if (pattern.length() > MAX_LENGTH * 2) {
+            throw new IllegalArgumentException("Template must be at most " + MAX_LENGTH + " characters long");
+        }
+
+        char[] literals = new char[pattern.length()];
+        char[][] alphabets = new char[pattern.length()][];
+        int length = 0;
+        boolean random = false;
+        for (int i = 0; i < pattern.length(); i++, length++) {
+            char token = pattern.charAt(i);
+            if (token == '\\') {
+                if (++i == pattern.length()) {
+                    throw new IllegalArgumentException("Template cannot end with an escape");
+                }
+                literals[length] = pattern.charAt(i);
+                continue;
+            }
+            alphabets[length] = alphabetOf(token);
+            if (alphabets[length] == null) {
+                literals[length] = token;
+            } else {
+                random = true;
+            }
+        }
+        if (length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Template must be at most " + MAX_LENGTH + " characters long");
+        }
+        if (!random) {
+            throw new IllegalArgumentException("Template must contain at least one random character");
+        }
+        return new PasswordTemplate(Arrays.copyOf(literals, length), Arrays.copyOf(alphabets, length));
+    }
+
+    private static char[] alphabetOf(char token) {
+        switch (token) {
+            case 'A':
+                return UPPERCASE;
+            case 'a':
+                return LOWERCASE;
+            case '9':
+                return DIGITS;
+            case 'C':
+                return UPPER_CONSONANTS;
+            case 'c':
+                return LOWER_CONSONANTS;
+            case 'V':
+                return UPPER_VOWELS;
+            case 'v':
+                return LOWER_VOWELS;
+            case '!':
+                return SPECIAL;
+            case '*':
+                return ANY;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean draws(char[][] alphabets, char[] characterSet) {
+        for (char[] alphabet : alphabets) {
+            if (alphabet == null) {
+                continue;
+            }
+            for (char character : alphabet) {
+                if (contains(characterSet, character)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(char[] characterSet, char character) {
+        for (char candidate : characterSet) {
+            if (candidate == character) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    String generate(DrbgPool random) {
+        char[] password = literals.clone();
+        random.fill(password, alphabets);
+        String result = new String(password);
+        Arrays.fill(password, '\0');
+        return result;
+    }
+
+    int length() {
+        return literals.length;
+    }
+
+    boolean uppercase() {
+        return uppercase;
+    }
+
+    boolean lowercase() {
+        return lowercase;
+    }
+
+    boolean numbers() {
+        return numbers;
+    }
+
+    boolean special() {
+        return special;
+    }
+}
@@ -0,0 +1,79 @@
+package com.wesleybertipaglia.securepass.services.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Word list in the binary format written by {@link WordlistBuilder}, read in
+ * place from a memory-mapped file or a direct buffer, so neither loading
+ * time nor heap use grows with the number of words.
+ *
+ * Layout: a 16 byte big-endian header (magic, version, word count, data
+ * length), an offset table of word count + 1 ints into the data, then the
+ * UTF-8 bytes of every word back to back.
+ */
+public final class Wordlist {
+    static final int MAGIC = 0x5350574C;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private final String name;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int dataOffset;
+
+    private Wordlist(String name, ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a wordlist file: " + name);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Unsupported wordlist version: " + name);
+        }
+        this.name = name;
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        this.dataOffset = HEADER_SIZE + (size + 1) * Integer.BYTES;
+        if (size <= 0 || (long) dataOffset + buffer.getInt(12) > buffer.capacity()) {
+            throw new IllegalStateException("Truncated wordlist file: " + name);
+        }
+    }
+
+    public static Wordlist open(String name, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Wordlist file is larger than 2 GiB: " + path);
+            }
+            return new Wordlist(name, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static Wordlist read(String name, InputStream input) throws IOException {
+        byte[] bytes = input.readAllBytes();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        return new Wordlist(name, buffer);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String word(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int start = buffer.getInt(HEADER_SIZE + index * Integer.BYTES);
+        int end = buffer.getInt(HEADER_SIZE + (index + 1) * Integer.BYTES);
+        byte[] word = new byte[end - start];
+        buffer.get(dataOffset + start, word);
+        return new String(word, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package com.wesleybertipaglia.securepass.services.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compiles a text word list into a {@link Wordlist} file. Lines are either a
+ * bare word or a diceware line such as the EFF lists ({@code 11111<TAB>abacus});
+ * blank lines and repeated words are skipped.
+ *
+ * Usage: {@code WordlistBuilder <word-list> <output>}
+ */
+public final class WordlistBuilder {
+
+    private WordlistBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: WordlistBuilder <word-list> <output>");
+            System.exit(1);
+        }
+
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(Path.of(args[1])))) {
+            int wordCount = build(Path.of(args[0]), output);
+            System.out.printf("Wrote %d words%n", wordCount);
+        }
+    }
+
+    public static int build(Path wordList, OutputStream output) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ByteArrayOutputStream offsets = new ByteArrayOutputStream();
+        DataOutputStream offsetTable = new DataOutputStream(offsets);
+        Set<String> seen = new HashSet<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(wordList, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = wordOf(line);
+                if (word.isEmpty() || !seen.add(word)) {
+                    continue;
+                }
+                offsetTable.writeInt(data.size());
+                data.write(word.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (seen.isEmpty()) {
+            throw new IllegalArgumentException("Word list is empty: " + wordList);
+        }
+        offsetTable.writeInt(data.size());
+
+        DataOutputStream header = new DataOutputStream(output);
+        header.writeInt(Wordlist.MAGIC);
+        header.writeInt(Wordlist.VERSION);
+        header.writeInt(seen.size());
+        header.writeInt(data.size());
+        offsets.writeTo(header);
+        data.writeTo(header);
+        header.flush();
+        return seen.size();
+    }
+
+    private static String wordOf(String line) {
+        String word = line.strip();
+        int separator = word.indexOf('\t');
+        if (separator < 0) {
+            separator = word.indexOf(' ');
+        }
+        if (separator > 0 && word.substring(0, separator).chars().allMatch(Character::isDigit)) {
+            word = word.substring(separator + 1).strip();
+        }
+        return word;
+    }
+}
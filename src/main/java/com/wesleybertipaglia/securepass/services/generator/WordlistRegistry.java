@@ -0,0 +1,67 @@
+package com.wesleybertipaglia.securepass.services.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Word lists available to the passphrase generator: the bundled
+ * {@value #DEFAULT_WORDLIST} list plus any compiled lists configured in
+ * {@code securepass.generator.wordlists}, named after their file.
+ */
+@Component
+public class WordlistRegistry {
+    public static final String DEFAULT_WORDLIST = "default";
+    private static final String WORDLIST_EXTENSION = ".wordlist";
+
+    @Value("classpath:wordlists/default.wordlist")
+    private Resource defaultWordlist;
+
+    @Value("${securepass.generator.wordlists:}")
+    private String[] wordlistPaths;
+
+    private Map<String, Wordlist> wordlists;
+
+    public WordlistRegistry() {
+    }
+
+    WordlistRegistry(Map<String, Wordlist> wordlists) {
+        this.wordlists = Map.copyOf(wordlists);
+    }
+
+    @PostConstruct
+    void loadWordlists() throws IOException {
+        Map<String, Wordlist> loaded = new HashMap<>();
+        try (InputStream input = defaultWordlist.getInputStream()) {
+            loaded.put(DEFAULT_WORDLIST, Wordlist.read(DEFAULT_WORDLIST, input));
+        }
+        for (String wordlistPath : wordlistPaths) {
+            if (wordlistPath.isBlank()) {
+                continue;
+            }
+            Path path = Path.of(wordlistPath.strip());
+            String name = path.getFileName().toString();
+            if (name.endsWith(WORDLIST_EXTENSION)) {
+                name = name.substring(0, name.length() - WORDLIST_EXTENSION.length());
+            }
+            loaded.put(name, Wordlist.open(name, path));
+        }
+        wordlists = Map.copyOf(loaded);
+    }
+
+    public Wordlist get(String name) {
+        Wordlist wordlist = wordlists.get(name == null || name.isBlank() ? DEFAULT_WORDLIST : name);
+        if (wordlist == null) {
+            throw new IllegalArgumentException("Unknown wordlist: " + name);
+        }
+        return wordlist;
+    }
+}
@@ -0,0 +1,48 @@
+package com.wesleybertipaglia.securepass.services.lock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets one instance at a time run a scheduled job when several share a
+ * database. The first instance to take a job's row in {@code job_locks}
+ * holds it for the lease; the others skip the job until the lease runs out.
+ * Leases are not released when the job ends, so a job scheduled on every
+ * instance still runs about once per lease, and a lease left by an instance
+ * that stopped simply expires.
+ */
+@Component
+public class JobLockService {
+
+    private static final String UPDATE = "update job_locks set locked_until = ?, locked_by = ?"
+            + " where name = ? and (locked_until <= ? or locked_by = ?)";
+    private static final String INSERT = "insert into job_locks (name, locked_until, locked_by) values (?, ?, ?)";
+
+    private final String node = UUID.randomUUID().toString();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes or renews the lease on the job, unless another instance holds
+     * it. Returns whether this instance now holds the lease.
+     */
+    public boolean tryLock(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(lease);
+        if (jdbcTemplate.update(UPDATE, until, node, name, now, node) > 0) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT, name, until, node) > 0;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchResponseRecord;
+
+/**
+ * Thrown when an operation of a password batch fails, rolling back the whole
+ * batch. Carries the per-operation results so the client can see which
+ * operations failed and why.
+ */
+public class PasswordBatchException extends RuntimeException {
+
+    private final transient PasswordBatchResponseRecord response;
+
+    public PasswordBatchException(PasswordBatchResponseRecord response) {
+        super("Password batch was rolled back");
+        this.response = response;
+    }
+
+    public PasswordBatchResponseRecord getResponse() {
+        return response;
+    }
+}
@@ -0,0 +1,84 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord;
+import com.wesleybertipaglia.securepass.repositories.PasswordRepository;
+
+/**
+ * Exports a whole vault. Rows are streamed from a database cursor straight to
+ * the response, so the heap used does not depend on the size of the vault.
+ * The CSV columns are the ones {@link PasswordImportService} reads back.
+ */
+@Service
+public class PasswordExportService implements PasswordExportServiceInterface {
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordExportService.class);
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("label")
+            .addColumn("password")
+            .addColumn("createdAt")
+            .addColumn("updatedAt")
+            .build()
+            .withHeader();
+
+    @Autowired
+    private PasswordRepository passwordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void requireExport(String format) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Export format must be ndjson or csv");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportPasswords(String format, OutputStream output, String tokenSubject) throws IOException {
+        requireExport(format);
+        long start = System.nanoTime();
+        long count = 0;
+        try (Stream<PasswordSummaryRecord> passwords = passwordRepository
+                .streamSummariesByOwnerId(UUID.fromString(tokenSubject));
+                SequenceWriter writer = FORMAT_CSV.equals(format)
+                        ? CSV_MAPPER.writer(CSV_SCHEMA).writeValues(output)
+                        : objectMapper.writer().withRootValueSeparator("\n").writeValues(output)) {
+            Iterator<PasswordSummaryRecord> iterator = passwords.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                count++;
+            }
+            if (FORMAT_NDJSON.equals(format) && count > 0) {
+                output.write('\n');
+            }
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        logger.info("Exported {} passwords in {} ms ({} passwords/s)", count, elapsedNanos / 1_000_000,
+                Math.round(count * 1_000_000_000.0 / elapsedNanos));
+        return count;
+    }
+}
@@ -0,0 +1,10 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface PasswordExportServiceInterface {
+    public void requireExport(String format);
+
+    public long exportPasswords(String format, OutputStream output, String tokenSubject) throws IOException;
+}
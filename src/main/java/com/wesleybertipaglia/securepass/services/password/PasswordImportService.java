@@ -0,0 +1,388 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.wesleybertipaglia.securepass.entities.Password;
+import com.wesleybertipaglia.securepass.entities.User;
+import com.wesleybertipaglia.securepass.records.batch.BatchSummaryRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordImportErrorRecord;
+import com.wesleybertipaglia.securepass.repositories.VaultCounterRepository;
+import com.wesleybertipaglia.securepass.services.auth.UserCache;
+
+/**
+ * Imports passwords exported by other password managers. Rows are read one at
+ * a time from the upload and written in chunks, each chunk in its own
+ * transaction, so neither the upload nor the persistence context ever holds
+ * more than a chunk worth of entries.
+ */
+@Service
+public class PasswordImportService implements PasswordImportServiceInterface {
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_JSON = "json";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    static final int CHUNK_SIZE = 1000;
+    static final int FLUSH_INTERVAL = 50;
+    static final int MAX_FIELD_LENGTH = 255;
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordImportService.class);
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final List<String> LABEL_COLUMNS = List.of("label", "name", "title", "url", "login_uri");
+    private static final List<String> PASSWORD_COLUMNS = List.of("password", "login_password");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private VaultCounterRepository vaultCounterRepository;
+
+    @Autowired
+    private VaultCache vaultCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void requireImport(String format, String tokenSubject) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_JSON.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Import format must be csv, json or ndjson");
+        }
+        if (userCache.find(UUID.fromString(tokenSubject)).isEmpty()) {
+            throw new EntityNotFoundException("User not found");
+        }
+    }
+
+    public BatchSummaryRecord importPasswords(InputStream input, String format, OutputStream output,
+            String tokenSubject) throws IOException {
+        requireImport(format, tokenSubject);
+        UUID ownerId = UUID.fromString(tokenSubject);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ObjectWriter writer = objectMapper.writer();
+        long start = System.nanoTime();
+        long errors = 0;
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        ImportRows rows = null;
+        try {
+            rows = openRows(input, format);
+            while (rows.hasNext()) {
+                ImportRow row = rows.next();
+                String error = validateRow(row);
+                if (error != null) {
+                    errors++;
+                    writeError(writer, output, row.index(), error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    errors += saveChunk(transaction, ownerId, chunk, writer, output);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            errors++;
+            writeError(writer, output, rows == null ? 0 : rows.count(), "Malformed input: " + e.getOriginalMessage());
+        } catch (RuntimeJsonMappingException e) {
+            errors++;
+            writeError(writer, output, rows == null ? 0 : rows.count(), "Malformed input: " + e.getMessage());
+        } finally {
+            if (rows != null) {
+                rows.close();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            errors += saveChunk(transaction, ownerId, chunk, writer, output);
+        }
+        long count = rows == null ? 0 : rows.count();
+
+        BatchSummaryRecord summary = BatchSummaryRecord.of(count, errors, start);
+        output.write(writer.writeValueAsBytes(Map.of("summary", summary)));
+        output.write('\n');
+        output.flush();
+        logger.info("Imported {} rows with {} errors in {} ms ({} rows/s)", summary.count(), summary.errors(),
+                summary.elapsedMillis(), Math.round(summary.itemsPerSecond()));
+        return summary;
+    }
+
+    private long saveChunk(TransactionTemplate transaction, UUID ownerId, List<ImportRow> chunk,
+            ObjectWriter writer, OutputStream output) throws IOException {
+        try {
+            transaction.executeWithoutResult(status -> {
+                User owner = entityManager.getReference(User.class, ownerId);
+                for (int i = 0; i < chunk.size(); i++) {
+                    ImportRow row = chunk.get(i);
+                    entityManager.persist(new Password(row.label(), row.password(), owner));
+                    if ((i + 1) % FLUSH_INTERVAL == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        owner = entityManager.getReference(User.class, ownerId);
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+                vaultCounterRepository.addToPasswordCount(ownerId, chunk.size());
+                vaultCache.evictVault(ownerId);
+            });
+            return 0;
+        } catch (DataAccessException e) {
+            logger.warn("Import chunk starting at row {} failed", chunk.get(0).index(), e);
+            for (ImportRow row : chunk) {
+                writeError(writer, output, row.index(), "Could not be saved");
+            }
+            return chunk.size();
+        }
+    }
+
+    private static String validateRow(ImportRow row) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        if (row.label() == null || row.label().isBlank()) {
+            return "Label is missing";
+        }
+        if (row.password() == null || row.password().isBlank()) {
+            return "Password is missing";
+        }
+        if (row.label().length() > MAX_FIELD_LENGTH) {
+            return "Label is longer than " + MAX_FIELD_LENGTH + " characters";
+        }
+        if (row.password().length() > MAX_FIELD_LENGTH) {
+            return "Password is longer than " + MAX_FIELD_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static void writeError(ObjectWriter writer, OutputStream output, long index, String error)
+            throws IOException {
+        output.write(writer.writeValueAsBytes(new PasswordImportErrorRecord(index, error)));
+        output.write('\n');
+    }
+
+    private ImportRows openRows(InputStream input, String format) throws IOException {
+        if (FORMAT_CSV.equals(format)) {
+            MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerFor(Map.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(input);
+            return new CsvRows(rows);
+        }
+        return new JsonRows(objectMapper.createParser(input), FORMAT_NDJSON.equals(format));
+    }
+
+    record ImportRow(long index, String label, String password, String error) {
+    }
+
+    private interface ImportRows extends Iterator<ImportRow>, Closeable {
+        long count();
+    }
+
+    /**
+     * Header driven CSV rows. Bitwarden ({@code name}, {@code login_password}),
+     * 1Password ({@code Title}, {@code Password}) and Chrome ({@code name},
+     * {@code password}) exports are told apart by their column names only.
+     */
+    private static final class CsvRows implements ImportRows {
+        private final MappingIterator<Map<String, String>> rows;
+        private List<String> labelKeys;
+        private String passwordKey;
+        private long count;
+
+        CsvRows(MappingIterator<Map<String, String>> rows) {
+            this.rows = rows;
+        }
+
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+
+        public ImportRow next() {
+            Map<String, String> row = rows.next();
+            if (labelKeys == null) {
+                resolveColumns(row);
+            }
+            long index = count++;
+            if (passwordKey == null) {
+                return new ImportRow(index, null, null, "CSV header has no password column");
+            }
+            String label = null;
+            for (String key : labelKeys) {
+                label = row.get(key);
+                if (label != null && !label.isBlank()) {
+                    break;
+                }
+            }
+            return new ImportRow(index, label, row.get(passwordKey), null);
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public void close() throws IOException {
+            rows.close();
+        }
+
+        private void resolveColumns(Map<String, String> row) {
+            labelKeys = new ArrayList<>();
+            for (String column : LABEL_COLUMNS) {
+                for (String key : row.keySet()) {
+                    if (key.strip().toLowerCase(Locale.ROOT).equals(column)) {
+                        labelKeys.add(key);
+                    }
+                }
+            }
+            for (String column : PASSWORD_COLUMNS) {
+                for (String key : row.keySet()) {
+                    if (passwordKey == null && key.strip().toLowerCase(Locale.ROOT).equals(column)) {
+                        passwordKey = key;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * JSON rows: a top level array of items, a Bitwarden export object whose
+     * {@code items} array is streamed, or one item per line for NDJSON. Only a
+     * single item is materialised at a time.
+     */
+    private static final class JsonRows implements ImportRows {
+        private final JsonParser parser;
+        private final boolean delimited;
+        private boolean started;
+        private boolean done;
+        private JsonToken token;
+        private long count;
+
+        JsonRows(JsonParser parser, boolean delimited) {
+            this.parser = parser;
+            this.delimited = delimited;
+        }
+
+        public boolean hasNext() {
+            if (done) {
+                return false;
+            }
+            if (token != null) {
+                return true;
+            }
+            try {
+                if (!started) {
+                    started = true;
+                    if (!delimited && !enterItems()) {
+                        done = true;
+                        return false;
+                    }
+                }
+                token = parser.nextToken();
+                if (token == null || (!delimited && token == JsonToken.END_ARRAY)) {
+                    done = true;
+                    token = null;
+                    return false;
+                }
+                return true;
+            } catch (IOException e) {
+                throw malformed(e);
+            }
+        }
+
+        public ImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long index = count++;
+            try {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    return new ImportRow(index, null, null, "Item must be an object");
+                }
+                JsonNode item = parser.readValueAsTree();
+                JsonNode login = item.path("login");
+                return new ImportRow(index, text(item, "label", "name", "title"),
+                        text(item.has("password") ? item : login, "password"), null);
+            } catch (IOException e) {
+                throw malformed(e);
+            } finally {
+                token = null;
+            }
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public void close() throws IOException {
+            parser.close();
+        }
+
+        private boolean enterItems() throws IOException {
+            JsonToken first = parser.nextToken();
+            if (first == JsonToken.START_ARRAY) {
+                return true;
+            }
+            if (first != JsonToken.START_OBJECT) {
+                throw new RuntimeJsonMappingException("Expected an array of items or an object with an items array");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("items") && value == JsonToken.START_ARRAY) {
+                    return true;
+                }
+                parser.skipChildren();
+            }
+            return false;
+        }
+
+        private static RuntimeJsonMappingException malformed(IOException e) {
+            return new RuntimeJsonMappingException(
+                    e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage());
+        }
+
+        private static String text(JsonNode node, String... fields) {
+            for (String field : fields) {
+                JsonNode value = node.get(field);
+                if (value != null && value.isTextual() && !value.asText().isBlank()) {
+                    return value.asText();
+                }
+            }
+            return null;
+        }
+    }
+}
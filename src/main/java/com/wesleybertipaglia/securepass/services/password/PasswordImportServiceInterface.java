@@ -0,0 +1,14 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.wesleybertipaglia.securepass.records.batch.BatchSummaryRecord;
+
+public interface PasswordImportServiceInterface {
+    public void requireImport(String format, String tokenSubject);
+
+    public BatchSummaryRecord importPasswords(InputStream input, String format, OutputStream output, String tokenSubject)
+            throws IOException;
+}
@@ -1,5 +1,19 @@
 package com.wesleybertipaglia.securepass.services.password;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -7,68 +21,420 @@ import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.security.access.AccessDeniedException;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.hateoas.Links;
+import org.springframework.http.HttpStatus;
 
 import com.wesleybertipaglia.securepass.entities.User;
 import com.wesleybertipaglia.securepass.mappers.PasswordMapper;
 import com.wesleybertipaglia.securepass.entities.Password;
 import com.wesleybertipaglia.securepass.repositories.PasswordRepository;
 import com.wesleybertipaglia.securepass.repositories.UserRepository;
+import com.wesleybertipaglia.securepass.repositories.VaultCounterRepository;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchOperationRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchResultRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordCursorPageRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordMultiGetResponseRecord;
 import com.wesleybertipaglia.securepass.records.password.PasswordRequestRecord;
 import com.wesleybertipaglia.securepass.records.password.PasswordResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord;
+import com.wesleybertipaglia.securepass.services.password.VaultCache.CachedPassword;
 
 @Service
 public class PasswordService implements PasswordServiceInterface {
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final char CURSOR_SEPARATOR = '|';
+    private static final Set<String> FOREIGN_KEY_VIOLATIONS = Set.of("23503", "23506");
+
     @Autowired
     private PasswordRepository passwordRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VaultCounterRepository vaultCounterRepository;
+
+    @Autowired
+    private VaultCache vaultCache;
+
+    @Autowired
+    private VaultLoader vaultLoader;
+
     @Transactional
     public PasswordResponseRecord createPassword(PasswordRequestRecord passwordRequest, String tokenSubject) {
-        User user = userRepository.findById(UUID.fromString(tokenSubject))
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        UUID ownerId = UUID.fromString(tokenSubject);
+        User owner = userRepository.getReferenceById(ownerId);
 
-        Password password = passwordRepository.save(PasswordMapper.requestRecordToEntity(passwordRequest, user));
+        Password password;
+        try {
+            password = passwordRepository.saveAndFlush(PasswordMapper.requestRecordToEntity(passwordRequest, owner));
+        } catch (DataIntegrityViolationException e) {
+            throw ownerMissing(e) ? new EntityNotFoundException("User not found") : e;
+        }
+        vaultCounterRepository.addToPasswordCount(ownerId, 1);
+        vaultCache.put(ownerId, CachedPassword.of(password));
         return PasswordMapper.entityToResponseRecord(password);
     }
 
+    /**
+     * Lists passwords as summaries selected straight into records, without
+     * loading entities, their owner or the secret unless asked for. The total
+     * comes from the owner's vault counter rather than a COUNT query. Vaults
+     * the cache holds whole are listed from memory.
+     */
     @Transactional(readOnly = true)
-    public Page<PasswordResponseRecord> listPasswords(int page, int size, String tokenSubject) {
+    public Page<PasswordSummaryRecord> listPasswords(int page, int size, boolean includeSecret, String tokenSubject) {
         Pageable pageable = PageRequest.of(page, size);
+        UUID ownerId = UUID.fromString(tokenSubject);
+
+        List<CachedPassword> vault = cachedVault(ownerId);
+        if (vault != null) {
+            int from = (int) Math.min(pageable.getOffset(), vault.size());
+            List<PasswordSummaryRecord> passwords = summaries(vault, from, Math.min(from + size, vault.size()),
+                    includeSecret);
+            return new PageImpl<>(passwords, pageable, vault.size());
+        }
 
-        return passwordRepository.findAllByOwnerId(UUID.fromString(tokenSubject), pageable)
-                .map(PasswordMapper::entityToResponseRecord);
+        List<PasswordSummaryRecord> passwords = passwordRepository.findSummariesByOwnerId(ownerId, includeSecret,
+                pageable);
+        return PageableExecutionUtils.getPage(passwords, pageable, () -> countPasswords(ownerId));
+    }
+
+    private long countPasswords(UUID ownerId) {
+        return vaultCounterRepository.findPasswordCountByOwnerId(ownerId)
+                .orElseGet(() -> passwordRepository.countByOwnerId(ownerId));
+    }
+
+    /**
+     * The owner's whole vault in listing order when the cache holds all of
+     * it. Otherwise null, and the vault is loaded into the cache in the
+     * background for the next listing.
+     */
+    private List<CachedPassword> cachedVault(UUID ownerId) {
+        if (!vaultCache.enabled()) {
+            return null;
+        }
+        List<CachedPassword> vault = vaultCache.list(ownerId);
+        if (vault == null) {
+            vaultLoader.loadLater(ownerId);
+        }
+        return vault;
+    }
+
+    /**
+     * Whether a write failed on the owner foreign key, the only one of the
+     * passwords table, because the owner no longer exists. Other violations,
+     * such as values too long for their column, are not about the owner.
+     */
+    private static boolean ownerMissing(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return FOREIGN_KEY_VIOLATIONS.contains(sqlException.getSQLState());
+            }
+        }
+        return false;
+    }
+
+    private static List<PasswordSummaryRecord> summaries(List<CachedPassword> vault, int from, int to,
+            boolean includeSecret) {
+        List<PasswordSummaryRecord> passwords = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            passwords.add(vault.get(i).toSummaryRecord(includeSecret));
+        }
+        return passwords;
+    }
+
+    /**
+     * Lists passwords ordered by creation, continuing after the cursor of the
+     * previous page (or from the start when the cursor is blank). Pages are
+     * read with a range scan of the owner/created_at/id index and one extra
+     * row to tell whether another page follows, so there is no OFFSET to skip
+     * and no count, and deep pages cost the same as the first.
+     */
+    @Transactional(readOnly = true)
+    public PasswordCursorPageRecord listPasswords(String cursor, int size, boolean includeSecret,
+            String tokenSubject) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        UUID ownerId = UUID.fromString(tokenSubject);
+        Limit limit = Limit.of(size + 1);
+        String[] position = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        List<PasswordSummaryRecord> passwords;
+        List<CachedPassword> vault = cachedVault(ownerId);
+        if (vault != null) {
+            int from = 0;
+            if (position != null) {
+                CachedPassword after = new CachedPassword(UUID.fromString(position[1]), null, null,
+                        LocalDateTime.parse(position[0]), null, 0);
+                int index = Collections.binarySearch(vault, after, VaultCache.LISTING_ORDER);
+                from = index >= 0 ? index + 1 : -index - 1;
+            }
+            passwords = summaries(vault, from, Math.min(from + size + 1, vault.size()), includeSecret);
+        } else if (position == null) {
+            passwords = passwordRepository.findFirstSummariesByOwnerId(ownerId, includeSecret, limit);
+        } else {
+            passwords = passwordRepository.findNextSummariesByOwnerId(ownerId, LocalDateTime.parse(position[0]),
+                    UUID.fromString(position[1]), includeSecret, limit);
+        }
+
+        String nextCursor = null;
+        if (passwords.size() > size) {
+            passwords = passwords.subList(0, size);
+            nextCursor = encodeCursor(passwords.get(size - 1));
+        }
+        return new PasswordCursorPageRecord(passwords, nextCursor);
+    }
+
+    private static String encodeCursor(PasswordSummaryRecord password) {
+        String position = password.createdAt().toString() + CURSOR_SEPARATOR + password.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SEPARATOR);
+            String[] parts = { position.substring(0, separator), position.substring(separator + 1) };
+            LocalDateTime.parse(parts[0]);
+            UUID.fromString(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 
     @Transactional(readOnly = true)
     public PasswordResponseRecord getPassword(UUID id, String tokenSubject) {
-        Password password = passwordRepository.findByIdAndOwnerId(id, UUID.fromString(tokenSubject))
-                .orElseThrow(() -> new EntityNotFoundException("Password not found"));
+        UUID ownerId = UUID.fromString(tokenSubject);
+        CachedPassword cached = vaultCache.get(ownerId, id);
+        if (cached != null) {
+            return cached.toResponseRecord();
+        }
 
+        long stamp = vaultCache.stamp(ownerId);
+        Password password = loadPassword(id, ownerId);
+        vaultCache.fill(ownerId, stamp, List.of(CachedPassword.of(password)), false);
         return PasswordMapper.entityToResponseRecord(password);
     }
 
-    @Transactional
-    public PasswordResponseRecord updatePassword(UUID id, PasswordRequestRecord passwordRequest, String tokenSubject) {
-        Password password = passwordRepository.findById(id)
+    private Password loadPassword(UUID id, UUID ownerId) {
+        return passwordRepository.findByIdAndOwnerId(id, ownerId)
                 .orElseThrow(() -> new EntityNotFoundException("Password not found"));
+    }
+
+    /**
+     * Resolves many ids with one IN query scoped to the owner. Found passwords
+     * keep the order of the request; ids that do not exist or belong to
+     * someone else are reported as missing alike. Only ids the vault cache
+     * does not hold are queried.
+     */
+    @Transactional(readOnly = true)
+    public PasswordMultiGetResponseRecord getPasswords(List<UUID> ids, String tokenSubject) {
+        UUID ownerId = UUID.fromString(tokenSubject);
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        Map<UUID, CachedPassword> passwords = new HashMap<>();
+        Set<UUID> uncached = new HashSet<>();
+        for (UUID id : requested) {
+            CachedPassword cached = vaultCache.get(ownerId, id);
+            if (cached != null) {
+                passwords.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            long stamp = vaultCache.stamp(ownerId);
+            List<CachedPassword> loaded = new ArrayList<>();
+            for (Password password : passwordRepository.findAllByOwnerIdAndIdIn(ownerId, uncached)) {
+                loaded.add(CachedPassword.of(password));
+            }
+            vaultCache.fill(ownerId, stamp, loaded, false);
+            for (CachedPassword password : loaded) {
+                passwords.put(password.id(), password);
+            }
+        }
+
+        List<PasswordResponseRecord> found = new ArrayList<>(passwords.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : requested) {
+            CachedPassword password = passwords.get(id);
+            if (password != null) {
+                found.add(password.toResponseRecord());
+            } else {
+                missing.add(id);
+            }
+        }
+        return new PasswordMultiGetResponseRecord(found, missing);
+    }
+
+    /**
+     * Applies a mix of create, update and delete operations in one
+     * transaction. Update and delete targets are loaded with one IN query,
+     * operations only change the persistence context, and a single flush at
+     * the end sends the writes as JDBC batches. If any operation fails, none
+     * is applied and the results tell which ones failed.
+     */
+    @Transactional
+    public PasswordBatchResponseRecord applyBatch(List<PasswordBatchOperationRecord> operations, String tokenSubject) {
+        UUID ownerId = UUID.fromString(tokenSubject);
+        validateBatch(operations);
+
+        Set<UUID> targetIds = new HashSet<>();
+        boolean creates = false;
+        for (PasswordBatchOperationRecord operation : operations) {
+            if (operation.op().equals(PasswordBatchOperationRecord.CREATE)) {
+                creates = true;
+            } else {
+                targetIds.add(operation.id());
+            }
+        }
+        Map<UUID, Password> targets = new HashMap<>();
+        if (!targetIds.isEmpty()) {
+            for (Password password : passwordRepository.findAllByOwnerIdAndIdIn(ownerId, targetIds)) {
+                targets.put(password.getId(), password);
+            }
+        }
+        User owner = creates ? userRepository.getReferenceById(ownerId) : null;
+
+        Password[] passwords = new Password[operations.size()];
+        int[] statuses = new int[operations.size()];
+        String[] errors = new String[operations.size()];
+        boolean failed = false;
+        long countDelta = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            PasswordBatchOperationRecord operation = operations.get(i);
+            if (operation.op().equals(PasswordBatchOperationRecord.CREATE)) {
+                passwords[i] = passwordRepository.save(new Password(operation.label(), operation.password(), owner));
+                statuses[i] = HttpStatus.CREATED.value();
+                countDelta++;
+                continue;
+            }
+
+            Password password = targets.get(operation.id());
+            if (password == null) {
+                statuses[i] = HttpStatus.NOT_FOUND.value();
+                errors[i] = "Password not found";
+                failed = true;
+            } else if (operation.version() != null && operation.version() != password.getVersion()) {
+                statuses[i] = HttpStatus.PRECONDITION_FAILED.value();
+                errors[i] = "Password was modified by another request";
+                failed = true;
+            } else if (operation.op().equals(PasswordBatchOperationRecord.UPDATE)) {
+                if (operation.label() != null) {
+                    password.setLabel(operation.label());
+                }
+                if (operation.password() != null) {
+                    password.setPassword(operation.password());
+                }
+                passwords[i] = password;
+                statuses[i] = HttpStatus.OK.value();
+            } else {
+                passwordRepository.delete(password);
+                targets.remove(operation.id());
+                statuses[i] = HttpStatus.NO_CONTENT.value();
+                countDelta--;
+            }
+        }
 
-        if (!password.getOwner().getId().equals(UUID.fromString(tokenSubject))) {
-            throw new AccessDeniedException("You are not allowed to update this password");
+        if (failed) {
+            throw new PasswordBatchException(batchResponse(false, operations, passwords, statuses, errors));
+        }
+        try {
+            passwordRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw ownerMissing(e) ? new EntityNotFoundException("User not found") : e;
+        }
+        if (countDelta != 0) {
+            vaultCounterRepository.addToPasswordCount(ownerId, countDelta);
         }
-        if (passwordRequest.label() != null) {
-            password.setLabel(passwordRequest.label());
+        for (int i = 0; i < operations.size(); i++) {
+            if (passwords[i] != null) {
+                vaultCache.put(ownerId, CachedPassword.of(passwords[i]));
+            } else {
+                vaultCache.remove(ownerId, operations.get(i).id());
+            }
         }
-        if (passwordRequest.password() != null) {
-            password.setPassword(passwordRequest.password());
+        return batchResponse(true, operations, passwords, statuses, errors);
+    }
+
+    private static void validateBatch(List<PasswordBatchOperationRecord> operations) {
+        for (int i = 0; i < operations.size(); i++) {
+            PasswordBatchOperationRecord operation = operations.get(i);
+            switch (operation.op()) {
+                case PasswordBatchOperationRecord.CREATE:
+                    if (operation.label() == null || operation.label().isBlank()
+                            || operation.password() == null || operation.password().isBlank()) {
+                        throw new IllegalArgumentException("Operation " + i + ": label and password are required to create");
+                    }
+                    break;
+                case PasswordBatchOperationRecord.UPDATE:
+                case PasswordBatchOperationRecord.DELETE:
+                    if (operation.id() == null) {
+                        throw new IllegalArgumentException("Operation " + i + ": id is required to " + operation.op());
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Operation " + i + ": op must be create, update or delete");
+            }
         }
+    }
+
+    private static PasswordBatchResponseRecord batchResponse(boolean committed,
+            List<PasswordBatchOperationRecord> operations, Password[] passwords, int[] statuses, String[] errors) {
+        List<PasswordBatchResultRecord> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            PasswordBatchOperationRecord operation = operations.get(i);
+            UUID id = committed && passwords[i] != null ? passwords[i].getId() : operation.id();
+            Long version = committed && passwords[i] != null ? passwords[i].getVersion() : null;
+            results.add(new PasswordBatchResultRecord(i, operation.op(), id, statuses[i], version, errors[i]));
+        }
+        return new PasswordBatchResponseRecord(committed, results);
+    }
 
-        return PasswordMapper.entityToResponseRecord(passwordRepository.save(password));
+    @Transactional
+    public PasswordResponseRecord updatePassword(UUID id, PasswordRequestRecord passwordRequest, String tokenSubject) {
+        return updatePassword(id, passwordRequest, null, tokenSubject);
+    }
+
+    /**
+     * Updates a password with a single conditional UPDATE instead of reading
+     * it first. When the update matches no row, the password is looked up to
+     * tell a missing password from one changed since the expected version.
+     */
+    @Transactional
+    public PasswordResponseRecord updatePassword(UUID id, PasswordRequestRecord passwordRequest, Long expectedVersion,
+            String tokenSubject) {
+        UUID ownerId = UUID.fromString(tokenSubject);
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int updated = passwordRepository.updateByIdAndOwnerId(id, ownerId, passwordRequest.label(),
+                passwordRequest.password(), updatedAt, expectedVersion);
+
+        if (updated == 0) {
+            if (expectedVersion != null && passwordRepository.existsByIdAndOwnerId(id, ownerId)) {
+                throw new OptimisticLockingFailureException("Password was modified by another request");
+            }
+            throw new EntityNotFoundException("Password not found");
+        }
+        if (expectedVersion != null && passwordRequest.label() != null && passwordRequest.password() != null) {
+            vaultCache.update(ownerId, id, passwordRequest.label(), passwordRequest.password(), updatedAt,
+                    expectedVersion + 1);
+            return new PasswordResponseRecord(id, passwordRequest.label(), passwordRequest.password(), Links.NONE,
+                    expectedVersion + 1);
+        }
+        Password password = loadPassword(id, ownerId);
+        vaultCache.put(ownerId, CachedPassword.of(password));
+        return PasswordMapper.entityToResponseRecord(password);
     }
 
     @Transactional
@@ -77,6 +443,8 @@ public class PasswordService implements PasswordServiceInterface {
                 .orElseThrow(() -> new EntityNotFoundException("Password not found"));
 
         passwordRepository.delete(password);
+        vaultCounterRepository.addToPasswordCount(UUID.fromString(tokenSubject), -1);
+        vaultCache.remove(UUID.fromString(tokenSubject), id);
     }
 
 }
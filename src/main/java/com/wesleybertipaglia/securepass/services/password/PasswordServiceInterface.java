@@ -1,19 +1,34 @@
 package com.wesleybertipaglia.securepass.services.password;
 
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.domain.Page;
 
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchOperationRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordCursorPageRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordMultiGetResponseRecord;
 import com.wesleybertipaglia.securepass.records.password.PasswordRequestRecord;
 import com.wesleybertipaglia.securepass.records.password.PasswordResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord;
 
 public interface PasswordServiceInterface {
     PasswordResponseRecord createPassword(PasswordRequestRecord passwordRequest, String tokenSubject);
 
-    Page<PasswordResponseRecord> listPasswords(int page, int size, String tokenSubject);
+    Page<PasswordSummaryRecord> listPasswords(int page, int size, boolean includeSecret, String tokenSubject);
+
+    PasswordCursorPageRecord listPasswords(String cursor, int size, boolean includeSecret, String tokenSubject);
 
     PasswordResponseRecord getPassword(UUID id, String tokenSubject);
 
+    PasswordMultiGetResponseRecord getPasswords(List<UUID> ids, String tokenSubject);
+
     PasswordResponseRecord updatePassword(UUID id, PasswordRequestRecord passwordRequest, String tokenSubject);
 
+    PasswordResponseRecord updatePassword(UUID id, PasswordRequestRecord passwordRequest, Long expectedVersion,
+            String tokenSubject);
+
     void deletePassword(UUID id, String tokenSubject);
+
+    PasswordBatchResponseRecord applyBatch(List<PasswordBatchOperationRecord> operations, String tokenSubject);
 }
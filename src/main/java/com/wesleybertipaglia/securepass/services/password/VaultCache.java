@@ -0,0 +1,430 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.Links;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.annotation.PostConstruct;
+
+import com.wesleybertipaglia.securepass.configuration.ReplicaDataSource;
+import com.wesleybertipaglia.securepass.entities.Password;
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord;
+import com.wesleybertipaglia.securepass.services.cache.CacheInvalidationBus;
+
+/**
+ * In-process copy of recently used vaults, keyed by owner and then by
+ * password id. Whole vaults are the unit of eviction: owners are kept in
+ * least recently used order and the eldest are dropped once the estimated
+ * size of all entries passes {@code securepass.cache.vault.max-size}.
+ *
+ * A vault is either partial (the entries read so far) or complete, in which
+ * case listings are served from it. Writes are applied after their
+ * transaction commits. Reads fill the cache with what they loaded only if no
+ * write reached the owner since the read started, which the owner's
+ * generation tells, so a slow read cannot put back data a write replaced.
+ * Owners whose vault was dropped, evicted or invalidated while uncached keep
+ * their generation after the vault is gone, up to
+ * {@link #MAX_UNCACHED_GENERATIONS} of them; all other uncached owners share
+ * the generation of the last one forgotten.
+ *
+ * Every write is also published on the {@link CacheInvalidationBus}, and
+ * writes made by other instances drop the affected entries here.
+ */
+@Component
+public class VaultCache implements MeterBinder {
+    static final long VAULT_OVERHEAD_BYTES = 256;
+    static final long ENTRY_OVERHEAD_BYTES = 256;
+    static final long TOMBSTONE_BYTES = 64;
+    static final int MAX_UNCACHED_GENERATIONS = 10_000;
+
+    static final Comparator<CachedPassword> LISTING_ORDER = Comparator.comparing(CachedPassword::createdAt)
+            .thenComparing(CachedPassword::id, VaultCache::compareUnsigned);
+
+    private final LinkedHashMap<UUID, Vault> vaults = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LinkedHashMap<UUID, Long> uncachedGenerations = new LinkedHashMap<>();
+    private long generations;
+    private long forgottenGeneration;
+    private long bytes;
+    private long entries;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${securepass.cache.vault.enabled:true}")
+    private boolean enabled;
+
+    @Value("${securepass.cache.vault.max-size:64MB}")
+    private DataSize maxSize;
+
+    @Value("${securepass.cache.vault.load-limit:1000}")
+    private int loadLimit;
+
+    /**
+     * One cached password. Timestamps are the ones stored in the database,
+     * so cached listings sort exactly like the queries they stand in for.
+     */
+    record CachedPassword(UUID id, String label, String password, LocalDateTime createdAt,
+            LocalDateTime updatedAt, long version) {
+
+        static CachedPassword of(Password password) {
+            return new CachedPassword(password.getId(), password.getLabel(), password.getPassword(),
+                    password.getCreatedAt(), password.getUpdatedAt(), password.getVersion());
+        }
+
+        long bytes() {
+            return ENTRY_OVERHEAD_BYTES + 2L * (label.length() + password.length());
+        }
+
+        PasswordResponseRecord toResponseRecord() {
+            return new PasswordResponseRecord(id, label, password, Links.NONE, version);
+        }
+
+        PasswordSummaryRecord toSummaryRecord(boolean includeSecret) {
+            return new PasswordSummaryRecord(id, label, includeSecret ? password : null, createdAt, updatedAt);
+        }
+    }
+
+    private static final class Vault {
+        final Map<UUID, CachedPassword> entries = new HashMap<>();
+        final Set<UUID> deleted = new HashSet<>();
+        boolean complete;
+        long generation;
+        long bytes = VAULT_OVERHEAD_BYTES;
+        List<CachedPassword> listing;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(this::invalidate);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Vaults with more passwords than this are never loaded whole, only
+     * their entries are cached as they are read.
+     */
+    public int loadLimit() {
+        return loadLimit;
+    }
+
+    public synchronized CachedPassword get(UUID ownerId, UUID id) {
+        if (!enabled) {
+            return null;
+        }
+        Vault vault = vaults.get(ownerId);
+        CachedPassword password = vault != null ? vault.entries.get(id) : null;
+        (password != null ? hits : misses).increment();
+        return password;
+    }
+
+    /**
+     * The owner's passwords in listing order, or null unless the whole vault
+     * is cached.
+     */
+    public synchronized List<CachedPassword> list(UUID ownerId) {
+        if (!enabled) {
+            return null;
+        }
+        Vault vault = vaults.get(ownerId);
+        if (vault == null || !vault.complete) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (vault.listing == null) {
+            List<CachedPassword> listing = new ArrayList<>(vault.entries.values());
+            listing.sort(LISTING_ORDER);
+            vault.listing = Collections.unmodifiableList(listing);
+        }
+        return vault.listing;
+    }
+
+    /**
+     * Generation to pass to {@link #fill} for a read that starts now.
+     */
+    public synchronized long stamp(UUID ownerId) {
+        Vault vault = vaults.get(ownerId);
+        return vault != null ? vault.generation : uncachedGeneration(ownerId);
+    }
+
+    /**
+     * Caches passwords read from the database, unless the owner was written
+     * to since {@code stamp} was taken or they were read from a replica.
+     * {@code complete} marks the passwords as the whole vault.
+     */
+    public synchronized void fill(UUID ownerId, long stamp, Collection<CachedPassword> passwords, boolean complete) {
+        if (!enabled || ReplicaDataSource.readingFromReplica()) {
+            return;
+        }
+        Vault vault = vaults.get(ownerId);
+        if (vault == null ? stamp != uncachedGeneration(ownerId) : vault.generation != stamp) {
+            return;
+        }
+        if (vault == null) {
+            vault = newVault(ownerId, stamp);
+        }
+        for (CachedPassword password : passwords) {
+            store(vault, password);
+        }
+        vault.complete |= complete;
+        evictToFit();
+    }
+
+    public void put(UUID ownerId, CachedPassword password) {
+        invalidationBus.publish(CacheInvalidationRecord.password(ownerId, password.id(), password.version()));
+        afterCommit(() -> write(ownerId, vault -> store(vault, password)));
+    }
+
+    /**
+     * Applies an update whose result was not read back: the cached entry is
+     * patched when it is the version the update started from, and dropped
+     * otherwise. Null label or password keep the cached value.
+     */
+    public void update(UUID ownerId, UUID id, String label, String password, LocalDateTime updatedAt,
+            long version) {
+        invalidationBus.publish(CacheInvalidationRecord.password(ownerId, id, version));
+        afterCommit(() -> write(ownerId, vault -> {
+            CachedPassword cached = vault.entries.get(id);
+            if (cached != null && cached.version() == version - 1) {
+                store(vault, new CachedPassword(id, label != null ? label : cached.label(),
+                        password != null ? password : cached.password(), cached.createdAt(), updatedAt, version));
+            } else {
+                drop(vault, id);
+            }
+        }));
+    }
+
+    /**
+     * Forgets a password that still exists but whose new state is unknown.
+     */
+    public void evict(UUID ownerId, UUID id) {
+        invalidationBus.publish(CacheInvalidationRecord.password(ownerId, id, null));
+        afterCommit(() -> write(ownerId, vault -> drop(vault, id)));
+    }
+
+    public void remove(UUID ownerId, UUID id) {
+        invalidationBus.publish(CacheInvalidationRecord.password(ownerId, id, null));
+        afterCommit(() -> write(ownerId, vault -> {
+            CachedPassword removed = vault.entries.remove(id);
+            if (removed != null) {
+                vault.bytes -= removed.bytes();
+                bytes -= removed.bytes();
+                entries--;
+                vault.listing = null;
+            }
+            if (vault.deleted.add(id)) {
+                vault.bytes += TOMBSTONE_BYTES;
+                bytes += TOMBSTONE_BYTES;
+            }
+        }));
+    }
+
+    public void evictVault(UUID ownerId) {
+        invalidationBus.publish(CacheInvalidationRecord.vault(ownerId));
+        afterCommit(() -> dropVault(ownerId));
+    }
+
+    /**
+     * Applies a write made by another instance. Passwords are dropped unless
+     * the cached copy is already at the written version, which also makes the
+     * vault partial, since a password created elsewhere is not in it. Owners
+     * with nothing cached only have reads in progress kept from filling.
+     */
+    synchronized void invalidate(CacheInvalidationRecord invalidation) {
+        switch (invalidation.type()) {
+            case PASSWORD -> {
+                Vault vault = vaults.get(invalidation.ownerId());
+                if (vault == null) {
+                    advanceUncached(invalidation.ownerId());
+                    return;
+                }
+                CachedPassword cached = vault.entries.get(invalidation.id());
+                if (cached == null || invalidation.version() == null || cached.version() < invalidation.version()) {
+                    vault.generation = ++generations;
+                    drop(vault, invalidation.id());
+                }
+            }
+            case VAULT -> dropVault(invalidation.ownerId());
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum).tags("cache", "vault", "result", "hit")
+                .description("Vault cache lookups").register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum).tags("cache", "vault", "result", "miss")
+                .description("Vault cache lookups").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum).tags("cache", "vault")
+                .description("Vaults dropped to stay within the size limit").register(registry);
+        Gauge.builder("cache.size", this, VaultCache::size).tags("cache", "vault")
+                .description("Passwords in the vault cache").register(registry);
+        Gauge.builder("cache.bytes", this, VaultCache::bytes).tags("cache", "vault").baseUnit("bytes")
+                .description("Estimated memory held by the vault cache").register(registry);
+    }
+
+    synchronized long size() {
+        return entries;
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    private interface VaultWrite {
+        void apply(Vault vault);
+    }
+
+    private synchronized void write(UUID ownerId, VaultWrite write) {
+        if (!enabled) {
+            return;
+        }
+        Vault vault = vaults.get(ownerId);
+        if (vault == null) {
+            vault = newVault(ownerId, uncachedGeneration(ownerId));
+        }
+        vault.generation = ++generations;
+        write.apply(vault);
+        evictToFit();
+    }
+
+    private synchronized void dropVault(UUID ownerId) {
+        Vault vault = vaults.remove(ownerId);
+        if (vault != null) {
+            discard(vault);
+        }
+        advanceUncached(ownerId);
+    }
+
+    private long uncachedGeneration(UUID ownerId) {
+        return uncachedGenerations.getOrDefault(ownerId, forgottenGeneration);
+    }
+
+    /**
+     * Keeps reads of an owner that has no vault cached from filling what they
+     * loaded before now. Generations are kept in increasing order, so the
+     * eldest one forgotten is the lowest.
+     */
+    private void advanceUncached(UUID ownerId) {
+        uncachedGenerations.remove(ownerId);
+        uncachedGenerations.put(ownerId, ++generations);
+        if (uncachedGenerations.size() > MAX_UNCACHED_GENERATIONS) {
+            Iterator<Long> eldest = uncachedGenerations.values().iterator();
+            forgottenGeneration = eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private Vault newVault(UUID ownerId, long generation) {
+        uncachedGenerations.remove(ownerId);
+        Vault vault = new Vault();
+        vault.generation = generation;
+        vaults.put(ownerId, vault);
+        bytes += vault.bytes;
+        return vault;
+    }
+
+    private void store(Vault vault, CachedPassword password) {
+        if (vault.deleted.contains(password.id())) {
+            return;
+        }
+        CachedPassword previous = vault.entries.get(password.id());
+        if (previous != null && previous.version() > password.version()) {
+            return;
+        }
+        vault.entries.put(password.id(), password);
+        long delta = password.bytes() - (previous != null ? previous.bytes() : 0);
+        vault.bytes += delta;
+        bytes += delta;
+        if (previous == null) {
+            entries++;
+        }
+        vault.listing = null;
+    }
+
+    private void drop(Vault vault, UUID id) {
+        CachedPassword dropped = vault.entries.remove(id);
+        if (dropped != null) {
+            vault.bytes -= dropped.bytes();
+            bytes -= dropped.bytes();
+            entries--;
+        }
+        vault.complete = false;
+        vault.listing = null;
+    }
+
+    private void discard(Vault vault) {
+        bytes -= vault.bytes;
+        entries -= vault.entries.size();
+    }
+
+    private void evictToFit() {
+        Iterator<Map.Entry<UUID, Vault>> eldest = vaults.entrySet().iterator();
+        List<UUID> evicted = new ArrayList<>();
+        while (bytes > maxSize.toBytes() && eldest.hasNext()) {
+            Map.Entry<UUID, Vault> vault = eldest.next();
+            discard(vault.getValue());
+            eldest.remove();
+            evicted.add(vault.getKey());
+            evictions.increment();
+        }
+        for (UUID ownerId : evicted) {
+            advanceUncached(ownerId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,94 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wesleybertipaglia.securepass.entities.VaultCounter;
+import com.wesleybertipaglia.securepass.repositories.PasswordRepository;
+import com.wesleybertipaglia.securepass.repositories.VaultCounterRepository;
+import com.wesleybertipaglia.securepass.services.lock.JobLockService;
+
+/**
+ * Brings the per-owner password counters back in line with the passwords
+ * table: creates the counters users are missing (accounts from before the
+ * counters existed), drops those of deleted accounts and recounts any that
+ * drifted, for example through writes made outside the application.
+ *
+ * Only the instance holding the job's lock runs it. Each drifted counter is
+ * recounted in its own transaction with its row locked, so password writes
+ * of that owner wait on their counter update and none is lost to the
+ * recount.
+ */
+@Component
+public class VaultCounterReconciler {
+    static final String JOB_NAME = "vault-counter-reconcile";
+
+    private static final Logger logger = LoggerFactory.getLogger(VaultCounterReconciler.class);
+
+    @Autowired
+    private VaultCounterRepository vaultCounterRepository;
+
+    @Autowired
+    private PasswordRepository passwordRepository;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${securepass.vault.counter.reconcile-interval:PT1H}")
+    private Duration interval;
+
+    @Scheduled(fixedDelayString = "${securepass.vault.counter.reconcile-interval:PT1H}")
+    public void reconcile() {
+        if (!jobLockService.tryLock(JOB_NAME, interval)) {
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int created = 0;
+        try {
+            created = transaction.execute(status -> vaultCounterRepository.createMissing());
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Users signed up while creating their vault counters, retrying on the next run", e);
+        }
+        int deleted = transaction.execute(status -> vaultCounterRepository.deleteOrphans());
+        int corrected = 0;
+        for (UUID ownerId : vaultCounterRepository.findDriftedOwnerIds()) {
+            if (transaction.execute(status -> recount(ownerId))) {
+                corrected++;
+            }
+        }
+        if (created + deleted + corrected > 0) {
+            logger.info("Reconciled vault counters: {} created, {} deleted, {} corrected", created, deleted,
+                    corrected);
+        }
+    }
+
+    /**
+     * Recounts the owner's passwords once their counter row is locked, and
+     * returns whether the counter was off.
+     */
+    private boolean recount(UUID ownerId) {
+        VaultCounter counter = vaultCounterRepository.findForUpdateByOwnerId(ownerId).orElse(null);
+        if (counter == null) {
+            return false;
+        }
+        long count = passwordRepository.countByOwnerId(ownerId);
+        if (counter.getPasswordCount() == count) {
+            return false;
+        }
+        counter.setPasswordCount(count);
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+import com.wesleybertipaglia.securepass.entities.Password;
+import com.wesleybertipaglia.securepass.repositories.PasswordRepository;
+import com.wesleybertipaglia.securepass.repositories.VaultCounterRepository;
+import com.wesleybertipaglia.securepass.services.password.VaultCache.CachedPassword;
+
+/**
+ * Loads whole vaults into the {@link VaultCache} in the background. A listing
+ * that finds no complete vault cached is answered by its own page query and
+ * asks for a load here, so it neither waits for nor pays for reading every
+ * password of the owner. One load per owner is queued at a time and loads
+ * that do not fit the queue are dropped; the next listing asks again.
+ */
+@Component
+public class VaultLoader {
+    static final int QUEUE_CAPACITY = 64;
+
+    private static final Logger logger = LoggerFactory.getLogger(VaultLoader.class);
+
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "vault-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @Autowired
+    private PasswordRepository passwordRepository;
+
+    @Autowired
+    private VaultCounterRepository vaultCounterRepository;
+
+    @Autowired
+    private VaultCache vaultCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a load of the owner's vault, unless the cache is off or a load
+     * is already queued.
+     */
+    public void loadLater(UUID ownerId) {
+        if (!vaultCache.enabled() || !queued.add(ownerId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    load(ownerId);
+                } finally {
+                    queued.remove(ownerId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(ownerId);
+        }
+    }
+
+    /**
+     * Caches the owner's vault as complete when it has no more than the
+     * cache's load limit of passwords. The vault counter rules out larger
+     * vaults before any password is read. The transaction is not read-only,
+     * so the vault is read from the primary even when replicas are set up.
+     */
+    void load(UUID ownerId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> {
+                long stamp = vaultCache.stamp(ownerId);
+                int loadLimit = vaultCache.loadLimit();
+                if (vaultCounterRepository.findPasswordCountByOwnerId(ownerId).orElse(0L) > loadLimit) {
+                    return;
+                }
+                List<Password> passwords = passwordRepository.findAllByOwnerIdOrderByCreatedAtAscIdAsc(ownerId,
+                        Limit.of(loadLimit + 1));
+                if (passwords.size() > loadLimit) {
+                    return;
+                }
+                List<CachedPassword> loaded = new ArrayList<>(passwords.size());
+                for (Password password : passwords) {
+                    loaded.add(CachedPassword.of(password));
+                }
+                vaultCache.fill(ownerId, stamp, loaded, true);
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Could not load the vault of {} into the cache", ownerId, e);
+        }
+    }
+}
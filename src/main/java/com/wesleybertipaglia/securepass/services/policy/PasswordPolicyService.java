@@ -0,0 +1,158 @@
+package com.wesleybertipaglia.securepass.services.policy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.wesleybertipaglia.securepass.records.policy.PasswordPolicyRecord;
+import com.wesleybertipaglia.securepass.services.checker.PasswordCheckerEngine;
+import com.wesleybertipaglia.securepass.services.validation.*;
+
+/**
+ * Named password policies read from a JSON file and compiled into checker
+ * engines. The file is polled for changes; a new set of engines is compiled
+ * aside and swapped in at once, so checks in flight keep the engine they
+ * started with, and a file that fails to load leaves the previous policies
+ * in place.
+ */
+@Service
+public class PasswordPolicyService implements PasswordPolicyServiceInterface {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordPolicyService.class);
+    private static final TypeReference<List<PasswordPolicyRecord>> POLICY_LIST = new TypeReference<>() {
+    };
+
+    @Value("${securepass.checker.policy-file:}")
+    private String policyFile;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BreachedPasswordValidation breachedPasswordValidation;
+
+    private volatile Map<String, PasswordCheckerEngine> engines = Map.of();
+
+    private Object loadedVersion;
+
+    @PostConstruct
+    void loadPolicies() throws IOException {
+        if (!policyFile.isBlank()) {
+            reloadIfModified();
+        }
+    }
+
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.SECONDS)
+    void reloadPolicies() {
+        if (policyFile.isBlank()) {
+            return;
+        }
+        try {
+            reloadIfModified();
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("Failed to reload password policies from {}, keeping the previous policies", policyFile, e);
+        }
+    }
+
+    public PasswordCheckerEngine getEngine(String policyId) {
+        PasswordCheckerEngine engine = engines.get(policyId);
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown password policy: " + policyId);
+        }
+        return engine;
+    }
+
+    private synchronized void reloadIfModified() throws IOException {
+        Path path = Path.of(policyFile);
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Object version = List.of(attributes.lastModifiedTime(), attributes.size());
+        if (version.equals(loadedVersion)) {
+            return;
+        }
+
+        List<PasswordPolicyRecord> policies = objectMapper.readerFor(POLICY_LIST)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(path.toFile());
+        engines = compile(policies);
+        loadedVersion = version;
+        logger.info("Loaded {} password policies from {}", policies.size(), policyFile);
+    }
+
+    Map<String, PasswordCheckerEngine> compile(List<PasswordPolicyRecord> policies) {
+        Map<String, PasswordCheckerEngine> compiled = new HashMap<>();
+        for (PasswordPolicyRecord policy : policies) {
+            if (policy.id() == null || policy.id().isBlank()) {
+                throw new IllegalArgumentException("Policy id cannot be blank");
+            }
+            if (compiled.put(policy.id(), compile(policy)) != null) {
+                throw new IllegalArgumentException("Duplicate password policy: " + policy.id());
+            }
+        }
+        return Map.copyOf(compiled);
+    }
+
+    private PasswordCheckerEngine compile(PasswordPolicyRecord policy) {
+        int minLength = Objects.requireNonNullElse(policy.minLength(), LengthValidation.MIN_LENGTH);
+        int mediumMaxSuggestions = Objects.requireNonNullElse(policy.mediumMaxSuggestions(),
+                PasswordCheckerEngine.DEFAULT_MEDIUM_MAX_SUGGESTIONS);
+        int mediumMinLength = Objects.requireNonNullElse(policy.mediumMinLength(), minLength);
+        if (minLength < 1) {
+            throw new IllegalArgumentException("Policy " + policy.id() + " minLength must be at least 1");
+        }
+        if (policy.maxLength() != null && policy.maxLength() < minLength) {
+            throw new IllegalArgumentException("Policy " + policy.id() + " maxLength must not be less than minLength");
+        }
+        if (policy.specialCharacters() != null && policy.specialCharacters().isEmpty()) {
+            throw new IllegalArgumentException("Policy " + policy.id() + " specialCharacters cannot be empty");
+        }
+        if (mediumMaxSuggestions < 0 || mediumMinLength < 0) {
+            throw new IllegalArgumentException("Policy " + policy.id() + " thresholds cannot be negative");
+        }
+
+        List<ValidationStrategyInterface> strategies = new ArrayList<>();
+        if (policy.maxLength() != null) {
+            strategies.add(new MaxLengthValidation(policy.maxLength()));
+        }
+        strategies.add(new LengthValidation(minLength));
+        if (isRequired(policy.requireLowercase())) {
+            strategies.add(new LowercaseValidation());
+        }
+        if (isRequired(policy.requireUppercase())) {
+            strategies.add(new UppercaseValidation());
+        }
+        if (isRequired(policy.requireNumber())) {
+            strategies.add(new NumberValidation());
+        }
+        if (isRequired(policy.requireSpecial())) {
+            strategies.add(new SpecialCharacterValidation(policy.specialCharacters()));
+        }
+        if (isRequired(policy.breachCheck())) {
+            strategies.add(breachedPasswordValidation);
+        }
+        return PasswordCheckerEngine.compile(strategies, mediumMaxSuggestions, mediumMinLength);
+    }
+
+    private static boolean isRequired(Boolean flag) {
+        return flag == null || flag;
+    }
+}
@@ -0,0 +1,7 @@
+package com.wesleybertipaglia.securepass.services.policy;
+
+import com.wesleybertipaglia.securepass.services.checker.PasswordCheckerEngine;
+
+public interface PasswordPolicyServiceInterface {
+    PasswordCheckerEngine getEngine(String policyId);
+}
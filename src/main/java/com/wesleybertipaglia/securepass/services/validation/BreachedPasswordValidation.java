@@ -0,0 +1,50 @@
+package com.wesleybertipaglia.securepass.services.validation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.wesleybertipaglia.securepass.services.breach.BreachBloomFilter;
+import com.wesleybertipaglia.securepass.services.breach.BreachHashes;
+
+@Component
+public class BreachedPasswordValidation implements PasswordRuleValidationStrategyInterface {
+
+    @Value("${securepass.breach.bloom-filter:}")
+    private String bloomFilterPath;
+
+    private BreachBloomFilter bloomFilter;
+
+    public BreachedPasswordValidation() {
+    }
+
+    public BreachedPasswordValidation(BreachBloomFilter bloomFilter) {
+        this.bloomFilter = bloomFilter;
+    }
+
+    @PostConstruct
+    void loadBloomFilter() throws IOException {
+        if (!bloomFilterPath.isBlank()) {
+            bloomFilter = BreachBloomFilter.open(Path.of(bloomFilterPath));
+        }
+    }
+
+    @Override
+    public boolean isSatisfiedBy(CharSequence password) {
+        return bloomFilter == null || !bloomFilter.mightContain(BreachHashes.sha1(password));
+    }
+
+    @Override
+    public String suggestion() {
+        return "Password has appeared in a data breach and should not be used";
+    }
+
+    @Override
+    public int cost() {
+        return EXPENSIVE_COST;
+    }
+}
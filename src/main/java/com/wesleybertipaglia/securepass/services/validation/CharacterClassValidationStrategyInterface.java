@@ -0,0 +1,19 @@
+package com.wesleybertipaglia.securepass.services.validation;
+
+import java.util.List;
+
+public interface CharacterClassValidationStrategyInterface extends ValidationStrategyInterface {
+    boolean matches(char character);
+
+    String suggestion();
+
+    @Override
+    default void validate(String password, List<String> suggestions) {
+        for (int i = 0; i < password.length(); i++) {
+            if (matches(password.charAt(i))) {
+                return;
+            }
+        }
+        suggestions.add(suggestion());
+    }
+}
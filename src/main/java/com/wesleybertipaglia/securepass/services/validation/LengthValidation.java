@@ -1,17 +1,33 @@
 package com.wesleybertipaglia.securepass.services.validation;
 
-import java.util.List;
-
 import org.springframework.stereotype.Component;
 
 @Component
-public class LengthValidation implements ValidationStrategyInterface {
-    private static final int MIN_LENGTH = 8;
+public class LengthValidation implements PasswordRuleValidationStrategyInterface {
+    public static final int MIN_LENGTH = 8;
+
+    private final int minLength;
+
+    public LengthValidation() {
+        this(MIN_LENGTH);
+    }
+
+    public LengthValidation(int minLength) {
+        this.minLength = minLength;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(CharSequence password) {
+        return password.length() >= minLength;
+    }
+
+    @Override
+    public String suggestion() {
+        return "Password must be at least " + minLength + " characters long";
+    }
 
     @Override
-    public void validate(String password, List<String> suggestions) {
-        if (password.length() < MIN_LENGTH) {
-            suggestions.add("Password must be at least " + MIN_LENGTH + " characters long");
-        }
+    public int cost() {
+        return CONSTANT_COST;
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,17 @@
 package com.wesleybertipaglia.securepass.services.validation;
 
-import java.util.List;
-
 import org.springframework.stereotype.Component;
 
 @Component
-public class LowercaseValidation implements ValidationStrategyInterface {
+public class LowercaseValidation implements CharacterClassValidationStrategyInterface {
+
+    @Override
+    public boolean matches(char character) {
+        return character >= 'a' && character <= 'z';
+    }
 
     @Override
-    public void validate(String password, List<String> suggestions) {
-        if (!password.matches(".*[a-z].*")) {
-            suggestions.add("Password must contain at least one lowercase letter");
-        }
+    public String suggestion() {
+        return "Password must contain at least one lowercase letter";
     }
 }
@@ -0,0 +1,29 @@
+package com.wesleybertipaglia.securepass.services.validation;
+
+public class MaxLengthValidation implements PasswordRuleValidationStrategyInterface {
+    private final int maxLength;
+
+    public MaxLengthValidation(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(CharSequence password) {
+        return password.length() <= maxLength;
+    }
+
+    @Override
+    public String suggestion() {
+        return "Password must be at most " + maxLength + " characters long";
+    }
+
+    @Override
+    public int cost() {
+        return CONSTANT_COST;
+    }
+
+    @Override
+    public boolean isFatal() {
+        return true;
+    }
+}
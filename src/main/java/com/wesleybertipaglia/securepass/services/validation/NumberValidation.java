@@ -1,16 +1,17 @@
 package com.wesleybertipaglia.securepass.services.validation;
 
-import java.util.List;
-
 import org.springframework.stereotype.Component;
 
 @Component
-public class NumberValidation implements ValidationStrategyInterface {
+public class NumberValidation implements CharacterClassValidationStrategyInterface {
+
+    @Override
+    public boolean matches(char character) {
+        return character >= '0' && character <= '9';
+    }
 
     @Override
-    public void validate(String password, List<String> suggestions) {
-        if (!password.matches(".*[0-9].*")) {
-            suggestions.add("Password must contain at least one number");
-        }
+    public String suggestion() {
+        return "Password must contain at least one number";
     }
-}
\ No newline at end of file
+}
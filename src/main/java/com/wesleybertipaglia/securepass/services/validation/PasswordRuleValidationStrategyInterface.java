@@ -0,0 +1,28 @@
+package com.wesleybertipaglia.securepass.services.validation;
+
+import java.util.List;
+
+public interface PasswordRuleValidationStrategyInterface extends ValidationStrategyInterface {
+    int CONSTANT_COST = 0;
+    int LINEAR_COST = 1;
+    int EXPENSIVE_COST = 2;
+
+    boolean isSatisfiedBy(CharSequence password);
+
+    String suggestion();
+
+    default int cost() {
+        return LINEAR_COST;
+    }
+
+    default boolean isFatal() {
+        return false;
+    }
+
+    @Override
+    default void validate(String password, List<String> suggestions) {
+        if (!isSatisfiedBy(password)) {
+            suggestions.add(suggestion());
+        }
+    }
+}
@@ -1,16 +1,36 @@
 package com.wesleybertipaglia.securepass.services.validation;
 
-import java.util.List;
-
 import org.springframework.stereotype.Component;
 
 @Component
-public class SpecialCharacterValidation implements ValidationStrategyInterface {
+public class SpecialCharacterValidation implements CharacterClassValidationStrategyInterface {
+    private final String specialCharacters;
+
+    public SpecialCharacterValidation() {
+        this(null);
+    }
+
+    public SpecialCharacterValidation(String specialCharacters) {
+        this.specialCharacters = specialCharacters;
+    }
 
     @Override
-    public void validate(String password, List<String> suggestions) {
-        if (!password.matches(".*[\\W].*")) {
-            suggestions.add("Password must contain at least one special character (e.g., !@#$%^&*)");
+    public boolean matches(char character) {
+        return specialCharacters == null ? !isWordCharacter(character) : specialCharacters.indexOf(character) >= 0;
+    }
+
+    @Override
+    public String suggestion() {
+        if (specialCharacters == null) {
+            return "Password must contain at least one special character (e.g., !@#$%^&*)";
         }
+        return "Password must contain at least one special character (" + specialCharacters + ")";
+    }
+
+    private boolean isWordCharacter(char character) {
+        return (character >= 'a' && character <= 'z')
+                || (character >= 'A' && character <= 'Z')
+                || (character >= '0' && character <= '9')
+                || character == '_';
     }
-}
\ No newline at end of file
+}
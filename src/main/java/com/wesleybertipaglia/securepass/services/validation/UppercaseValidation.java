@@ -1,16 +1,17 @@
 package com.wesleybertipaglia.securepass.services.validation;
 
-import java.util.List;
-
 import org.springframework.stereotype.Component;
 
 @Component
-public class UppercaseValidation implements ValidationStrategyInterface {
+public class UppercaseValidation implements CharacterClassValidationStrategyInterface {
+
+    @Override
+    public boolean matches(char character) {
+        return character >= 'A' && character <= 'Z';
+    }
 
     @Override
-    public void validate(String password, List<String> suggestions) {
-        if (!password.matches(".*[A-Z].*")) {
-            suggestions.add("Password must contain at least one uppercase letter");
-        }
+    public String suggestion() {
+        return "Password must contain at least one uppercase letter";
     }
-}
\ No newline at end of file
+}
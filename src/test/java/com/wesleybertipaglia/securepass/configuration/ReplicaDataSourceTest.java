@@ -0,0 +1,254 @@
+package com.wesleybertipaglia.securepass.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaDataSourceTest {
+
+    private final List<HikariDataSource> databases = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private ReplicaDataSource replicaDataSource;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        databases.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(2);
+        new JdbcTemplate(dataSource).execute("create table node as select '" + name + "' as name");
+        databases.add(dataSource);
+        return dataSource;
+    }
+
+    private List<HikariDataSource> givenRouting(ReplicaDataSource.Balance balance, Duration readYourWrites,
+            int replicaCount) {
+        HikariDataSource primary = database("primary");
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaCount; i++) {
+            replicas.add(database("replica-" + i));
+        }
+        givenRouting(primary, replicas, balance, readYourWrites, Duration.ofMinutes(1));
+        return replicas;
+    }
+
+    private void givenRouting(DataSource primary, List<? extends DataSource> replicas, ReplicaDataSource.Balance balance,
+            Duration readYourWrites, Duration retryAfter) {
+        replicaDataSource = new ReplicaDataSource(primary, replicas, balance, readYourWrites, retryAfter);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaDataSource.writeTracking());
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private DataSource downReplica(AtomicInteger attempts) {
+        return new DelegatingDataSource(database("down")) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                attempts.incrementAndGet();
+                throw new SQLException("Connection refused");
+            }
+        };
+    }
+
+    private String readNode(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private void signIn(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null, "USER"));
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to the replica and the rest to the primary")
+    void shouldRouteByTransaction() {
+        // arrange
+        givenRouting(ReplicaDataSource.Balance.ROUND_ROBIN, Duration.ZERO, 1);
+
+        // act
+        String readOnlyNode = readNode(readOnly);
+        String readWriteNode = readNode(readWrite);
+        String nonTransactionalNode = jdbcTemplate.queryForObject("select name from node", String.class);
+
+        // assert
+        assertEquals("replica-0", readOnlyNode);
+        assertEquals("primary", readWriteNode);
+        assertEquals("primary", nonTransactionalNode);
+    }
+
+    @Test
+    @DisplayName("Should tell when the transaction reads from a replica")
+    void shouldTellReplicaReads() {
+        // arrange
+        givenRouting(ReplicaDataSource.Balance.ROUND_ROBIN, Duration.ZERO, 1);
+
+        // act
+        boolean beforeRead = readOnly.execute(status -> ReplicaDataSource.readingFromReplica());
+        boolean afterReplicaRead = readOnly.execute(status -> readNode(readOnly) != null
+                && ReplicaDataSource.readingFromReplica());
+        boolean afterPrimaryRead = readWrite.execute(status -> readNode(readWrite) != null
+                && ReplicaDataSource.readingFromReplica());
+
+        // assert
+        assertFalse(beforeRead, "No connection should have been taken yet");
+        assertTrue(afterReplicaRead);
+        assertFalse(afterPrimaryRead);
+        assertFalse(ReplicaDataSource.readingFromReplica(), "The mark should end with the transaction");
+    }
+
+    @Test
+    @DisplayName("Should take turns between replicas")
+    void shouldRoundRobin() {
+        // arrange
+        givenRouting(ReplicaDataSource.Balance.ROUND_ROBIN, Duration.ZERO, 2);
+
+        // act
+        List<String> nodes = List.of(readNode(readOnly), readNode(readOnly), readNode(readOnly), readNode(readOnly));
+
+        // assert
+        assertEquals(2, nodes.stream().filter("replica-0"::equals).count());
+        assertEquals(2, nodes.stream().filter("replica-1"::equals).count());
+        assertNotEquals(nodes.get(0), nodes.get(1));
+    }
+
+    @Test
+    @DisplayName("Should pick the replica with the fewest connections in use")
+    void shouldPickLeastLoaded() throws Exception {
+        // arrange
+        List<HikariDataSource> replicas = givenRouting(ReplicaDataSource.Balance.LEAST_LOADED, Duration.ZERO, 2);
+
+        // act
+        List<String> nodes;
+        try (Connection busy = replicas.get(0).getConnection()) {
+            nodes = List.of(readNode(readOnly), readNode(readOnly), readNode(readOnly));
+        }
+
+        // assert
+        assertEquals(List.of("replica-1", "replica-1", "replica-1"), nodes);
+    }
+
+    @Test
+    @DisplayName("Should read from the primary for a while after the user writes")
+    void shouldReadYourWrites() throws Exception {
+        // arrange
+        givenRouting(ReplicaDataSource.Balance.ROUND_ROBIN, Duration.ofMillis(300), 1);
+        signIn("alice");
+
+        // act
+        String beforeWrite = readNode(readOnly);
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set name = name"));
+        String afterWrite = readNode(readOnly);
+        signIn("bob");
+        String otherUser = readNode(readOnly);
+        signIn("alice");
+        Thread.sleep(400);
+        String afterWindow = readNode(readOnly);
+
+        // assert
+        assertEquals("replica-0", beforeWrite);
+        assertEquals("primary", afterWrite);
+        assertEquals("replica-0", otherUser, "Only the writer should be pinned to the primary");
+        assertEquals("replica-0", afterWindow);
+    }
+
+    @Test
+    @DisplayName("Should not pin users whose write was rolled back")
+    void shouldIgnoreRolledBackWrites() {
+        // arrange
+        givenRouting(ReplicaDataSource.Balance.ROUND_ROBIN, Duration.ofMinutes(1), 1);
+        signIn("alice");
+
+        // act
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("update node set name = name");
+            status.setRollbackOnly();
+        });
+
+        // assert
+        assertFalse(replicaDataSource.wroteRecently("alice"));
+        assertEquals("replica-0", readNode(readOnly));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when a replica is down")
+    void shouldFallBackToPrimary() {
+        // arrange
+        List<HikariDataSource> replicas = givenRouting(ReplicaDataSource.Balance.ROUND_ROBIN, Duration.ZERO, 1);
+        replicas.get(0).close();
+
+        // act
+        String node = readNode(readOnly);
+
+        // assert
+        assertEquals("primary", node);
+    }
+
+    @Test
+    @DisplayName("Should try the next replica and skip a failed one until it is due for a retry")
+    void shouldSkipFailedReplica() throws Exception {
+        // arrange
+        AtomicInteger attempts = new AtomicInteger();
+        givenRouting(database("primary"), List.of(downReplica(attempts), database("replica-1")),
+                ReplicaDataSource.Balance.ROUND_ROBIN, Duration.ZERO, Duration.ofMillis(300));
+
+        // act
+        List<String> nodes = List.of(readNode(readOnly), readNode(readOnly), readNode(readOnly), readNode(readOnly));
+        int attemptsDuringBackOff = attempts.get();
+        Thread.sleep(400);
+        String afterBackOff = readNode(readOnly);
+        readNode(readOnly);
+
+        // assert
+        assertEquals(List.of("replica-1", "replica-1", "replica-1", "replica-1"), nodes);
+        assertEquals(1, attemptsDuringBackOff, "A failed replica should not be tried again during the back-off");
+        assertEquals("replica-1", afterBackOff);
+        assertEquals(2, attempts.get(), "A failed replica should be tried again after the back-off");
+    }
+
+    @Test
+    @DisplayName("Should read from the primary without waiting while every replica is down")
+    void shouldUsePrimaryWhileReplicasAreDown() {
+        // arrange
+        AtomicInteger attempts = new AtomicInteger();
+        givenRouting(database("primary"), List.of(downReplica(attempts), downReplica(attempts)),
+                ReplicaDataSource.Balance.LEAST_LOADED, Duration.ZERO, Duration.ofMinutes(1));
+
+        // act
+        List<String> nodes = List.of(readNode(readOnly), readNode(readOnly), readNode(readOnly));
+
+        // assert
+        assertEquals(List.of("primary", "primary", "primary"), nodes);
+        assertEquals(2, attempts.get(), "Each replica should be tried once");
+    }
+}
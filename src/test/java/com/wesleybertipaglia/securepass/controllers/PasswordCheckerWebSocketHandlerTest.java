@@ -0,0 +1,174 @@
+package com.wesleybertipaglia.securepass.controllers;
+
+import com.wesleybertipaglia.securepass.services.checker.PasswordCheckerEngine;
+import com.wesleybertipaglia.securepass.services.checker.PasswordCheckerService;
+import com.wesleybertipaglia.securepass.services.validation.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PasswordCheckerWebSocketHandlerTest {
+
+    @InjectMocks
+    private PasswordCheckerWebSocketHandler handler;
+
+    @Mock
+    private PasswordCheckerService passwordCheckerService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private WebSocketSession session;
+
+    private final PasswordCheckerEngine engine = PasswordCheckerEngine.compile(List.of(
+            new LengthValidation(),
+            new LowercaseValidation(),
+            new UppercaseValidation(),
+            new NumberValidation(),
+            new SpecialCharacterValidation()));
+
+    @BeforeEach
+    void setup() {
+        inject("maxLength", 16);
+        inject("maxSessions", 1);
+        inject("idleTimeout", Duration.ofMinutes(5));
+        when(session.getId()).thenReturn("session-1");
+        when(passwordCheckerService.openSession(anyInt(), any()))
+                .thenAnswer(invocation -> engine.newSession(invocation.getArgument(0)));
+        when(passwordCheckerService.checkSession(any(), anyBoolean()))
+                .thenAnswer(invocation -> invocation.getArgument(0, PasswordCheckerEngine.Session.class).check());
+    }
+
+    private void inject(String fieldName, Object value) {
+        try {
+            Field field = PasswordCheckerWebSocketHandler.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(handler, value);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to inject " + fieldName, e);
+        }
+    }
+
+    private JsonNode send(String edit) throws Exception {
+        handler.handleTextMessage(session, new TextMessage(edit));
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, atLeastOnce()).sendMessage(captor.capture());
+        return objectMapper.readTree(captor.getValue().getPayload());
+    }
+
+    @Test
+    @DisplayName("Should check the password after every edit")
+    void shouldApplyEdits() throws Exception {
+        // Arrange
+        handler.afterConnectionEstablished(session);
+
+        // Act & Assert
+        JsonNode typed = send("{\"op\":\"append\",\"text\":\"passw\"}");
+        assertEquals(5, typed.get("length").asInt());
+        assertEquals("Weak", typed.get("strength").asText());
+
+        JsonNode appended = send("{\"op\":\"append\",\"text\":\"ord1!\"}");
+        assertEquals(10, appended.get("length").asInt());
+        assertEquals("Medium", appended.get("strength").asText());
+
+        JsonNode replaced = send("{\"op\":\"replace\",\"start\":0,\"end\":1,\"text\":\"P\"}");
+        assertEquals("Strong", replaced.get("strength").asText());
+
+        JsonNode deleted = send("{\"op\":\"delete\",\"start\":8,\"end\":10}");
+        assertEquals(8, deleted.get("length").asInt());
+        assertEquals("Medium", deleted.get("strength").asText());
+        assertEquals(2, deleted.get("suggestions").size(), "Expected the deleted number and special character to be missing");
+
+        JsonNode reset = send("{\"op\":\"reset\"}");
+        assertEquals(0, reset.get("length").asInt());
+    }
+
+    @Test
+    @DisplayName("Should answer invalid edits with an error and keep the password")
+    void shouldRejectInvalidEdits() throws Exception {
+        // Arrange
+        handler.afterConnectionEstablished(session);
+        send("{\"op\":\"append\",\"text\":\"abc\"}");
+
+        // Act & Assert
+        assertEquals("Edit range must be within the password",
+                send("{\"op\":\"delete\",\"start\":2,\"end\":9}").get("error").asText());
+        assertEquals("Password cannot be longer than 16 characters",
+                send("{\"op\":\"append\",\"text\":\"abcdefghijklmnop\"}").get("error").asText());
+        assertEquals("Edit text is required", send("{\"op\":\"append\"}").get("error").asText());
+        assertEquals("Edit must be a JSON object", send("abc").get("error").asText());
+        assertEquals(3, send("{\"op\":\"undo\"}").get("length").asInt());
+    }
+
+    @Test
+    @DisplayName("Should close the session when the handshake selects an unknown policy")
+    void shouldRejectUnknownPolicy() throws Exception {
+        // Arrange
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/utils/checker/live?policy=missing"));
+        when(passwordCheckerService.openSession(anyInt(), eq("missing")))
+                .thenThrow(new IllegalArgumentException("Unknown password policy: missing"));
+
+        // Act
+        handler.afterConnectionEstablished(session);
+
+        // Assert
+        verify(session).close(CloseStatus.POLICY_VIOLATION.withReason("Unknown password policy: missing"));
+        assertEquals(0, handler.sessionCount());
+    }
+
+    @Test
+    @DisplayName("Should refuse sessions over the limit and evict idle sessions")
+    void shouldBoundSessions() throws Exception {
+        // Arrange
+        WebSocketSession second = mock(WebSocketSession.class);
+        when(second.getId()).thenReturn("session-2");
+        handler.afterConnectionEstablished(session);
+
+        // Act
+        handler.afterConnectionEstablished(second);
+        handler.evictIdleSessions();
+        inject("idleTimeout", Duration.ZERO);
+        handler.evictIdleSessions();
+
+        // Assert
+        verify(second).close(any(CloseStatus.class));
+        verify(session, times(1)).close(any(CloseStatus.class));
+        verify(session, never()).sendMessage(any());
+        assertEquals(0, handler.sessionCount());
+    }
+}
@@ -2,8 +2,18 @@ package com.wesleybertipaglia.securepass.controllers;
 
 import com.wesleybertipaglia.securepass.entities.Password;
 import com.wesleybertipaglia.securepass.entities.User;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchOperationRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchRequestRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchResultRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordCursorPageRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordMultiGetRequestRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordMultiGetResponseRecord;
 import com.wesleybertipaglia.securepass.records.password.PasswordRequestRecord;
 import com.wesleybertipaglia.securepass.records.password.PasswordResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord;
+import com.wesleybertipaglia.securepass.services.password.PasswordExportService;
+import com.wesleybertipaglia.securepass.services.password.PasswordImportService;
 import com.wesleybertipaglia.securepass.services.password.PasswordService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,12 +24,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -41,6 +58,12 @@ class PasswordControllerTest {
     @Mock
     private PasswordService passwordService;
 
+    @Mock
+    private PasswordImportService passwordImportService;
+
+    @Mock
+    private PasswordExportService passwordExportService;
+
     @BeforeEach
     void setUp() {
         user = new User(UUID.randomUUID(), "User Name", "user@email.com", "U$&rP4s$w0r#");
@@ -89,11 +112,11 @@ class PasswordControllerTest {
         void shouldListPasswordsSuccessfully() {
             // arrange
             Pageable pageable = PageRequest.of(0, 1);
-            Page<PasswordResponseRecord> passwordPage = new PageImpl<>(List.of(new PasswordResponseRecord(password.getId(), password.getLabel(), password.getPassword(), null)), pageable, 1);
-            when(passwordService.listPasswords(0, 1, user.getId().toString())).thenReturn(passwordPage);
+            Page<PasswordSummaryRecord> passwordPage = new PageImpl<>(List.of(new PasswordSummaryRecord(password.getId(), password.getLabel(), password.getPassword(), null, null)), pageable, 1);
+            when(passwordService.listPasswords(0, 1, true, user.getId().toString())).thenReturn(passwordPage);
 
             // act
-            Page<PasswordResponseRecord> responsePage = passwordController.listPasswords(0, 1, TOKEN).getBody();
+            Page<PasswordSummaryRecord> responsePage = passwordController.listPasswords(0, 1, true, TOKEN).getBody();
 
             // assert
             assertNotNull(responsePage, "Password list should not be null");
@@ -105,14 +128,32 @@ class PasswordControllerTest {
         @DisplayName("Should throw exception when page size is 0")
         void shouldThrowExceptionWhenPageSizeIs0() {
             // arrange
-            when(passwordController.listPasswords(0, 0, TOKEN)).thenCallRealMethod();
+            when(passwordController.listPasswords(0, 0, false, TOKEN)).thenCallRealMethod();
 
             // act & assert
-            assertThrows(IllegalArgumentException.class, () -> passwordController.listPasswords(0, 0, TOKEN),
+            assertThrows(IllegalArgumentException.class, () -> passwordController.listPasswords(0, 0, false, TOKEN),
                     "Should throw IllegalArgumentException when page size is 0");
         }
     }
 
+    @Nested
+    class ListPasswordsByCursor {
+        @Test
+        @DisplayName("Should list a page of passwords after the cursor")
+        void shouldListPasswordsByCursorSuccessfully() {
+            // arrange
+            PasswordCursorPageRecord expectedPage = new PasswordCursorPageRecord(
+                    List.of(new PasswordSummaryRecord(password.getId(), password.getLabel(), null, null, null)), "next");
+            when(passwordService.listPasswords("cursor", 1, false, user.getId().toString())).thenReturn(expectedPage);
+
+            // act
+            PasswordCursorPageRecord responsePage = passwordController.listPasswords("cursor", 1, false, TOKEN).getBody();
+
+            // assert
+            assertEquals(expectedPage, responsePage, "Page should match expected");
+        }
+    }
+
     @Nested
     class GetPassword {
         @Test
@@ -144,6 +185,46 @@ class PasswordControllerTest {
     }
 
     @Nested
+    class GetPasswords {
+        @Test
+        @DisplayName("Should get many passwords in one call")
+        void shouldGetPasswordsSuccessfully() {
+            // arrange
+            UUID missingId = UUID.randomUUID();
+            PasswordMultiGetResponseRecord expectedResponse = new PasswordMultiGetResponseRecord(
+                    List.of(new PasswordResponseRecord(password.getId(), password.getLabel(), password.getPassword(), null)), List.of(missingId));
+            when(passwordService.getPasswords(List.of(password.getId(), missingId), user.getId().toString())).thenReturn(expectedResponse);
+
+            // act
+            PasswordMultiGetResponseRecord response = passwordController
+                    .getPasswords(new PasswordMultiGetRequestRecord(List.of(password.getId(), missingId)), TOKEN).getBody();
+
+            // assert
+            assertEquals(expectedResponse, response, "Response should match expected");
+        }
+    }
+
+    @Nested
+    class ApplyBatch {
+        @Test
+        @DisplayName("Should apply a batch of operations in one call")
+        void shouldApplyBatchSuccessfully() {
+            // arrange
+            List<PasswordBatchOperationRecord> operations = List.of(new PasswordBatchOperationRecord("delete", password.getId(), null, null, null));
+            PasswordBatchResponseRecord expectedResponse = new PasswordBatchResponseRecord(true,
+                    List.of(new PasswordBatchResultRecord(0, "delete", password.getId(), 204, null, null)));
+            when(passwordService.applyBatch(operations, user.getId().toString())).thenReturn(expectedResponse);
+
+            // act
+            PasswordBatchResponseRecord response = passwordController.applyBatch(new PasswordBatchRequestRecord(operations), TOKEN).getBody();
+
+            // assert
+            assertEquals(expectedResponse, response, "Response should match expected");
+        }
+    }
+
+    @Nested
+    @MockitoSettings(strictness = Strictness.LENIENT)
     class UpdatePassword {
         @Test
         @DisplayName("Should update password successfully")
@@ -151,30 +232,120 @@ class PasswordControllerTest {
             // arrange
             PasswordRequestRecord request = new PasswordRequestRecord(password.getLabel(), password.getPassword());
             PasswordResponseRecord expectedResponse = new PasswordResponseRecord(password.getId(), password.getLabel(), password.getPassword(), null);
-            when(passwordService.updatePassword(password.getId(), request, user.getId().toString())).thenReturn(expectedResponse);
+            when(passwordService.updatePassword(password.getId(), request, null, user.getId().toString())).thenReturn(expectedResponse);
 
             // act
-            PasswordResponseRecord response = passwordController.updatePassword(password.getId(), request, TOKEN).getBody();
+            PasswordResponseRecord response = passwordController.updatePassword(password.getId(), request, null, TOKEN).getBody();
 
             // assert
             assertNotNull(response, "Updated password should not be null");
             assertEquals(expectedResponse.password(), response.password(), "Updated password value should match");
         }
 
+        @Test
+        @DisplayName("Should pass the If-Match version and answer with the new ETag")
+        void shouldUpdatePasswordWithIfMatch() {
+            // arrange
+            PasswordRequestRecord request = new PasswordRequestRecord(password.getLabel(), password.getPassword());
+            PasswordResponseRecord expectedResponse = new PasswordResponseRecord(password.getId(), password.getLabel(), password.getPassword(), null, 4L);
+            when(passwordService.updatePassword(password.getId(), request, 3L, user.getId().toString())).thenReturn(expectedResponse);
+
+            // act
+            ResponseEntity<PasswordResponseRecord> response = passwordController.updatePassword(password.getId(), request, "\"3\"", TOKEN);
+
+            // assert
+            assertEquals("\"4\"", response.getHeaders().getETag(), "ETag should carry the new version");
+            assertEquals(expectedResponse, response.getBody(), "Updated password should match expected");
+        }
+
+        @Test
+        @DisplayName("Should reject an If-Match header that is not one of our ETags")
+        void shouldRejectInvalidIfMatch() {
+            // arrange
+            PasswordRequestRecord request = new PasswordRequestRecord(password.getLabel(), password.getPassword());
+
+            // act & assert
+            assertThrows(IllegalArgumentException.class, () -> passwordController.updatePassword(password.getId(), request, "W/\"abc\"", TOKEN),
+                    "Should throw IllegalArgumentException for a foreign ETag");
+            verify(passwordService, never()).updatePassword(any(UUID.class), any(), any(), anyString());
+        }
+
         @Test
         @DisplayName("Should throw exception when updating password that does not exist")
         void shouldThrowExceptionWhenUpdatingPasswordThatDoesNotExist() {
             // arrange
             PasswordRequestRecord request = new PasswordRequestRecord(password.getLabel(), password.getPassword());
-            when(passwordService.updatePassword(any(UUID.class), any(), anyString())).thenThrow(
+            when(passwordService.updatePassword(any(UUID.class), any(), any(), anyString())).thenThrow(
                     new EntityNotFoundException("Password not found"));
 
             // act & assert
-            assertThrows(EntityNotFoundException.class, () -> passwordController.updatePassword(password.getId(), request, TOKEN),
+            assertThrows(EntityNotFoundException.class, () -> passwordController.updatePassword(password.getId(), request, null, TOKEN),
                     "Should throw EntityNotFoundException when updating password that does not exist");
         }
     }
 
+    @Nested
+    class ImportPasswords {
+        @Test
+        @DisplayName("Should pick the import format from the content type")
+        void shouldPickImportFormatFromContentType() throws IOException {
+            // arrange
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/passwords/_import");
+            request.setContentType("text/csv; charset=utf-8");
+            request.setContent("name,password\nMail,S3cret!\n".getBytes());
+
+            // act
+            StreamingResponseBody body = passwordController.importPasswords(request, TOKEN).getBody();
+            body.writeTo(new ByteArrayOutputStream());
+
+            // assert
+            verify(passwordImportService).requireImport(PasswordImportService.FORMAT_CSV, user.getId().toString());
+            verify(passwordImportService).importPasswords(any(), eq(PasswordImportService.FORMAT_CSV), any(), eq(user.getId().toString()));
+        }
+
+        @Test
+        @DisplayName("Should validate the import before streaming the response")
+        void shouldValidateImportBeforeStreaming() {
+            // arrange
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/passwords/_import");
+            request.setContentType("application/x-ndjson");
+            doThrow(new EntityNotFoundException("User not found")).when(passwordImportService)
+                    .requireImport(PasswordImportService.FORMAT_NDJSON, user.getId().toString());
+
+            // act & assert
+            assertThrows(EntityNotFoundException.class, () -> passwordController.importPasswords(request, TOKEN),
+                    "Should throw EntityNotFoundException before any row is read");
+        }
+    }
+
+    @Nested
+    @MockitoSettings(strictness = Strictness.LENIENT)
+    class ExportPasswords {
+        @Test
+        @DisplayName("Should stream the export as an attachment")
+        void shouldStreamExport() throws IOException {
+            // act
+            ResponseEntity<StreamingResponseBody> response = passwordController.exportPasswords(PasswordExportService.FORMAT_CSV, TOKEN);
+            response.getBody().writeTo(new ByteArrayOutputStream());
+
+            // assert
+            assertEquals("text/csv", response.getHeaders().getContentType().toString());
+            assertEquals("attachment; filename=\"passwords.csv\"", response.getHeaders().getFirst("Content-Disposition"));
+            verify(passwordExportService).exportPasswords(eq(PasswordExportService.FORMAT_CSV), any(), eq(user.getId().toString()));
+        }
+
+        @Test
+        @DisplayName("Should reject an unknown format before streaming")
+        void shouldRejectUnknownFormat() throws IOException {
+            // arrange
+            doThrow(new IllegalArgumentException("Export format must be ndjson or csv")).when(passwordExportService).requireExport("xml");
+
+            // act & assert
+            assertThrows(IllegalArgumentException.class, () -> passwordController.exportPasswords("xml", TOKEN));
+            verify(passwordExportService, never()).exportPasswords(any(), any(), any());
+        }
+    }
+
     @Nested
     class DeletePassword {
         @Test
@@ -2,7 +2,9 @@ package com.wesleybertipaglia.securepass.controllers;
 
 import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerRequestRecord;
 import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerResponseRecord;
+import com.wesleybertipaglia.securepass.records.generator.PassphraseGeneratorResponseRecord;
 import com.wesleybertipaglia.securepass.records.generator.PasswordGeneratorResponseRecord;
+import com.wesleybertipaglia.securepass.services.breach.BreachRangeService;
 import com.wesleybertipaglia.securepass.services.checker.PasswordCheckerService;
 import com.wesleybertipaglia.securepass.services.generator.PasswordGeneratorService;
 import org.junit.jupiter.api.DisplayName;
@@ -13,10 +15,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +45,9 @@ class UtilsControllerTest {
     @Mock
     private PasswordGeneratorService passwordGeneratorService;
 
+    @Mock
+    private BreachRangeService breachRangeService;
+
     private static final String PASSWORD_VALUE = "P@ssw0rd123";
     private static final String ERROR_MESSAGE_BLANK_PASSWORD = "Password cannot be blank";
     private static final String ERROR_MESSAGE_LENGTH_ZERO = "Password length must be greater than zero";
@@ -46,26 +63,58 @@ class UtilsControllerTest {
             // Arrange
             PasswordCheckerRequestRecord request = new PasswordCheckerRequestRecord(PASSWORD_VALUE);
             PasswordCheckerResponseRecord expectedResponse = new PasswordCheckerResponseRecord("Strong", List.of());
-            when(passwordCheckerService.checkPassword(request)).thenReturn(expectedResponse);
+            when(passwordCheckerService.checkPassword(request, null)).thenReturn(expectedResponse);
 
             // Act
-            PasswordCheckerResponseRecord actualResponse = utilsController.checkPassword(request).getBody();
+            PasswordCheckerResponseRecord actualResponse = utilsController.checkPassword(request, null).getBody();
 
             // Assert
             assertNotNull(actualResponse, "Response should not be null");
             assertEquals(expectedResponse, actualResponse, "Password strength response should match expected");
         }
 
+        @Test
+        @DisplayName("Should stream the batch request body to the checker")
+        void shouldSuccessfullyCheckPasswordBatch() throws IOException {
+            // Arrange
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setContent("[\"pass\"]".getBytes(StandardCharsets.UTF_8));
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            // Act
+            StreamingResponseBody body = utilsController.checkPasswords(request, "strict").getBody();
+            assertNotNull(body, "Response body should not be null");
+            body.writeTo(output);
+
+            // Assert
+            verify(passwordCheckerService).requirePolicy("strict");
+            verify(passwordCheckerService).checkPasswords(any(InputStream.class), eq(output), eq("strict"));
+        }
+
+        @Test
+        @DisplayName("Should reject an unknown policy before streaming the batch")
+        void shouldRejectUnknownBatchPolicy() {
+            // Arrange
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            doThrow(new IllegalArgumentException("Unknown password policy: missing"))
+                    .when(passwordCheckerService).requirePolicy("missing");
+
+            // Act & Assert
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> utilsController.checkPasswords(request, "missing"));
+            assertEquals("Unknown password policy: missing", exception.getMessage());
+        }
+
         @Test
         @DisplayName("Should throw IllegalArgumentException when password is blank")
         void shouldThrowExceptionWhenPasswordIsBlank() {
             // Arrange
             PasswordCheckerRequestRecord request = new PasswordCheckerRequestRecord("");
-            when(passwordCheckerService.checkPassword(any())).thenCallRealMethod();
+            when(passwordCheckerService.checkPassword(any(), any())).thenCallRealMethod();
 
             // Act & Assert
             IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                    () -> utilsController.checkPassword(request),
+                    () -> utilsController.checkPassword(request, null),
                     "Should throw IllegalArgumentException when password is blank");
             assertEquals(ERROR_MESSAGE_BLANK_PASSWORD, exception.getMessage());
         }
@@ -75,6 +124,23 @@ class UtilsControllerTest {
     @DisplayName("Password Generator Tests")
     class PasswordGeneratorTests {
 
+        @Test
+        @DisplayName("Should validate and stream a bulk generation")
+        void shouldSuccessfullyGeneratePasswordsInBulk() throws IOException {
+            // Arrange
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            // Act
+            ResponseEntity<StreamingResponseBody> response = utilsController.generatePasswords(1000, 16, true, true, true, false, "text");
+            assertNotNull(response.getBody(), "Response body should not be null");
+            response.getBody().writeTo(output);
+
+            // Assert
+            assertEquals(MediaType.TEXT_PLAIN, response.getHeaders().getContentType());
+            verify(passwordGeneratorService).requireBulkRequest(1000, 16, true, true, true, false, "text");
+            verify(passwordGeneratorService).generatePasswords(1000, 16, true, true, true, false, "text", output);
+        }
+
         @Test
         @DisplayName("Should successfully generate a strong password")
         void shouldSuccessfullyGeneratePassword() {
@@ -85,13 +151,47 @@ class UtilsControllerTest {
             when(passwordGeneratorService.generatePassword(12, true, true, true, true)).thenReturn(expectedResponse);
 
             // Act
-            PasswordGeneratorResponseRecord actualResponse = utilsController.generatePassword(12, true, true, true, true).getBody();
+            PasswordGeneratorResponseRecord actualResponse = utilsController.generatePassword(12, true, true, true, true, null).getBody();
 
             // Assert
             assertNotNull(actualResponse, "Response should not be null");
             assertEquals(expectedResponse, actualResponse, "Generated password should match expected");
         }
 
+        @Test
+        @DisplayName("Should generate from the template when one is given")
+        void shouldSuccessfullyGeneratePasswordFromTemplate() {
+            // Arrange
+            PasswordGeneratorResponseRecord.GenerationProperties generationProperties = new PasswordGeneratorResponseRecord.GenerationProperties(
+                    10, true, true, true, true, "Cvccvc-99!");
+            PasswordGeneratorResponseRecord expectedResponse = new PasswordGeneratorResponseRecord("Bakhot-42$", generationProperties);
+            when(passwordGeneratorService.generatePassword("Cvccvc-99!")).thenReturn(expectedResponse);
+
+            // Act
+            PasswordGeneratorResponseRecord actualResponse = utilsController.generatePassword(12, true, true, true, true, "Cvccvc-99!").getBody();
+
+            // Assert
+            assertEquals(expectedResponse, actualResponse, "Generated password should match expected");
+        }
+
+        @Test
+        @DisplayName("Should successfully generate a passphrase")
+        void shouldSuccessfullyGeneratePassphrase() {
+            // Arrange
+            PassphraseGeneratorResponseRecord.GenerationProperties generationProperties = new PassphraseGeneratorResponseRecord.GenerationProperties(
+                    4, "-", true, 2, "default", 58.35);
+            PassphraseGeneratorResponseRecord expectedResponse = new PassphraseGeneratorResponseRecord(
+                    "Correct-Horse-Battery42-Staple", generationProperties);
+            when(passwordGeneratorService.generatePassphrase(4, "-", true, 2, "default")).thenReturn(expectedResponse);
+
+            // Act
+            PassphraseGeneratorResponseRecord actualResponse = utilsController.generatePassphrase(4, "-", true, 2, "default").getBody();
+
+            // Assert
+            assertNotNull(actualResponse, "Response should not be null");
+            assertEquals(expectedResponse, actualResponse, "Generated passphrase should match expected");
+        }
+
         @Test
         @DisplayName("Should throw IllegalArgumentException when password length is 0")
         void shouldThrowExceptionWhenLengthIs0() {
@@ -100,7 +200,7 @@ class UtilsControllerTest {
 
             // Act & Assert
             IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                    () -> utilsController.generatePassword(0, true, true, true, true),
+                    () -> utilsController.generatePassword(0, true, true, true, true, null),
                     "Should throw IllegalArgumentException when password length is 0");
             assertEquals(ERROR_MESSAGE_LENGTH_ZERO, exception.getMessage());
         }
@@ -113,10 +213,42 @@ class UtilsControllerTest {
 
             // Act & Assert
             IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                    () -> utilsController.generatePassword(12, false, false, false, false),
+                    () -> utilsController.generatePassword(12, false, false, false, false, null),
                     "Should throw IllegalArgumentException when no character sets are selected");
             assertEquals(ERROR_MESSAGE_NO_CHARSET, exception.getMessage());
         }
     }
 
-}
\ No newline at end of file
+    @Nested
+    @DisplayName("Breach Range Tests")
+    class BreachRangeTests {
+
+        @Test
+        @DisplayName("Should successfully return the suffixes for a prefix")
+        void shouldSuccessfullyReturnRange() {
+            // Arrange
+            byte[] expectedRange = "0018A45C4D1DEF81644B54AB7F969B88D65:3\r\n".getBytes(StandardCharsets.US_ASCII);
+            when(breachRangeService.findRange("21BD1")).thenReturn(expectedRange);
+
+            // Act
+            byte[] actualRange = utilsController.getBreachRange("21BD1").getBody();
+
+            // Assert
+            assertArrayEquals(expectedRange, actualRange, "Range should match expected");
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalArgumentException when prefix is invalid")
+        void shouldThrowExceptionWhenPrefixIsInvalid() {
+            // Arrange
+            when(breachRangeService.findRange("XYZ")).thenThrow(new IllegalArgumentException("Prefix must be 5 hexadecimal characters"));
+
+            // Act & Assert
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> utilsController.getBreachRange("XYZ"),
+                    "Should throw IllegalArgumentException when prefix is invalid");
+            assertEquals("Prefix must be 5 hexadecimal characters", exception.getMessage());
+        }
+    }
+
+}
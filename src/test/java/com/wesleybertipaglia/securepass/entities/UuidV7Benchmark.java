@@ -0,0 +1,123 @@
+package com.wesleybertipaglia.securepass.entities;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Compares inserting password rows keyed by random (version 4) and time
+ * ordered (version 7) UUIDs: rows per second and the size of the table and
+ * its indexes afterwards. The table mirrors {@code passwords}, with its
+ * primary key and {@code (owner_id, created_at, id)} index.
+ *
+ * Without a JDBC URL every strategy gets a fresh H2 file database and the
+ * size reported is the database file. With a PostgreSQL URL the tables are
+ * created in that database, measured with {@code pg_relation_size} and
+ * dropped again.
+ *
+ * Usage: {@code UuidV7Benchmark [rows] [jdbc-url user password]}
+ */
+public final class UuidV7Benchmark {
+
+    private static final int OWNERS = 1000;
+    private static final int BATCH_SIZE = 50;
+    private static final int COMMIT_INTERVAL = 1000;
+
+    private UuidV7Benchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String url = args.length > 1 ? args[1] : null;
+        String user = args.length > 2 ? args[2] : "sa";
+        String password = args.length > 3 ? args[3] : "";
+
+        UUID[] owners = new UUID[OWNERS];
+        for (int i = 0; i < OWNERS; i++) {
+            owners[i] = UUID.randomUUID();
+        }
+        System.out.printf("rows=%d database=%s%n", rows, url == null ? "h2 (file)" : url);
+        System.out.printf("%10s %12s %14s %14s %14s%n", "strategy", "rows/s", "pkey bytes", "owner bytes", "total bytes");
+        run("v4", UUID::randomUUID, rows, owners, url, user, password);
+        run("v7", UuidV7Generator::next, rows, owners, url, user, password);
+    }
+
+    private static void run(String strategy, Supplier<UUID> ids, int rows, UUID[] owners, String url, String user,
+            String password) throws Exception {
+        Path directory = url == null ? Files.createTempDirectory("uuid-benchmark") : null;
+        String jdbcUrl = url == null ? "jdbc:h2:file:" + directory.resolve(strategy) : url;
+        boolean postgres = jdbcUrl.startsWith("jdbc:postgresql:");
+        String table = "bench_passwords_" + strategy;
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("drop table if exists " + table);
+                statement.execute("create table " + table + " (id uuid primary key, owner_id uuid not null,"
+                        + " created_at timestamp not null, label varchar(255), password varchar(255))");
+                statement.execute("create index " + table + "_owner on " + table + " (owner_id, created_at, id)");
+            }
+            connection.setAutoCommit(false);
+
+            long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement("insert into " + table
+                    + " (id, owner_id, created_at, label, password) values (?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < rows; i++) {
+                    insert.setObject(1, ids.get());
+                    insert.setObject(2, owners[i % OWNERS]);
+                    insert.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                    insert.setString(4, "Label " + i);
+                    insert.setString(5, "P4ssw0rd!" + i);
+                    insert.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                    if ((i + 1) % COMMIT_INTERVAL == 0) {
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            double rate = rows * 1_000_000_000.0 / (System.nanoTime() - start);
+            connection.setAutoCommit(true);
+
+            if (postgres) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("vacuum analyze " + table);
+                    ResultSet sizes = statement.executeQuery("select pg_relation_size('" + table + "_pkey'),"
+                            + " pg_relation_size('" + table + "_owner'), pg_total_relation_size('" + table + "')");
+                    sizes.next();
+                    System.out.printf("%10s %12.0f %14d %14d %14d%n", strategy, rate, sizes.getLong(1),
+                            sizes.getLong(2), sizes.getLong(3));
+                    statement.execute("drop table " + table);
+                }
+            } else {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("checkpoint sync");
+                }
+                System.out.printf("%10s %12.0f %14s %14s %14d%n", strategy, rate, "-", "-", size(directory));
+            }
+        } finally {
+            if (directory != null) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                }
+            }
+        }
+    }
+
+    private static long size(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+}
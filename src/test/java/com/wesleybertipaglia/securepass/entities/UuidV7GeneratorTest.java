@@ -0,0 +1,75 @@
+package com.wesleybertipaglia.securepass.entities;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    @DisplayName("Should generate version 7 UUIDs carrying the current time")
+    void shouldGenerateVersion7() {
+        // arrange
+        long before = System.currentTimeMillis();
+
+        // act
+        UUID id = UuidV7Generator.next();
+
+        // assert
+        assertEquals(7, id.version(), "Version should be 7");
+        assertEquals(2, id.variant(), "Variant should be the RFC one");
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1000, "Timestamp should be the current time");
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing ids within the same millisecond")
+    void shouldGenerateIncreasingIds() {
+        // arrange
+        String previous = UuidV7Generator.next().toString();
+
+        // act & assert
+        for (int i = 0; i < 100_000; i++) {
+            String id = UuidV7Generator.next().toString();
+            assertTrue(id.compareTo(previous) > 0, "Ids should sort in generation order: " + previous + " then " + id);
+            previous = id;
+        }
+    }
+
+    @Test
+    @DisplayName("Should not repeat ids across threads")
+    void shouldGenerateUniqueIdsAcrossThreads() throws Exception {
+        // arrange
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<UUID>>> futures = new ArrayList<>();
+
+        // act
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                List<UUID> ids = new ArrayList<>();
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(UuidV7Generator.next());
+                }
+                return ids;
+            }));
+        }
+        Set<UUID> ids = new HashSet<>();
+        for (Future<List<UUID>> future : futures) {
+            ids.addAll(future.get());
+        }
+        executor.shutdown();
+
+        // assert
+        assertEquals(200_000, ids.size(), "Every id should be unique");
+    }
+}
@@ -1,11 +1,14 @@
 package com.wesleybertipaglia.securepass.services.auth;
 
 import com.wesleybertipaglia.securepass.entities.User;
+import com.wesleybertipaglia.securepass.entities.VaultCounter;
 import com.wesleybertipaglia.securepass.records.auth.SignInRequestRecord;
 import com.wesleybertipaglia.securepass.records.auth.SignInResponseRecord;
 import com.wesleybertipaglia.securepass.records.auth.SignUpRequestRecord;
 import com.wesleybertipaglia.securepass.records.auth.SignUpResponseRecord;
 import com.wesleybertipaglia.securepass.repositories.UserRepository;
+import com.wesleybertipaglia.securepass.repositories.VaultCounterRepository;
+import com.wesleybertipaglia.securepass.services.password.VaultCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -44,6 +47,15 @@ class AuthServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private VaultCounterRepository vaultCounterRepository;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private VaultCache vaultCache;
+
     @Mock
     private  Jwt jwt;
 
@@ -114,6 +126,7 @@ class AuthServiceTest {
         // assert
         assertEquals(USER_NAME, response.name(), "Name should match");
         assertEquals(USER_EMAIL, response.email(), "Email should match");
+        verify(vaultCounterRepository, times(1)).save(any(VaultCounter.class));
     }
 
     @Test
@@ -133,21 +146,24 @@ class AuthServiceTest {
     void shouldDeleteAccountSuccessfully() {
         // arrange
         User user = new User(USER_ID, USER_NAME, USER_EMAIL, ENCODED_PASSWORD);
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-        doNothing().when(userRepository).delete(user);
+        when(userCache.find(USER_ID)).thenReturn(Optional.of(user));
+        when(userRepository.deleteAccountById(USER_ID)).thenReturn(1);
 
         // act
         authService.deleteAccount(USER_ID.toString());
 
         // assert
-        verify(userRepository, times(1)).delete(user);
+        verify(userRepository, times(1)).deleteAccountById(USER_ID);
+        verify(userCache, times(1)).evict(USER_ID);
+        verify(vaultCache, times(1)).evictVault(USER_ID);
+        verify(vaultCounterRepository, times(1)).deleteByOwnerId(USER_ID);
     }
 
     @Test
     @DisplayName("Should throw exception when account not found")
     void shouldThrowExceptionWhenAccountNotFound() {
         // arrange
-        when(userRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(userCache.find(any(UUID.class))).thenReturn(Optional.empty());
 
         // act & assert
         assertThrows(BadCredentialsException.class, () -> authService.deleteAccount(UUID.randomUUID().toString()),
@@ -0,0 +1,133 @@
+package com.wesleybertipaglia.securepass.services.auth;
+
+import com.wesleybertipaglia.securepass.entities.User;
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord;
+import com.wesleybertipaglia.securepass.repositories.UserRepository;
+import com.wesleybertipaglia.securepass.services.cache.CacheInvalidationBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Field;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @InjectMocks
+    private UserCache userCache;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    @BeforeEach
+    void setup() {
+        inject("cacheSize", 2);
+    }
+
+    private void inject(String fieldName, Object value) {
+        try {
+            Field field = UserCache.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(userCache, value);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to inject " + fieldName, e);
+        }
+    }
+
+    private User givenUser() {
+        User user = new User(UUID.randomUUID(), "User Name", "user@email.com", "U$&rP4s$w0r#");
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    @Test
+    @DisplayName("Should load a user once and serve it from memory afterwards")
+    void shouldCacheUser() {
+        // arrange
+        User user = givenUser();
+
+        // act
+        Optional<User> first = userCache.find(user.getId());
+        Optional<User> second = userCache.find(user.getId());
+
+        // assert
+        assertSame(user, first.orElseThrow());
+        assertSame(user, second.orElseThrow());
+        verify(userRepository, times(1)).findById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Should not cache missing users")
+    void shouldNotCacheMissingUsers() {
+        // arrange
+        when(userRepository.findById(any())).thenReturn(Optional.empty());
+        UUID id = UUID.randomUUID();
+
+        // act
+        userCache.find(id);
+        Optional<User> user = userCache.find(id);
+
+        // assert
+        assertTrue(user.isEmpty());
+        verify(userRepository, times(2)).findById(id);
+        assertEquals(0, userCache.size());
+    }
+
+    @Test
+    @DisplayName("Should reload a user after eviction")
+    void shouldReloadAfterEviction() {
+        // arrange
+        User user = givenUser();
+        userCache.find(user.getId());
+
+        // act
+        userCache.evict(user.getId());
+        userCache.find(user.getId());
+
+        // assert
+        verify(userRepository, times(2)).findById(user.getId());
+        verify(invalidationBus).publish(CacheInvalidationRecord.user(user.getId()));
+    }
+
+    @Test
+    @DisplayName("Should drop a user deleted on another instance")
+    void shouldDropRemotelyDeletedUser() {
+        // arrange
+        User user = givenUser();
+        userCache.find(user.getId());
+
+        // act
+        userCache.invalidate(CacheInvalidationRecord.vault(user.getId()));
+        int afterVaultInvalidation = userCache.size();
+        userCache.invalidate(CacheInvalidationRecord.user(user.getId()));
+
+        // assert
+        assertEquals(1, afterVaultInvalidation, "Only user invalidations should drop users");
+        assertEquals(0, userCache.size());
+    }
+
+    @Test
+    @DisplayName("Should stay within the configured size")
+    void shouldStayBounded() {
+        // act
+        for (int i = 0; i < 5; i++) {
+            userCache.find(givenUser().getId());
+        }
+
+        // assert
+        assertEquals(2, userCache.size());
+    }
+}
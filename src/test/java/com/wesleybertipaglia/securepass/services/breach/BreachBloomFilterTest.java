@@ -0,0 +1,94 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreachBloomFilterTest {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @TempDir
+    Path directory;
+
+    private BreachBloomFilter buildFilter(List<String> lines) throws IOException {
+        Path corpus = directory.resolve("corpus.txt");
+        Files.write(corpus, lines, StandardCharsets.UTF_8);
+        return BreachBloomFilterBuilder.build(corpus, directory.resolve("breach.bloom"), FALSE_POSITIVE_RATE);
+    }
+
+    private static String hex(byte[] hash) {
+        StringBuilder builder = new StringBuilder();
+        for (byte value : hash) {
+            builder.append(BreachHashes.hexDigit(value >> 4)).append(BreachHashes.hexDigit(value));
+        }
+        return builder.toString();
+    }
+
+    @Test
+    @DisplayName("Should contain passwords from HIBP hash lines and plaintext lines.")
+    void shouldContainCorpusEntries() throws IOException {
+        // arrange
+        List<String> lines = List.of(
+                hex(BreachHashes.sha1("Password123!")) + ":52",
+                hex(BreachHashes.sha1("letmein")).toLowerCase(),
+                "qwerty",
+                "");
+
+        // act
+        BreachBloomFilter filter = buildFilter(lines);
+
+        // assert
+        assertEquals(3, filter.entryCount(), "Expected blank lines to be skipped");
+        assertTrue(filter.mightContain(BreachHashes.sha1("Password123!")), "Expected hash line to be contained");
+        assertTrue(filter.mightContain(BreachHashes.sha1("letmein")), "Expected lower case hash line to be contained");
+        assertTrue(filter.mightContain(BreachHashes.sha1("qwerty")), "Expected plaintext line to be contained");
+    }
+
+    @Test
+    @DisplayName("Should keep false positives close to the configured rate.")
+    void shouldRespectFalsePositiveRate() throws IOException {
+        // arrange
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            lines.add("breached-" + i);
+        }
+        BreachBloomFilter filter = buildFilter(lines);
+
+        // act
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(BreachHashes.sha1("unique-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        // assert
+        for (String line : lines) {
+            assertTrue(filter.mightContain(BreachHashes.sha1(line)), "Expected every corpus entry to be contained");
+        }
+        assertTrue(falsePositives < 10_000 * FALSE_POSITIVE_RATE * 2, "Expected false positives near the configured rate");
+    }
+
+    @Test
+    @DisplayName("Should reject files that are not Bloom filters.")
+    void shouldRejectInvalidFile() throws IOException {
+        // arrange
+        Path file = Files.writeString(directory.resolve("invalid.bloom"), "not a bloom filter at all, just text");
+
+        // act
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> BreachBloomFilter.open(file));
+
+        // assert
+        assertTrue(exception.getMessage().startsWith("Not a breach Bloom filter file"));
+    }
+}
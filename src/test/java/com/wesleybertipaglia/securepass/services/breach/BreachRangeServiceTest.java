@@ -0,0 +1,100 @@
+package com.wesleybertipaglia.securepass.services.breach;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreachRangeServiceTest {
+
+    private static final String FIRST_HASH = "21BD10018A45C4D1DEF81644B54AB7F969B88D65";
+    private static final String SECOND_HASH = "21BD1FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF";
+    private static final String OTHER_PREFIX_HASH = "5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8";
+
+    @TempDir
+    Path directory;
+
+    private BreachRangeService breachRangeService;
+
+    @BeforeEach
+    void setup() throws IOException {
+        Path corpus = directory.resolve("corpus.txt");
+        Files.write(corpus, List.of(FIRST_HASH + ":3", SECOND_HASH, OTHER_PREFIX_HASH + ":10434004"), StandardCharsets.UTF_8);
+        BreachRangeIndex rangeIndex = BreachRangeIndexBuilder.build(corpus, directory.resolve("breach.range"));
+
+        breachRangeService = new BreachRangeService();
+        try {
+            Field field = BreachRangeService.class.getDeclaredField("rangeIndex");
+            field.setAccessible(true);
+            field.set(breachRangeService, rangeIndex);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to inject range index", e);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return every suffix and count for a prefix.")
+    void shouldReturnSuffixesForPrefix() {
+        // act
+        String range = new String(breachRangeService.findRange("21bd1"), StandardCharsets.US_ASCII);
+
+        // assert
+        assertEquals(FIRST_HASH.substring(5) + ":3\r\n" + SECOND_HASH.substring(5) + ":1\r\n", range);
+    }
+
+    @Test
+    @DisplayName("Should return large counts and empty ranges.")
+    void shouldReturnLargeCountsAndEmptyRanges() {
+        // act
+        String range = new String(breachRangeService.findRange("5BAA6"), StandardCharsets.US_ASCII);
+        byte[] emptyRange = breachRangeService.findRange("00000");
+
+        // assert
+        assertEquals(OTHER_PREFIX_HASH.substring(5) + ":10434004\r\n", range);
+        assertEquals(0, emptyRange.length, "Expected no suffixes for an unused prefix");
+    }
+
+    @Test
+    @DisplayName("Should throw an exception when prefix is not 5 hexadecimal characters.")
+    void shouldThrowExceptionWhenPrefixIsInvalid() {
+        // act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> breachRangeService.findRange("21BDX"));
+
+        // assert
+        assertEquals("Prefix must be 5 hexadecimal characters", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should report ranges as unavailable when no index is configured.")
+    void shouldReportMissingIndexAsUnavailable() {
+        // arrange
+        BreachRangeService unconfigured = new BreachRangeService();
+
+        // act
+        BreachRangeUnavailableException exception = assertThrows(BreachRangeUnavailableException.class,
+                () -> unconfigured.findRange("21BD1"));
+
+        // assert
+        assertEquals("Breach range index is not configured", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject a corpus that is not sorted by hash.")
+    void shouldRejectUnsortedCorpus() throws IOException {
+        // arrange
+        Path corpus = Files.write(directory.resolve("unsorted.txt"), List.of(OTHER_PREFIX_HASH, FIRST_HASH), StandardCharsets.UTF_8);
+
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> BreachRangeIndexBuilder.build(corpus, directory.resolve("unsorted.range")),
+                "Should throw IllegalArgumentException when corpus is not sorted");
+    }
+}
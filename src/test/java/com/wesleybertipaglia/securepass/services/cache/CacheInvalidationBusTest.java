@@ -0,0 +1,135 @@
+package com.wesleybertipaglia.securepass.services.cache;
+
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+    private final UUID ownerId = UUID.randomUUID();
+
+    @InjectMocks
+    private CacheInvalidationBus invalidationBus;
+
+    @Mock
+    private CacheInvalidationTransport transport;
+
+    @Test
+    @DisplayName("Should coalesce invalidations to one per password, user and vault")
+    void shouldCoalesce() {
+        // arrange
+        UUID mail = UUID.randomUUID();
+        UUID bank = UUID.randomUUID();
+        UUID otherOwner = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        // act
+        List<CacheInvalidationRecord> coalesced = CacheInvalidationBus.coalesce(List.of(
+                CacheInvalidationRecord.password(ownerId, mail, 1L),
+                CacheInvalidationRecord.password(ownerId, mail, 3L),
+                CacheInvalidationRecord.password(ownerId, mail, 2L),
+                CacheInvalidationRecord.password(otherOwner, other, 0L),
+                CacheInvalidationRecord.password(otherOwner, other, null),
+                CacheInvalidationRecord.password(otherOwner, other, 1L),
+                CacheInvalidationRecord.password(ownerId, bank, 0L),
+                CacheInvalidationRecord.vault(ownerId),
+                CacheInvalidationRecord.password(ownerId, bank, 1L)));
+
+        // assert
+        assertEquals(List.of(
+                CacheInvalidationRecord.password(otherOwner, other, null),
+                CacheInvalidationRecord.vault(ownerId)), coalesced);
+    }
+
+    @Test
+    @DisplayName("Should send the invalidations of a transaction in one batch before it commits")
+    void shouldSendBeforeCommit() {
+        // arrange
+        UUID mail = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // act
+            invalidationBus.publish(CacheInvalidationRecord.password(ownerId, mail, 0L));
+            invalidationBus.publish(CacheInvalidationRecord.password(ownerId, mail, 1L));
+            invalidationBus.publish(CacheInvalidationRecord.user(ownerId));
+            verify(transport, never()).publish(any(), anyList());
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+
+            // assert
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+            verify(transport).publish(invalidationBus.node(), List.of(
+                    CacheInvalidationRecord.password(ownerId, mail, 1L),
+                    CacheInvalidationRecord.user(ownerId)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should send right away outside of a transaction")
+    void shouldSendWithoutTransaction() {
+        // act
+        invalidationBus.publish(CacheInvalidationRecord.vault(ownerId));
+
+        // assert
+        verify(transport).publish(invalidationBus.node(), List.of(CacheInvalidationRecord.vault(ownerId)));
+    }
+
+    @Test
+    @DisplayName("Should pass invalidations from other nodes to every subscriber")
+    @SuppressWarnings("unchecked")
+    void shouldDeliverToSubscribers() {
+        // arrange
+        List<CacheInvalidationRecord> first = new ArrayList<>();
+        List<CacheInvalidationRecord> second = new ArrayList<>();
+        invalidationBus.subscribe(first::add);
+        invalidationBus.subscribe(second::add);
+        invalidationBus.start();
+        ArgumentCaptor<Consumer<List<CacheInvalidationRecord>>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(transport).subscribe(eq(invalidationBus.node()), listener.capture());
+        List<CacheInvalidationRecord> received = List.of(CacheInvalidationRecord.user(ownerId),
+                CacheInvalidationRecord.vault(ownerId));
+
+        // act
+        listener.getValue().accept(received);
+
+        // assert
+        assertEquals(received, first);
+        assertEquals(received, second);
+    }
+
+    @Test
+    @DisplayName("Should do nothing without a transport")
+    void shouldDoNothingWithoutTransport() {
+        // arrange
+        CacheInvalidationBus standalone = new CacheInvalidationBus();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // act
+            standalone.publish(CacheInvalidationRecord.user(ownerId));
+
+            // assert
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
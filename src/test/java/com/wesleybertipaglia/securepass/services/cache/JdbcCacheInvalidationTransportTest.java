@@ -0,0 +1,161 @@
+package com.wesleybertipaglia.securepass.services.cache;
+
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class JdbcCacheInvalidationTransportTest {
+
+    private final UUID ownerId = UUID.randomUUID();
+
+    private final List<CacheInvalidationRecord> receivedByFirst = new ArrayList<>();
+    private final List<CacheInvalidationRecord> receivedBySecond = new ArrayList<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcCacheInvalidationTransport first;
+    private JdbcCacheInvalidationTransport second;
+
+    @BeforeEach
+    void setup() {
+        first = node("first", receivedByFirst);
+        second = node("second", receivedBySecond);
+        first.poll();
+        second.poll();
+    }
+
+    private JdbcCacheInvalidationTransport node(String node, List<CacheInvalidationRecord> received) {
+        JdbcCacheInvalidationTransport transport = new JdbcCacheInvalidationTransport();
+        inject(transport, "jdbcTemplate", jdbcTemplate);
+        inject(transport, "retention", Duration.ofMinutes(10));
+        transport.subscribe(node, received::addAll);
+        return transport;
+    }
+
+    private void inject(JdbcCacheInvalidationTransport transport, String fieldName, Object value) {
+        try {
+            Field field = JdbcCacheInvalidationTransport.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(transport, value);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to inject " + fieldName, e);
+        }
+    }
+
+    private long lastId() {
+        return jdbcTemplate.queryForObject("select coalesce(max(id), 0) from cache_invalidations", Long.class);
+    }
+
+    private void insertWithId(long id, CacheInvalidationRecord invalidation) {
+        jdbcTemplate.update("insert into cache_invalidations (id, node, entity_type, entity_id, owner_id, version,"
+                + " created_at) values (?, 'first', ?, ?, ?, ?, ?)", id, invalidation.type().name(),
+                invalidation.id(), invalidation.ownerId(), invalidation.version(), LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Should deliver invalidations to the other nodes only")
+    void shouldDeliverToOtherNodes() {
+        // arrange
+        List<CacheInvalidationRecord> invalidations = List.of(
+                CacheInvalidationRecord.password(ownerId, UUID.randomUUID(), 3L),
+                CacheInvalidationRecord.password(ownerId, UUID.randomUUID(), null),
+                CacheInvalidationRecord.user(ownerId),
+                CacheInvalidationRecord.vault(ownerId));
+
+        // act
+        first.publish("first", invalidations);
+        first.poll();
+        second.poll();
+        second.poll();
+
+        // assert
+        assertTrue(receivedByFirst.isEmpty(), "A node should not receive its own invalidations");
+        assertEquals(invalidations, receivedBySecond, "Each invalidation should be delivered once");
+    }
+
+    @Test
+    @DisplayName("Should wait for an id committed after higher ones")
+    void shouldWaitForGaps() {
+        // arrange
+        long lastId = lastId();
+        CacheInvalidationRecord late = CacheInvalidationRecord.password(ownerId, UUID.randomUUID(), 1L);
+        CacheInvalidationRecord early = CacheInvalidationRecord.password(ownerId, UUID.randomUUID(), 1L);
+
+        // act
+        insertWithId(lastId + 2, early);
+        second.poll();
+        List<CacheInvalidationRecord> beforeGapFilled = List.copyOf(receivedBySecond);
+        insertWithId(lastId + 1, late);
+        second.poll();
+        second.poll();
+
+        // assert
+        assertEquals(List.of(early), beforeGapFilled);
+        assertEquals(List.of(early, late), receivedBySecond);
+    }
+
+    @Test
+    @DisplayName("Should keep delivering past a gap of several ids followed by more than a poll of rows")
+    void shouldDeliverPastWideGaps() {
+        // arrange
+        long lastId = lastId();
+        List<CacheInvalidationRecord> late = List.of(
+                CacheInvalidationRecord.password(ownerId, UUID.randomUUID(), 1L),
+                CacheInvalidationRecord.password(ownerId, UUID.randomUUID(), 1L),
+                CacheInvalidationRecord.password(ownerId, UUID.randomUUID(), 1L));
+        List<CacheInvalidationRecord> early = new ArrayList<>();
+        for (int i = 0; i < JdbcCacheInvalidationTransport.POLL_LIMIT + 5; i++) {
+            CacheInvalidationRecord invalidation = CacheInvalidationRecord.password(ownerId, UUID.randomUUID(), 1L);
+            insertWithId(lastId + late.size() + 1 + i, invalidation);
+            early.add(invalidation);
+        }
+
+        // act
+        second.poll();
+        second.poll();
+        List<CacheInvalidationRecord> beforeGapFilled = List.copyOf(receivedBySecond);
+        for (int i = 0; i < late.size(); i++) {
+            insertWithId(lastId + 1 + i, late.get(i));
+        }
+        second.poll();
+        second.poll();
+
+        // assert
+        assertEquals(early, beforeGapFilled, "Rows past the gap should not wait for it");
+        assertEquals(late, receivedBySecond.subList(early.size(), receivedBySecond.size()));
+        assertEquals(early.size() + late.size(), receivedBySecond.size(), "Each invalidation should be delivered once");
+    }
+
+    @Test
+    @DisplayName("Should start after the invalidations published before it subscribed")
+    void shouldStartAtEndOfLog() {
+        // arrange
+        first.publish("first", List.of(CacheInvalidationRecord.user(ownerId)));
+        List<CacheInvalidationRecord> receivedByLate = new ArrayList<>();
+        JdbcCacheInvalidationTransport late = node("late", receivedByLate);
+
+        // act
+        late.poll();
+        late.poll();
+        first.publish("first", List.of(CacheInvalidationRecord.vault(ownerId)));
+        late.poll();
+
+        // assert
+        assertEquals(List.of(CacheInvalidationRecord.vault(ownerId)), receivedByLate);
+    }
+}
@@ -2,16 +2,34 @@ package com.wesleybertipaglia.securepass.services.checker;
 
 import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerRequestRecord;
 import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerResponseRecord;
+import com.wesleybertipaglia.securepass.services.breach.BreachBloomFilter;
+import com.wesleybertipaglia.securepass.services.breach.BreachBloomFilterBuilder;
 import com.wesleybertipaglia.securepass.services.validation.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,26 +39,69 @@ class PasswordCheckerServiceTest {
     @InjectMocks
     private PasswordCheckerService passwordCheckerService;
 
+    private static final List<ValidationStrategyInterface> STRATEGIES = List.of(
+            new LengthValidation(),
+            new LowercaseValidation(),
+            new UppercaseValidation(),
+            new NumberValidation(),
+            new SpecialCharacterValidation());
+
+    private static ExecutorService executor;
+
+    private static PasswordStrengthEstimator estimator;
+
+    @BeforeAll
+    static void startExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+        estimator = PasswordStrengthEstimatorTest.bundledEstimator();
+    }
+
+    @AfterAll
+    static void stopExecutor() {
+        executor.shutdown();
+    }
+
     @BeforeEach
     void setup() {
-        injectValidationStrategies();
+        inject("objectMapper", new ObjectMapper());
+        inject("batchExecutor", executor);
+        inject("passwordStrengthEstimator", estimator);
+        injectValidationStrategies(STRATEGIES);
     }
 
-    private void injectValidationStrategies() {
-        List<ValidationStrategyInterface> strategies = List.of(
-                new LengthValidation(),
-                new LowercaseValidation(),
-                new UppercaseValidation(),
-                new NumberValidation(),
-                new SpecialCharacterValidation());
+    private void injectValidationStrategies(List<ValidationStrategyInterface> strategies) {
+        inject("validationStrategies", strategies);
+        passwordCheckerService.compileEngine();
+    }
 
+    private void inject(String fieldName, Object value) {
         try {
-            Field field = PasswordCheckerService.class.getDeclaredField("validationStrategies");
+            Field field = PasswordCheckerService.class.getDeclaredField(fieldName);
             field.setAccessible(true);
-            field.set(passwordCheckerService, strategies);
+            field.set(passwordCheckerService, value);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to inject validation strategies", e);
+            throw new RuntimeException("Failed to inject " + fieldName, e);
+        }
+    }
+
+    private List<JsonNode> checkBatch(String body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        passwordCheckerService.checkPasswords(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+
+        List<JsonNode> lines = new ArrayList<>();
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
         }
+        return lines;
+    }
+
+    private PasswordCheckerResponseRecord checkSequentially(String password, List<ValidationStrategyInterface> strategies) {
+        List<String> suggestions = new ArrayList<>();
+        for (ValidationStrategyInterface strategy : strategies) {
+            strategy.validate(password, suggestions);
+        }
+        return new PasswordCheckerResponseRecord(PasswordCheckerEngine.determineStrength(suggestions.size(), password.length()), suggestions);
     }
 
     @Test
@@ -106,4 +167,186 @@ class PasswordCheckerServiceTest {
         // assert
         assertEquals(exception.getMessage(), "Password cannot be blank");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should match the per-strategy results for every compiled rule combination.")
+    void shouldMatchSequentialStrategies() {
+        // arrange
+        List<String> passwords = List.of("pass", "Password", "Password1!", "PASSWORD1", "12345678", "!!!!", "a",
+                "Aa1!", "with space", "under_score", "\u00e9t\u00e9Summer2024", "emoji\ud83d\ude00Pass1", "tab\tAnd1");
+
+        for (String password : passwords) {
+            // act
+            PasswordCheckerResponseRecord expected = checkSequentially(password, STRATEGIES);
+            PasswordCheckerResponseRecord actual = passwordCheckerService.checkPassword(new PasswordCheckerRequestRecord(password));
+
+            // assert
+            assertEquals(expected, actual.withEstimate(null), "Expected compiled checker to match sequential strategies for " + password);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep strategy order when a strategy cannot be compiled.")
+    void shouldKeepOrderWithUncompiledStrategy() {
+        // arrange
+        ValidationStrategyInterface repeatedCharacters = (password, suggestions) -> {
+            if (password.chars().distinct().count() < 3) {
+                suggestions.add("Password must not repeat the same characters");
+            }
+        };
+        List<ValidationStrategyInterface> strategies = List.of(
+                new LengthValidation(),
+                repeatedCharacters,
+                new LowercaseValidation(),
+                new NumberValidation());
+        injectValidationStrategies(strategies);
+
+        for (String password : List.of("aaaa", "aaaaaaaa1", "abcdefgh1", "AAAA")) {
+            // act
+            PasswordCheckerResponseRecord expected = checkSequentially(password, strategies);
+            PasswordCheckerResponseRecord actual = passwordCheckerService.checkPassword(new PasswordCheckerRequestRecord(password));
+
+            // assert
+            assertEquals(expected, actual.withEstimate(null), "Expected compiled checker to match sequential strategies for " + password);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a live session in sync with full checks across edits.")
+    void shouldMatchFullChecksAfterEdits() {
+        // arrange
+        PasswordCheckerEngine.Session session = passwordCheckerService.openSession(64, null);
+        Random random = new Random(42);
+        String alphabet = "aZ9!_ \u00e9";
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 2000; i++) {
+            // act
+            int start = expected.length() == 0 ? 0 : random.nextInt(expected.length() + 1);
+            int end = Math.min(expected.length(), start + random.nextInt(3));
+            String text = random.nextInt(3) == 0 ? "" : String.valueOf(alphabet.charAt(random.nextInt(alphabet.length())));
+            if (expected.length() - (end - start) + text.length() > 64) {
+                session.clear();
+                expected.setLength(0);
+                continue;
+            }
+            session.replace(start, end, text);
+            expected.replace(start, end, text);
+
+            // assert
+            assertEquals(expected.toString(), session.toString());
+            assertEquals(checkSequentially(expected.toString(), STRATEGIES), session.check(),
+                    "Expected session to match a full check for " + expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should run cheap rules first and skip every rule after a failed fatal rule.")
+    void shouldShortCircuitOnFatalRule() {
+        // arrange
+        List<String> calls = new ArrayList<>();
+        PasswordRuleValidationStrategyInterface expensive = new PasswordRuleValidationStrategyInterface() {
+            public boolean isSatisfiedBy(CharSequence password) {
+                calls.add("expensive");
+                return true;
+            }
+
+            public String suggestion() {
+                return "Expensive";
+            }
+
+            public int cost() {
+                return EXPENSIVE_COST;
+            }
+        };
+        List<ValidationStrategyInterface> strategies = new ArrayList<>(STRATEGIES);
+        strategies.add(0, expensive);
+        strategies.add(new MaxLengthValidation(16));
+        injectValidationStrategies(strategies);
+
+        // act
+        PasswordCheckerResponseRecord tooLong = passwordCheckerService.checkPassword(new PasswordCheckerRequestRecord("Password1!".repeat(2)));
+        PasswordCheckerResponseRecord fits = passwordCheckerService.checkPassword(new PasswordCheckerRequestRecord("Password1!"));
+
+        // assert
+        assertEquals(List.of("Password must be at most 16 characters long"), tooLong.suggestions());
+        assertEquals("Weak", tooLong.strength());
+        assertEquals("Strong", fits.strength());
+        assertEquals(List.of("expensive"), calls, "Expected the expensive rule to run only for the password that fits");
+    }
+
+    @Test
+    @DisplayName("Should attach a guess estimate to the rule-based result.")
+    void shouldAttachEstimate() {
+        // act
+        PasswordCheckerResponseRecord common = passwordCheckerService.checkPassword(new PasswordCheckerRequestRecord("Password1!"));
+        PasswordCheckerResponseRecord random = passwordCheckerService.checkPassword(new PasswordCheckerRequestRecord("x7#Kq9!vR2@m"));
+
+        // assert
+        assertEquals("Strong", common.strength(), "Expected the rules alone to rate the common password strong");
+        assertNotNull(common.estimate(), "Expected an estimate");
+        assertTrue(common.estimate().guessesLog10() < random.estimate().guessesLog10() - 4,
+                "Expected the common password to need far fewer guesses");
+    }
+
+    @Test
+    @DisplayName("Should flag passwords found in the breach corpus.")
+    void shouldFlagBreachedPassword(@TempDir Path directory) throws IOException {
+        // arrange
+        Path corpus = Files.writeString(directory.resolve("corpus.txt"), "Password1!\nletmein\n");
+        BreachBloomFilter bloomFilter = BreachBloomFilterBuilder.build(corpus, directory.resolve("breach.bloom"), 0.001);
+        List<ValidationStrategyInterface> strategies = new ArrayList<>(STRATEGIES);
+        strategies.add(new BreachedPasswordValidation(bloomFilter));
+        injectValidationStrategies(strategies);
+
+        // act
+        PasswordCheckerResponseRecord breached = passwordCheckerService.checkPassword(new PasswordCheckerRequestRecord("Password1!"));
+        PasswordCheckerResponseRecord unique = passwordCheckerService.checkPassword(new PasswordCheckerRequestRecord("Unl1kely-T0-Leak"));
+
+        // assert
+        assertEquals("Medium", breached.strength(), "Expected breached password to lose its strong rating");
+        assertEquals(List.of("Password has appeared in a data breach and should not be used"), breached.suggestions());
+        assertEquals("Strong", unique.strength(), "Expected unique password to stay strong");
+    }
+
+    @Test
+    @DisplayName("Should stream batch results in input order from a JSON array.")
+    void shouldCheckJsonArrayBatch() throws IOException {
+        // arrange
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 3000; i++) {
+            body.append(i == 0 ? "" : ",").append(i % 2 == 0 ? "\"pass\"" : "{\"password\":\"Password1!\"}");
+        }
+        body.append("]");
+
+        // act
+        List<JsonNode> lines = checkBatch(body.toString());
+
+        // assert
+        assertEquals(3001, lines.size(), "Expected one line per password plus the summary");
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(i, lines.get(i).get("index").asLong(), "Expected results in input order");
+            assertEquals(i % 2 == 0 ? "Weak" : "Strong", lines.get(i).get("strength").asText());
+        }
+        JsonNode summary = lines.get(3000).get("summary");
+        assertEquals(3000, summary.get("count").asLong(), "Expected summary to count every password");
+        assertEquals(0, summary.get("errors").asLong(), "Expected no errors");
+    }
+
+    @Test
+    @DisplayName("Should report errors per item in an NDJSON batch.")
+    void shouldCheckNdjsonBatchWithErrors() throws IOException {
+        // arrange
+        String body = "{\"password\":\"Password1!\"}\n{\"password\":\" \"}\n{\"label\":\"missing\"}\n";
+
+        // act
+        List<JsonNode> lines = checkBatch(body);
+
+        // assert
+        assertEquals(4, lines.size(), "Expected one line per password plus the summary");
+        assertEquals("Strong", lines.get(0).get("strength").asText());
+        assertEquals("Password cannot be blank", lines.get(1).get("error").asText());
+        assertEquals("Password must be a string or an object with a password field", lines.get(2).get("error").asText());
+        assertEquals(2, lines.get(3).get("summary").get("errors").asLong(), "Expected summary to count errors");
+    }
+}
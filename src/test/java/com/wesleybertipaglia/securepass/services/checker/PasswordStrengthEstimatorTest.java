@@ -0,0 +1,88 @@
+package com.wesleybertipaglia.securepass.services.checker;
+
+import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerResponseRecord.Estimate;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordStrengthEstimatorTest {
+
+    private static PasswordStrengthEstimator estimator;
+
+    static PasswordStrengthEstimator bundledEstimator() {
+        List<DictionaryTrie> dictionaries = new ArrayList<>();
+        for (String name : List.of("passwords.trie", "english.trie")) {
+            try (InputStream input = PasswordStrengthEstimatorTest.class.getResourceAsStream("/dictionaries/" + name)) {
+                dictionaries.add(DictionaryTrie.read(name, input));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to load " + name, e);
+            }
+        }
+        return new PasswordStrengthEstimator(dictionaries);
+    }
+
+    @BeforeAll
+    static void setup() {
+        estimator = bundledEstimator();
+    }
+
+    @Test
+    @DisplayName("Should load the bundled dictionary snapshots.")
+    void shouldLoadBundledDictionaries() throws IOException {
+        // act
+        DictionaryTrie passwords;
+        try (InputStream input = getClass().getResourceAsStream("/dictionaries/passwords.trie")) {
+            passwords = DictionaryTrie.read("passwords.trie", input);
+        }
+
+        // assert
+        assertTrue(passwords.wordCount() > 100, "Expected the bundled password list to be loaded");
+        assertEquals(1, passwords.rank("123456"), "Expected the most common password to rank first");
+        assertEquals(0, passwords.rank("x7#Kq9!vR2@m"), "Expected unknown words to have no rank");
+    }
+
+    @Test
+    @DisplayName("Should rate common passwords far below random ones of the same length.")
+    void shouldRateCommonPasswordsLow() {
+        // act
+        Estimate common = estimator.estimate("Qwerty2024!");
+        Estimate random = estimator.estimate("k9#Vt2!pQz4");
+
+        // assert
+        assertTrue(common.guessesLog10() < 8, "Expected a keyboard walk plus a year to be guessed quickly");
+        assertTrue(random.guessesLog10() >= 10, "Expected a random password to need bruteforce");
+        assertEquals(random.guessesLog10() * Math.log(10) / Math.log(2), random.entropyBits(), 0.05);
+    }
+
+    @Test
+    @DisplayName("Should recognize l33t substitutions, sequences, repeats and dates.")
+    void shouldRecognizePatterns() {
+        // act & assert
+        assertTrue(estimator.estimate("p@ssw0rd").patterns().contains("dictionary"), "Expected a l33t dictionary match");
+        assertTrue(estimator.estimate("abcdefgh").patterns().contains("sequence"), "Expected a sequence match");
+        assertTrue(estimator.estimate("xyzxyzxyz").patterns().contains("repeat"), "Expected a repeat match");
+        assertTrue(estimator.estimate("13/04/1987").patterns().contains("date"), "Expected a date match");
+        assertTrue(estimator.estimate("poiuytr").patterns().contains("keyboard"), "Expected a keyboard match");
+    }
+
+    @Test
+    @DisplayName("Should estimate long passwords without analyzing past the cap.")
+    void shouldCapAnalyzedLength() {
+        // arrange
+        String password = "a".repeat(10_000) + "Z";
+
+        // act
+        Estimate estimate = estimator.estimate(password);
+
+        // assert
+        assertTrue(estimate.guessesLog10() > 9_000, "Expected the unanalyzed tail to count as bruteforce");
+        assertEquals("bruteforce", estimate.patterns().get(estimate.patterns().size() - 1));
+    }
+}
@@ -0,0 +1,87 @@
+package com.wesleybertipaglia.securepass.services.generator;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares password generation throughput of one shared {@link SecureRandom}
+ * with {@link DrbgPool} for 1, 2, 4... threads up to twice the core count.
+ *
+ * Usage: {@code DrbgPoolBenchmark [seconds-per-run] [password-length]}
+ */
+public final class DrbgPoolBenchmark {
+
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()-_+=<>?"
+            .toCharArray();
+
+    private DrbgPoolBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 2;
+        int length = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+        SecureRandom shared = new SecureRandom();
+        DrbgPool pool = new DrbgPool();
+        System.out.printf("cores=%d length=%d shared=%s%n", Runtime.getRuntime().availableProcessors(), length,
+                shared.getAlgorithm());
+        System.out.printf("%8s %16s %16s %8s%n", "threads", "shared/s", "pool/s", "speedup");
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double sharedRate = run(threads, seconds, () -> {
+                char[] password = new char[length];
+                for (int i = 0; i < length; i++) {
+                    password[i] = ALPHABET[shared.nextInt(ALPHABET.length)];
+                }
+                return password;
+            });
+            double poolRate = run(threads, seconds, () -> {
+                char[] password = new char[length];
+                pool.fill(password, 0, length, ALPHABET);
+                return password;
+            });
+            System.out.printf("%8d %16.0f %16.0f %7.1fx%n", threads, sharedRate, poolRate, poolRate / sharedRate);
+        }
+    }
+
+    private static double run(int threads, long seconds, Generator generator) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        LongAdder generated = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                long count = 0;
+                int sink = 0;
+                while (System.nanoTime() < deadline) {
+                    sink += generator.generate()[0];
+                    count++;
+                }
+                generated.add(count + (sink == -1 ? 1 : 0));
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+        return generated.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+
+    @FunctionalInterface
+    private interface Generator {
+        char[] generate();
+    }
+}
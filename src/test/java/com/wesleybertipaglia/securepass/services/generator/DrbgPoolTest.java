@@ -0,0 +1,124 @@
+package com.wesleybertipaglia.securepass.services.generator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DrbgPoolTest {
+
+    private final DrbgPool pool = new DrbgPool(4, 64);
+
+    private static double chiSquare(int[] counts, int samples) {
+        double expected = (double) samples / counts.length;
+        double chiSquare = 0;
+        for (int count : counts) {
+            chiSquare += (count - expected) * (count - expected) / expected;
+        }
+        return chiSquare;
+    }
+
+    @Test
+    @DisplayName("Should draw every value below the bound with equal probability.")
+    void shouldDrawUniformValues() {
+        // arrange
+        int samples = 200_000;
+        int[] smallCounts = new int[62];
+        int[] largeCounts = new int[1000];
+
+        // act
+        for (int i = 0; i < samples; i++) {
+            smallCounts[pool.nextInt(smallCounts.length)]++;
+            largeCounts[pool.nextInt(largeCounts.length)]++;
+        }
+
+        // assert
+        assertTrue(chiSquare(smallCounts, samples) < 120, "Expected no bias for a bound below 256");
+        assertTrue(chiSquare(largeCounts, samples) < 1200, "Expected no bias for a bound above 256");
+    }
+
+    @Test
+    @DisplayName("Should fill from the alphabet and shuffle without losing characters.")
+    void shouldFillAndShuffle() {
+        // arrange
+        char[] alphabet = "abc".toCharArray();
+        char[] filled = new char[1000];
+        char[] shuffled = "0123456789".toCharArray();
+
+        // act
+        pool.fill(filled, 0, filled.length, alphabet);
+        pool.shuffle(shuffled, 2, shuffled.length);
+
+        // assert
+        assertTrue(new String(filled).chars().allMatch(c -> c >= 'a' && c <= 'c'), "Expected only alphabet characters");
+        assertEquals("01", new String(shuffled, 0, 2), "Expected characters outside the range to stay in place");
+        assertEquals("23456789", new String(shuffled, 2, 8).chars().sorted()
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString());
+    }
+
+    @Test
+    @DisplayName("Should fill passwords with every required alphabet and only union characters.")
+    void shouldFillPasswords() {
+        // arrange
+        char[][] required = { "ab".toCharArray(), "01".toCharArray() };
+        char[] union = "ab01".toCharArray();
+        char[] passwords = new char[2 + 500 * 4];
+        boolean[] requiredFirst = new boolean[2];
+
+        // act
+        pool.fillPasswords(passwords, 2, 500, 4, required, union);
+
+        // assert
+        assertEquals(0, passwords[0] + passwords[1], "Expected characters before the offset to stay in place");
+        for (int start = 2; start < passwords.length; start += 4) {
+            String password = new String(passwords, start, 4);
+            assertTrue(password.chars().allMatch(c -> "ab01".indexOf(c) >= 0), "Expected only union characters");
+            assertTrue(password.chars().anyMatch(c -> c == 'a' || c == 'b'), "Expected a letter in " + password);
+            assertTrue(password.chars().anyMatch(c -> c == '0' || c == '1'), "Expected a digit in " + password);
+            requiredFirst["ab".indexOf(password.charAt(0)) >= 0 ? 0 : 1] = true;
+        }
+        assertTrue(requiredFirst[0] && requiredFirst[1], "Expected the required characters to be shuffled");
+    }
+
+    @Test
+    @DisplayName("Should serve concurrent threads.")
+    void shouldServeConcurrentThreads() throws Exception {
+        // arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // act
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                int sum = 0;
+                for (int j = 0; j < 10_000; j++) {
+                    sum += pool.nextInt(10);
+                }
+                return sum;
+            }));
+        }
+
+        // assert
+        for (Future<Integer> result : results) {
+            int sum = result.get();
+            assertTrue(sum > 40_000 && sum < 50_000, "Expected a mean close to 4.5 on every thread");
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should reject an empty alphabet and a non positive bound.")
+    void shouldRejectInvalidArguments() {
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> pool.nextInt(0));
+        assertThrows(IllegalArgumentException.class, () -> pool.fill(new char[1], 0, 1, new char[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> pool.fillPasswords(new char[1], 0, 1, 1, new char[][] { {'a'}, {'b'} }, new char[] {'a'}));
+    }
+}
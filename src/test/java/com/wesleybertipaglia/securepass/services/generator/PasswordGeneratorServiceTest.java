@@ -1,12 +1,30 @@
 package com.wesleybertipaglia.securepass.services.generator;
 
+import com.wesleybertipaglia.securepass.records.batch.BatchSummaryRecord;
+import com.wesleybertipaglia.securepass.records.generator.PassphraseGeneratorResponseRecord;
 import com.wesleybertipaglia.securepass.records.generator.PasswordGeneratorResponseRecord;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -17,6 +35,43 @@ class PasswordGeneratorServiceTest {
 
     private static final int PASSWORD_LENGTH = 12;
 
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void startExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterAll
+    static void stopExecutor() {
+        executor.shutdown();
+    }
+
+    @BeforeEach
+    void setup() {
+        inject("batchExecutor", executor);
+        inject("maxBulkCount", 1_000_000L);
+        inject("templateCacheSize", 4);
+        inject("wordlistRegistry", new WordlistRegistry(Map.of(WordlistRegistry.DEFAULT_WORDLIST, WordlistTest.bundledWordlist())));
+    }
+
+    private void inject(String fieldName, Object value) {
+        try {
+            Field field = PasswordGeneratorService.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(passwordGeneratorService, value);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to inject " + fieldName, e);
+        }
+    }
+
+    private List<String> generateBulk(long count, String format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BatchSummaryRecord summary = passwordGeneratorService.generatePasswords(count, PASSWORD_LENGTH, true, true, true, true, format, output);
+        assertEquals(count, summary.count(), "Summary should count every password.");
+        return List.of(output.toString(StandardCharsets.US_ASCII).split("\n"));
+    }
+
     private String generatePassword(boolean includeUppercase, boolean includeLowercase, boolean includeNumbers, boolean includeSpecial) {
         PasswordGeneratorResponseRecord passwordResponseRecord = passwordGeneratorService.generatePassword(PASSWORD_LENGTH, includeUppercase, includeLowercase, includeNumbers, includeSpecial);
         return passwordResponseRecord.password();
@@ -130,4 +185,199 @@ class PasswordGeneratorServiceTest {
         assertEquals("At least one character set must be selected", exception.getMessage(),
                 "Expected exception message for no character set selected");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should include every selected character set in every password.")
+    void shouldIncludeEverySelectedCharacterSet() {
+        for (int i = 0; i < 10_000; i++) {
+            // act
+            String password = passwordGeneratorService.generatePassword(4, true, true, true, true).password();
+
+            // assert
+            assertTrue(password.chars().anyMatch(Character::isUpperCase), "Password should contain an upper case character.");
+            assertTrue(password.chars().anyMatch(Character::isLowerCase), "Password should contain a lower case character.");
+            assertTrue(password.chars().anyMatch(Character::isDigit), "Password should contain a number.");
+            assertTrue(password.chars().anyMatch(c -> "!@#$%^&*()-_+=<>?".indexOf(c) >= 0), "Password should contain a special character.");
+        }
+    }
+
+    @Test
+    @DisplayName("Should place the guaranteed characters at any position.")
+    void shouldShuffleGuaranteedCharacters() {
+        // arrange
+        int[] digitPositions = new int[2];
+
+        // act
+        for (int i = 0; i < 4_000; i++) {
+            String password = passwordGeneratorService.generatePassword(2, true, false, true, false).password();
+            digitPositions[Character.isDigit(password.charAt(0)) ? 0 : 1]++;
+        }
+
+        // assert
+        assertTrue(Math.abs(digitPositions[0] - digitPositions[1]) < 400, "Expected the digit first about half of the time.");
+    }
+
+    @Test
+    @DisplayName("Should throw an exception when length is shorter than the selected sets.")
+    void shouldThrowExceptionWhenLengthIsShorterThanSets() {
+        // act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.generatePassword(3, true, true, true, true));
+
+        // assert
+        assertEquals("Password length must be at least 4 to include every selected character set", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should stream distinct passwords as NDJSON across chunks.")
+    void shouldGenerateBulkNdjson() throws IOException {
+        // arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        Set<String> passwords = new HashSet<>();
+
+        // act
+        List<String> lines = generateBulk(50_000, "ndjson");
+
+        // assert
+        assertEquals(50_000, lines.size(), "Expected one line per password.");
+        for (String line : lines) {
+            String password = objectMapper.readTree(line).get("password").asText();
+            assertEquals(PASSWORD_LENGTH, password.length(), "Password length should match the requested length.");
+            assertTrue(password.chars().anyMatch(Character::isDigit), "Password should contain a number.");
+            passwords.add(password);
+        }
+        assertEquals(50_000, passwords.size(), "Expected no repeated passwords.");
+    }
+
+    @Test
+    @DisplayName("Should stream plain lines in text format.")
+    void shouldGenerateBulkText() throws IOException {
+        // act
+        List<String> lines = generateBulk(3, "text");
+
+        // assert
+        assertEquals(3, lines.size(), "Expected one line per password.");
+        assertTrue(lines.stream().allMatch(line -> line.length() == PASSWORD_LENGTH), "Expected bare passwords.");
+    }
+
+    @Test
+    @DisplayName("Should reject bulk counts and formats out of range.")
+    void shouldRejectInvalidBulkRequest() {
+        // act
+        IllegalArgumentException countException = assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.requireBulkRequest(1_000_001, PASSWORD_LENGTH, true, true, true, true, "ndjson"));
+        IllegalArgumentException formatException = assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.requireBulkRequest(10, PASSWORD_LENGTH, true, true, true, true, "csv"));
+
+        // assert
+        assertEquals("Count must be between 1 and 1000000", countException.getMessage());
+        assertEquals("Format must be ndjson or text", formatException.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should generate a passphrase of words from the wordlist.")
+    void shouldGeneratePassphrase() {
+        // arrange
+        Wordlist wordlist = WordlistTest.bundledWordlist();
+        Set<String> words = new HashSet<>();
+        for (int i = 0; i < wordlist.size(); i++) {
+            words.add(wordlist.word(i));
+        }
+
+        // act
+        PassphraseGeneratorResponseRecord passphrase = passwordGeneratorService.generatePassphrase(6, "-", false, 0, "default");
+
+        // assert
+        String[] parts = passphrase.passphrase().split("-");
+        assertEquals(6, parts.length, "Expected one part per word.");
+        assertTrue(words.containsAll(List.of(parts)), "Expected every part to be a listed word.");
+        assertEquals(77.55, passphrase.properties().entropyBits(), "Expected log2(7776) bits per word.");
+    }
+
+    @Test
+    @DisplayName("Should capitalize words and append digits to one of them.")
+    void shouldGenerateCapitalizedPassphraseWithDigits() {
+        // act
+        PassphraseGeneratorResponseRecord passphrase = passwordGeneratorService.generatePassphrase(4, " ", true, 3, "default");
+
+        // assert
+        String[] parts = passphrase.passphrase().split(" ");
+        assertEquals(4, parts.length, "Expected one part per word.");
+        assertTrue(List.of(parts).stream().allMatch(part -> Character.isUpperCase(part.charAt(0))), "Expected capitalized words.");
+        assertEquals(1, List.of(parts).stream().filter(part -> part.matches("[A-Za-z]+\\d{3}")).count(), "Expected the digits on one word.");
+        assertEquals(61.67, passphrase.properties().entropyBits(), "Expected the digits to add log2(10) bits each.");
+    }
+
+    @Test
+    @DisplayName("Should reject passphrase options out of range.")
+    void shouldRejectInvalidPassphraseRequest() {
+        // act
+        IllegalArgumentException wordsException = assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.generatePassphrase(0, "-", false, 0, "default"));
+        IllegalArgumentException wordlistException = assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.generatePassphrase(6, "-", false, 0, "klingon"));
+
+        // assert
+        assertEquals("Words must be between 1 and 64", wordsException.getMessage());
+        assertEquals("Unknown wordlist: klingon", wordlistException.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should generate passwords matching the template.")
+    void shouldGeneratePasswordFromTemplate() {
+        // act
+        PasswordGeneratorResponseRecord consonantVowel = passwordGeneratorService.generatePassword("Cvccvc-99!");
+        PasswordGeneratorResponseRecord grouped = passwordGeneratorService.generatePassword("AAAA-9999-aaaa");
+
+        // assert
+        assertTrue(consonantVowel.password().matches("[B-DF-HJ-NP-TV-Z][aeiou][b-df-hj-np-tv-z]{2}[aeiou][b-df-hj-np-tv-z]-\\d{2}[!@#$%^&*()\\-_+=<>?]"),
+                "Password should follow the template: " + consonantVowel.password());
+        assertTrue(grouped.password().matches("[A-Z]{4}-\\d{4}-[a-z]{4}"), "Password should follow the template: " + grouped.password());
+        assertEquals(new PasswordGeneratorResponseRecord.GenerationProperties(14, true, true, true, false, "AAAA-9999-aaaa"),
+                grouped.properties(), "Properties should describe the template.");
+    }
+
+    @Test
+    @DisplayName("Should copy escaped and unknown template characters literally.")
+    void shouldCopyTemplateLiterals() {
+        // act
+        String password = passwordGeneratorService.generatePassword("id\\9_\\\\*").password();
+
+        // assert
+        assertEquals(6, password.length(), "Expected escapes to take no position.");
+        assertEquals("id9_\\", password.substring(0, 5), "Expected literals to be copied as is.");
+    }
+
+    @Test
+    @DisplayName("Should keep the compiled template cache bounded.")
+    void shouldBoundTemplateCache() {
+        // act
+        for (int i = 0; i < 20; i++) {
+            passwordGeneratorService.generatePassword("aaaa-" + i);
+        }
+
+        // assert
+        assertEquals(4, passwordGeneratorService.cachedTemplateCount(), "Expected the cache to stay at its size.");
+    }
+
+    @Test
+    @DisplayName("Should reject empty templates, dangling escapes and templates without random characters.")
+    void shouldRejectInvalidTemplate() {
+        // act
+        IllegalArgumentException emptyException = assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.generatePassword(""));
+        IllegalArgumentException escapeException = assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.generatePassword("aaaa\\"));
+        IllegalArgumentException literalException = assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.generatePassword("hello"));
+        IllegalArgumentException escapedException = assertThrows(IllegalArgumentException.class,
+                () -> passwordGeneratorService.generatePassword("\\A\\a"));
+
+        // assert
+        assertEquals("Template cannot be empty", emptyException.getMessage());
+        assertEquals("Template cannot end with an escape", escapeException.getMessage());
+        assertEquals("Template must contain at least one random character", literalException.getMessage());
+        assertEquals("Template must contain at least one random character", escapedException.getMessage());
+        assertEquals(0, passwordGeneratorService.cachedTemplateCount(), "Expected invalid templates not to be cached.");
+    }
+}
@@ -0,0 +1,106 @@
+package com.wesleybertipaglia.securepass.services.generator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordlistTest {
+
+    @TempDir
+    Path directory;
+
+    static Wordlist bundledWordlist() {
+        try (InputStream input = WordlistTest.class.getResourceAsStream("/wordlists/default.wordlist")) {
+            return Wordlist.read(WordlistRegistry.DEFAULT_WORDLIST, input);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load the bundled wordlist", e);
+        }
+    }
+
+    private Path compile(String words) throws IOException {
+        Path source = directory.resolve("words.txt");
+        Path compiled = directory.resolve("words.wordlist");
+        Files.writeString(source, words, StandardCharsets.UTF_8);
+        try (OutputStream output = Files.newOutputStream(compiled)) {
+            WordlistBuilder.build(source, output);
+        }
+        return compiled;
+    }
+
+    @Test
+    @DisplayName("Should load the bundled diceware sized wordlist.")
+    void shouldLoadBundledWordlist() {
+        // act
+        Wordlist wordlist = bundledWordlist();
+        Set<String> words = new HashSet<>();
+        for (int i = 0; i < wordlist.size(); i++) {
+            words.add(wordlist.word(i));
+        }
+
+        // assert
+        assertEquals(7776, wordlist.size(), "Expected one word per roll of five dice");
+        assertEquals(wordlist.size(), words.size(), "Expected no repeated words");
+        assertTrue(words.stream().allMatch(word -> word.matches("[a-z]{4,9}")), "Expected short lowercase words");
+    }
+
+    @Test
+    @DisplayName("Should map a compiled list built from plain and diceware lines.")
+    void shouldMapCompiledWordlist() throws IOException {
+        // arrange
+        Path compiled = compile("11111\tabacus\n11112\tabdomen\n\nzebra\nabacus\ncafé\n");
+
+        // act
+        Wordlist wordlist = Wordlist.open("words", compiled);
+
+        // assert
+        assertEquals(4, wordlist.size(), "Expected blank and repeated lines to be skipped");
+        assertEquals("abacus", wordlist.word(0));
+        assertEquals("abdomen", wordlist.word(1));
+        assertEquals("zebra", wordlist.word(2));
+        assertEquals("café", wordlist.word(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> wordlist.word(4));
+    }
+
+    @Test
+    @DisplayName("Should reject files that are not compiled wordlists.")
+    void shouldRejectInvalidFile() {
+        // arrange
+        byte[] text = "abacus\nabdomen\nzebra\nwords\n".getBytes(StandardCharsets.UTF_8);
+
+        // act
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> Wordlist.read("words", new ByteArrayInputStream(text)));
+
+        // assert
+        assertEquals("Not a wordlist file: words", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should name configured wordlists after their file and reject unknown names.")
+    void shouldResolveWordlistsByName() throws IOException {
+        // arrange
+        Wordlist words = Wordlist.open("words", compile("alpha\nbravo\n"));
+        WordlistRegistry registry = new WordlistRegistry(Map.of(WordlistRegistry.DEFAULT_WORDLIST, bundledWordlist(), "words", words));
+
+        // act
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> registry.get("missing"));
+
+        // assert
+        assertSame(words, registry.get("words"));
+        assertEquals(WordlistRegistry.DEFAULT_WORDLIST, registry.get(null).name());
+        assertEquals("Unknown wordlist: missing", exception.getMessage());
+    }
+}
@@ -0,0 +1,68 @@
+package com.wesleybertipaglia.securepass.services.lock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class JobLockServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JobLockService instance() {
+        JobLockService jobLockService = new JobLockService();
+        try {
+            Field field = JobLockService.class.getDeclaredField("jdbcTemplate");
+            field.setAccessible(true);
+            field.set(jobLockService, jdbcTemplate);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to inject jdbcTemplate", e);
+        }
+        return jobLockService;
+    }
+
+    @Test
+    @DisplayName("Should let only the holder run the job until the lease runs out")
+    void shouldLetOnlyHolderRun() {
+        // arrange
+        JobLockService first = instance();
+        JobLockService second = instance();
+
+        // act
+        boolean firstLocked = first.tryLock("job", Duration.ofHours(1));
+        boolean secondLocked = second.tryLock("job", Duration.ofHours(1));
+        boolean firstRenewed = first.tryLock("job", Duration.ofHours(1));
+        boolean otherJobLocked = second.tryLock("other-job", Duration.ofHours(1));
+
+        // assert
+        assertTrue(firstLocked, "Expected the first instance to take the lease");
+        assertFalse(secondLocked, "Expected the second instance to skip the job");
+        assertTrue(firstRenewed, "Expected the holder to renew its lease");
+        assertTrue(otherJobLocked, "Expected leases to be per job");
+    }
+
+    @Test
+    @DisplayName("Should hand the job to another instance once the lease ran out")
+    void shouldTakeExpiredLease() {
+        // arrange
+        JobLockService first = instance();
+        JobLockService second = instance();
+        first.tryLock("job", Duration.ofMinutes(-1));
+
+        // act
+        boolean secondLocked = second.tryLock("job", Duration.ofHours(1));
+        boolean firstLocked = first.tryLock("job", Duration.ofHours(1));
+
+        // assert
+        assertTrue(secondLocked, "Expected the expired lease to be taken over");
+        assertFalse(firstLocked, "Expected the former holder to skip the job");
+    }
+}
@@ -0,0 +1,129 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord;
+import com.wesleybertipaglia.securepass.repositories.PasswordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordExportServiceTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final UUID ownerId = UUID.randomUUID();
+
+    private final LocalDateTime createdAt = LocalDateTime.of(2024, 9, 1, 12, 0);
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    @InjectMocks
+    private PasswordExportService passwordExportService;
+
+    @Mock
+    private PasswordRepository passwordRepository;
+
+    @BeforeEach
+    void setup() {
+        inject("objectMapper", OBJECT_MAPPER);
+    }
+
+    private void inject(String fieldName, Object value) {
+        try {
+            Field field = PasswordExportService.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(passwordExportService, value);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to inject " + fieldName, e);
+        }
+    }
+
+    private void givenPasswords(PasswordSummaryRecord... passwords) {
+        when(passwordRepository.streamSummariesByOwnerId(ownerId))
+                .thenReturn(Stream.of(passwords).onClose(() -> closed.set(true)));
+    }
+
+    private String export(String format, long expectedCount) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = passwordExportService.exportPasswords(format, output, ownerId.toString());
+        assertEquals(expectedCount, count, "Every password should be exported");
+        assertTrue(closed.get(), "The database cursor should be closed");
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should export one JSON object per line")
+    void shouldExportNdjson() throws IOException {
+        // arrange
+        UUID id = UUID.randomUUID();
+        givenPasswords(new PasswordSummaryRecord(id, "Mail", "M4il!Secret", createdAt, createdAt),
+                new PasswordSummaryRecord(UUID.randomUUID(), "Bank", "B4nk!Secret", createdAt, createdAt));
+
+        // act
+        String[] lines = export(PasswordExportService.FORMAT_NDJSON, 2).split("\n");
+
+        // assert
+        assertEquals(2, lines.length);
+        JsonNode first = OBJECT_MAPPER.readTree(lines[0]);
+        assertEquals(id.toString(), first.get("id").asText());
+        assertEquals("M4il!Secret", first.get("password").asText());
+        assertEquals("2024-09-01T12:00:00", first.get("createdAt").asText());
+        assertEquals("Bank", OBJECT_MAPPER.readTree(lines[1]).get("label").asText());
+    }
+
+    @Test
+    @DisplayName("Should export CSV that can be imported back")
+    void shouldExportCsv() throws IOException {
+        // arrange
+        UUID id = UUID.randomUUID();
+        givenPasswords(new PasswordSummaryRecord(id, "Mail, work", "M4il\"Secret", createdAt, createdAt));
+
+        // act
+        String csv = export(PasswordExportService.FORMAT_CSV, 1);
+
+        // assert
+        String[] lines = csv.split("\n");
+        assertEquals("id,label,password,createdAt,updatedAt", lines[0]);
+        assertEquals("\"" + id + "\",\"Mail, work\",\"M4il\"\"Secret\",2024-09-01T12:00:00,2024-09-01T12:00:00", lines[1]);
+    }
+
+    @Test
+    @DisplayName("Should export an empty vault")
+    void shouldExportEmptyVault() throws IOException {
+        // arrange
+        givenPasswords();
+
+        // act & assert
+        assertEquals("", export(PasswordExportService.FORMAT_NDJSON, 0));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown formats")
+    void shouldRejectUnknownFormat() {
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> passwordExportService.requireExport("xml"));
+        verifyNoInteractions(passwordRepository);
+    }
+}
@@ -0,0 +1,248 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import com.wesleybertipaglia.securepass.entities.Password;
+import com.wesleybertipaglia.securepass.entities.User;
+import com.wesleybertipaglia.securepass.records.batch.BatchSummaryRecord;
+import com.wesleybertipaglia.securepass.repositories.VaultCounterRepository;
+import com.wesleybertipaglia.securepass.services.auth.UserCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PasswordImportServiceTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final UUID ownerId = UUID.randomUUID();
+
+    private List<JsonNode> lines;
+
+    @InjectMocks
+    private PasswordImportService passwordImportService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private VaultCounterRepository vaultCounterRepository;
+
+    @Mock
+    private VaultCache vaultCache;
+
+    @BeforeEach
+    void setup() {
+        inject("entityManager", entityManager);
+        inject("objectMapper", OBJECT_MAPPER);
+        when(userCache.find(ownerId)).thenReturn(Optional.of(new User(ownerId, "User Name", "user@email.com", "U$&rP4s$w0r#")));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(entityManager.getReference(User.class, ownerId)).thenReturn(new User(ownerId, "User Name", "user@email.com", "U$&rP4s$w0r#"));
+    }
+
+    private void inject(String fieldName, Object value) {
+        try {
+            Field field = PasswordImportService.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(passwordImportService, value);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to inject " + fieldName, e);
+        }
+    }
+
+    private BatchSummaryRecord importBody(String body, String format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BatchSummaryRecord summary = passwordImportService.importPasswords(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, output, ownerId.toString());
+        lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(OBJECT_MAPPER.readTree(line));
+        }
+        return summary;
+    }
+
+    private List<Password> persisted() {
+        ArgumentCaptor<Password> captor = ArgumentCaptor.forClass(Password.class);
+        verify(entityManager, atLeast(0)).persist(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    @DisplayName("Should import a Bitwarden CSV export")
+    void shouldImportBitwardenCsv() throws IOException {
+        // arrange
+        String body = "folder,favorite,type,name,notes,fields,reprompt,login_uri,login_username,login_password,login_totp\n"
+                + ",,login,Mail,,,0,https://mail.example.com,me,M4il!Secret,\n"
+                + ",,note,Shopping list,eggs,,0,,,,\n"
+                + ",,login,,,,0,https://bank.example.com,me,\"B4nk,Secret\",\n";
+
+        // act
+        BatchSummaryRecord summary = importBody(body, PasswordImportService.FORMAT_CSV);
+
+        // assert
+        assertEquals(3, summary.count(), "Every row should be counted");
+        assertEquals(1, summary.errors(), "The note without a password should be reported");
+        assertEquals(1, lines.get(0).get("index").asLong(), "Error should point at the second row");
+        assertEquals("Password is missing", lines.get(0).get("error").asText());
+        List<Password> passwords = persisted();
+        assertEquals(2, passwords.size(), "Login rows should be persisted");
+        assertEquals("Mail", passwords.get(0).getLabel());
+        assertEquals("https://bank.example.com", passwords.get(1).getLabel(), "Label should fall back to the URI");
+        assertEquals("B4nk,Secret", passwords.get(1).getPassword(), "Quoted separators should be kept");
+        verify(vaultCounterRepository).addToPasswordCount(ownerId, 2);
+    }
+
+    @Test
+    @DisplayName("Should import 1Password and Chrome CSV headers")
+    void shouldImportOtherCsvHeaders() throws IOException {
+        // act
+        BatchSummaryRecord onePassword = importBody("Title,Url,Username,Password,Notes\nMail,https://mail.example.com,me,S3cret!,\n",
+                PasswordImportService.FORMAT_CSV);
+        BatchSummaryRecord chrome = importBody("name,url,username,password,note\nbank.example.com,https://bank.example.com,me,S3cret!,\n",
+                PasswordImportService.FORMAT_CSV);
+
+        // assert
+        assertEquals(0, onePassword.errors());
+        assertEquals(0, chrome.errors());
+        List<Password> passwords = persisted();
+        assertEquals("Mail", passwords.get(0).getLabel());
+        assertEquals("bank.example.com", passwords.get(1).getLabel());
+    }
+
+    @Test
+    @DisplayName("Should report every row when the CSV has no password column")
+    void shouldReportMissingPasswordColumn() throws IOException {
+        // act
+        BatchSummaryRecord summary = importBody("name,url\nMail,https://mail.example.com\n", PasswordImportService.FORMAT_CSV);
+
+        // assert
+        assertEquals(1, summary.errors());
+        assertEquals("CSV header has no password column", lines.get(0).get("error").asText());
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    @DisplayName("Should stream the items of a Bitwarden JSON export")
+    void shouldImportBitwardenJson() throws IOException {
+        // arrange
+        String body = "{\"encrypted\":false,\"folders\":[{\"id\":\"f\",\"name\":\"Work\"}],\"items\":["
+                + "{\"type\":1,\"name\":\"Mail\",\"login\":{\"username\":\"me\",\"password\":\"M4il!Secret\"}},"
+                + "\"not an item\","
+                + "{\"type\":2,\"name\":\"Note\",\"notes\":\"text\"}]}";
+
+        // act
+        BatchSummaryRecord summary = importBody(body, PasswordImportService.FORMAT_JSON);
+
+        // assert
+        assertEquals(3, summary.count());
+        assertEquals(2, summary.errors());
+        assertEquals("Item must be an object", lines.get(0).get("error").asText());
+        assertEquals("Password is missing", lines.get(1).get("error").asText());
+        assertEquals("M4il!Secret", persisted().get(0).getPassword());
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON and report malformed input with the rows read so far")
+    void shouldImportNdjsonUntilMalformedLine() throws IOException {
+        // arrange
+        String body = "{\"label\":\"One\",\"password\":\"S3cret!1\"}\n"
+                + "{\"label\":\"Two\",\"password\":\"S3cret!2\"}\n"
+                + "{\"label\":\"Three\",\n";
+
+        // act
+        BatchSummaryRecord summary = importBody(body, PasswordImportService.FORMAT_NDJSON);
+
+        // assert
+        assertEquals(1, summary.errors(), "The truncated line should be reported once");
+        assertTrue(lines.get(0).get("error").asText().startsWith("Malformed input"));
+        assertEquals(2, persisted().size(), "Rows before the malformed line should still be saved");
+        assertTrue(lines.get(lines.size() - 1).has("summary"), "Summary should be the last line");
+    }
+
+    @Test
+    @DisplayName("Should flush and clear the persistence context while writing chunks")
+    void shouldWriteChunks() throws IOException {
+        // arrange
+        StringBuilder body = new StringBuilder("name,password\n");
+        int rows = PasswordImportService.CHUNK_SIZE + 10;
+        for (int i = 0; i < rows; i++) {
+            body.append("Entry ").append(i).append(",S3cret!").append(i).append('\n');
+        }
+
+        // act
+        BatchSummaryRecord summary = importBody(body.toString(), PasswordImportService.FORMAT_CSV);
+
+        // assert
+        assertEquals(rows, summary.count());
+        assertEquals(0, summary.errors());
+        verify(transactionManager, times(2)).commit(any());
+        verify(vaultCounterRepository).addToPasswordCount(ownerId, PasswordImportService.CHUNK_SIZE);
+        verify(vaultCounterRepository).addToPasswordCount(ownerId, 10);
+        int flushes = PasswordImportService.CHUNK_SIZE / PasswordImportService.FLUSH_INTERVAL + 2;
+        verify(entityManager, times(flushes)).flush();
+        verify(entityManager, times(flushes)).clear();
+    }
+
+    @Test
+    @DisplayName("Should report the rows of a chunk that could not be saved")
+    void shouldReportFailedChunk() throws IOException {
+        // arrange
+        doThrow(new DataIntegrityViolationException("constraint")).when(entityManager).flush();
+
+        // act
+        BatchSummaryRecord summary = importBody("name,password\nMail,S3cret!\nBank,S3cret!\n", PasswordImportService.FORMAT_CSV);
+
+        // assert
+        assertEquals(2, summary.errors());
+        assertEquals("Could not be saved", lines.get(1).get("error").asText());
+        verify(transactionManager).rollback(any());
+        verify(vaultCounterRepository, never()).addToPasswordCount(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown formats and users")
+    void shouldRejectInvalidImport() {
+        // arrange
+        when(userCache.find(ownerId)).thenReturn(Optional.empty());
+
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> passwordImportService.requireImport("xml", ownerId.toString()));
+        assertThrows(EntityNotFoundException.class,
+                () -> passwordImportService.requireImport(PasswordImportService.FORMAT_CSV, ownerId.toString()));
+    }
+}
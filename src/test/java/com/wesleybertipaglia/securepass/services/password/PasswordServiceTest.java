@@ -2,10 +2,17 @@ package com.wesleybertipaglia.securepass.services.password;
 
 import com.wesleybertipaglia.securepass.entities.Password;
 import com.wesleybertipaglia.securepass.entities.User;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchOperationRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordBatchResultRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordCursorPageRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordMultiGetResponseRecord;
 import com.wesleybertipaglia.securepass.records.password.PasswordRequestRecord;
 import com.wesleybertipaglia.securepass.records.password.PasswordResponseRecord;
+import com.wesleybertipaglia.securepass.records.password.PasswordSummaryRecord;
 import com.wesleybertipaglia.securepass.repositories.PasswordRepository;
 import com.wesleybertipaglia.securepass.repositories.UserRepository;
+import com.wesleybertipaglia.securepass.repositories.VaultCounterRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,17 +22,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +60,15 @@ class PasswordServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private VaultCounterRepository vaultCounterRepository;
+
+    @Mock
+    private VaultCache vaultCache;
+
+    @Mock
+    private VaultLoader vaultLoader;
+
     private User user;
 
     private Password password;
@@ -54,6 +79,11 @@ class PasswordServiceTest {
         password = new Password(PASSWORD_ID, PASSWORD_LABEL, PASSWORD_VALUE, user);
     }
 
+    private static PasswordSummaryRecord summaryOf(Password password, boolean includeSecret) {
+        return new PasswordSummaryRecord(password.getId(), password.getLabel(), includeSecret ? password.getPassword() : null,
+                password.getCreatedAt(), password.getUpdatedAt());
+    }
+
     @Nested
     class createPassword {
         @Test
@@ -61,8 +91,8 @@ class PasswordServiceTest {
         void shouldCreatePasswordSuccessfully() {
             // arrange
             PasswordRequestRecord request = new PasswordRequestRecord(PASSWORD_LABEL, PASSWORD_VALUE);
-            when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-            when(passwordRepository.save(any(Password.class))).thenReturn(password);
+            when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+            when(passwordRepository.saveAndFlush(any(Password.class))).thenReturn(password);
 
             // act
             PasswordResponseRecord response = passwordService.createPassword(request, user.getId().toString());
@@ -71,7 +101,9 @@ class PasswordServiceTest {
             assertNotNull(response, "Created password should not be null");
             assertEquals(PASSWORD_ID, response.id(), "Password ID should match");
             assertEquals(PASSWORD_VALUE, response.password(), "Password value should match");
-            verify(passwordRepository, times(1)).save(any(Password.class));
+            verify(passwordRepository, times(1)).saveAndFlush(any(Password.class));
+            verify(userRepository, never()).findById(any());
+            verify(vaultCounterRepository, times(1)).addToPasswordCount(user.getId(), 1);
         }
 
         @Test
@@ -79,11 +111,30 @@ class PasswordServiceTest {
         void shouldThrowExceptionWhenUserNotFoundOnCreate() {
             // arrange
             PasswordRequestRecord request = new PasswordRequestRecord(PASSWORD_LABEL, PASSWORD_VALUE);
-            when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+            when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+            when(passwordRepository.saveAndFlush(any(Password.class))).thenThrow(new DataIntegrityViolationException("owner_id",
+                    new SQLException("Referential integrity constraint violation", "23506")));
 
             // act & assert
             assertThrows(EntityNotFoundException.class, () -> passwordService.createPassword(request, user.getId().toString()),
                     "Should throw EntityNotFoundException when user is not found");
+            verify(vaultCounterRepository, never()).addToPasswordCount(any(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should rethrow violations that are not about the owner on create")
+        void shouldRethrowOtherViolationsOnCreate() {
+            // arrange
+            PasswordRequestRecord request = new PasswordRequestRecord(PASSWORD_LABEL, PASSWORD_VALUE);
+            DataIntegrityViolationException violation = new DataIntegrityViolationException("label",
+                    new SQLException("Value too long for column", "22001"));
+            when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+            when(passwordRepository.saveAndFlush(any(Password.class))).thenThrow(violation);
+
+            // act & assert
+            assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                    () -> passwordService.createPassword(request, user.getId().toString())));
+            verify(vaultCounterRepository, never()).addToPasswordCount(any(), anyLong());
         }
     }
 
@@ -94,24 +145,156 @@ class PasswordServiceTest {
         void shouldListPasswordsSuccessfully() {
             // arrange
             Pageable pageable = PageRequest.of(0, 1);
-            Page<Password> passwordPage = new PageImpl<>(List.of(password), pageable, 1);
-            when(passwordRepository.findAllByOwnerId(user.getId(), pageable)).thenReturn(passwordPage);
+            when(passwordRepository.findSummariesByOwnerId(user.getId(), true, pageable)).thenReturn(List.of(summaryOf(password, true)));
+            when(vaultCounterRepository.findPasswordCountByOwnerId(user.getId())).thenReturn(Optional.of(5L));
 
             // act
-            Page<PasswordResponseRecord> passwords = passwordService.listPasswords(0, 1, user.getId().toString());
+            Page<PasswordSummaryRecord> passwords = passwordService.listPasswords(0, 1, true, user.getId().toString());
 
             // assert
             assertNotNull(passwords, "Password list should not be null");
-            assertEquals(1, passwords.getTotalElements(), "Password list size should match");
+            assertEquals(5, passwords.getTotalElements(), "Total should come from the vault counter");
             assertEquals(PASSWORD_VALUE, passwords.getContent().get(0).password(), "Password value should match");
-            verify(passwordRepository, times(1)).findAllByOwnerId(user.getId(), pageable);
+            verify(passwordRepository, times(1)).findSummariesByOwnerId(user.getId(), true, pageable);
+            verify(passwordRepository, never()).countByOwnerId(any());
+            verifyNoInteractions(userRepository);
+        }
+
+        @Test
+        @DisplayName("Should count passwords when the owner has no vault counter yet")
+        void shouldCountPasswordsWithoutVaultCounter() {
+            // arrange
+            Pageable pageable = PageRequest.of(0, 1);
+            when(passwordRepository.findSummariesByOwnerId(user.getId(), false, pageable)).thenReturn(List.of(summaryOf(password, false)));
+            when(vaultCounterRepository.findPasswordCountByOwnerId(user.getId())).thenReturn(Optional.empty());
+            when(passwordRepository.countByOwnerId(user.getId())).thenReturn(3L);
+
+            // act
+            Page<PasswordSummaryRecord> passwords = passwordService.listPasswords(0, 1, false, user.getId().toString());
+
+            // assert
+            assertEquals(3, passwords.getTotalElements(), "Total should fall back to counting");
+        }
+
+        @Test
+        @DisplayName("Should query the page and load the vault in the background when it is not cached")
+        void shouldQueryPageOnCacheMiss() {
+            // arrange
+            Pageable pageable = PageRequest.of(0, 1);
+            when(vaultCache.enabled()).thenReturn(true);
+            when(vaultCache.list(user.getId())).thenReturn(null);
+            when(passwordRepository.findSummariesByOwnerId(user.getId(), false, pageable)).thenReturn(List.of(summaryOf(password, false)));
+            when(vaultCounterRepository.findPasswordCountByOwnerId(user.getId())).thenReturn(Optional.of(2L));
+
+            // act
+            Page<PasswordSummaryRecord> passwords = passwordService.listPasswords(0, 1, false, user.getId().toString());
+
+            // assert
+            assertEquals(2, passwords.getTotalElements());
+            assertEquals(PASSWORD_ID, passwords.getContent().get(0).id());
+            verify(vaultLoader, times(1)).loadLater(user.getId());
+            verify(passwordRepository, never()).findAllByOwnerIdOrderByCreatedAtAscIdAsc(any(), any());
+            verify(vaultCache, never()).fill(any(), anyLong(), any(), anyBoolean());
+        }
+
+        @Test
+        @DisplayName("Should list a cached vault from memory")
+        void shouldListCachedVault() {
+            // arrange
+            LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+            List<VaultCache.CachedPassword> vault = List.of(
+                    new VaultCache.CachedPassword(UUID.randomUUID(), "Older", "0lder!", createdAt, createdAt, 0),
+                    new VaultCache.CachedPassword(PASSWORD_ID, PASSWORD_LABEL, PASSWORD_VALUE, createdAt.plusDays(1), createdAt, 0));
+            when(vaultCache.enabled()).thenReturn(true);
+            when(vaultCache.list(user.getId())).thenReturn(vault);
+
+            // act
+            Page<PasswordSummaryRecord> passwords = passwordService.listPasswords(1, 1, false, user.getId().toString());
+
+            // assert
+            assertEquals(2, passwords.getTotalElements(), "Total should be the cached vault size");
+            assertEquals(PASSWORD_ID, passwords.getContent().get(0).id(), "Second page should hold the newer password");
+            assertNull(passwords.getContent().get(0).password(), "Secret should be left out");
+            verifyNoInteractions(passwordRepository, vaultLoader);
         }
 
         @Test
         @DisplayName("Should throw exception when page size is 0")
         void shouldThrowExceptionWhenPageSizeIs0() {
             // act & assert
-            assertThrows(IllegalArgumentException.class, () -> passwordService.listPasswords(0, 0, user.getId().toString()),
+            assertThrows(IllegalArgumentException.class, () -> passwordService.listPasswords(0, 0, false, user.getId().toString()),
+                    "Should throw IllegalArgumentException when page size is 0");
+        }
+    }
+
+    @Nested
+    class listPasswordsByCursor {
+        private PasswordSummaryRecord passwordCreatedAt(LocalDateTime createdAt) {
+            return new PasswordSummaryRecord(UUID.randomUUID(), PASSWORD_LABEL, null, createdAt, createdAt);
+        }
+
+        @Test
+        @DisplayName("Should return a cursor to the next page when more passwords follow")
+        void shouldReturnNextCursorWhenMorePasswordsFollow() {
+            // arrange
+            LocalDateTime createdAt = LocalDateTime.of(2024, 9, 1, 12, 0);
+            PasswordSummaryRecord first = passwordCreatedAt(createdAt);
+            PasswordSummaryRecord second = passwordCreatedAt(createdAt.plusSeconds(1));
+            PasswordSummaryRecord third = passwordCreatedAt(createdAt.plusSeconds(2));
+            when(passwordRepository.findFirstSummariesByOwnerId(user.getId(), false, Limit.of(3))).thenReturn(List.of(first, second, third));
+            when(passwordRepository.findNextSummariesByOwnerId(user.getId(), second.createdAt(), second.id(), false, Limit.of(3)))
+                    .thenReturn(List.of(third));
+
+            // act
+            PasswordCursorPageRecord firstPage = passwordService.listPasswords("", 2, false, user.getId().toString());
+            PasswordCursorPageRecord lastPage = passwordService.listPasswords(firstPage.nextCursor(), 2, false, user.getId().toString());
+
+            // assert
+            assertEquals(List.of(first, second), firstPage.content(), "First page should hold the oldest passwords");
+            assertNotNull(firstPage.nextCursor(), "First page should point to the next one");
+            assertEquals(List.of(third), lastPage.content(), "Last page should continue after the cursor");
+            assertNull(lastPage.nextCursor(), "Last page should have no next cursor");
+            verify(passwordRepository, never()).findSummariesByOwnerId(any(), anyBoolean(), any());
+        }
+
+        @Test
+        @DisplayName("Should page through a cached vault with the same cursors")
+        void shouldPageThroughCachedVault() {
+            // arrange
+            LocalDateTime createdAt = LocalDateTime.of(2024, 9, 1, 12, 0);
+            List<VaultCache.CachedPassword> vault = List.of(
+                    new VaultCache.CachedPassword(UUID.randomUUID(), "First", "F1rst!", createdAt, createdAt, 0),
+                    new VaultCache.CachedPassword(UUID.randomUUID(), "Second", "S3cond!", createdAt.plusSeconds(1), createdAt, 0),
+                    new VaultCache.CachedPassword(UUID.randomUUID(), "Third", "Th1rd!", createdAt.plusSeconds(2), createdAt, 0));
+            when(vaultCache.enabled()).thenReturn(true);
+            when(vaultCache.list(user.getId())).thenReturn(vault);
+
+            // act
+            PasswordCursorPageRecord firstPage = passwordService.listPasswords("", 2, true, user.getId().toString());
+            PasswordCursorPageRecord lastPage = passwordService.listPasswords(firstPage.nextCursor(), 2, true, user.getId().toString());
+
+            // assert
+            assertEquals(List.of("First", "Second"), firstPage.content().stream().map(PasswordSummaryRecord::label).toList());
+            assertEquals(List.of("Third"), lastPage.content().stream().map(PasswordSummaryRecord::label).toList());
+            assertEquals("Th1rd!", lastPage.content().get(0).password(), "Secret should be included when asked for");
+            assertNull(lastPage.nextCursor(), "Last page should have no next cursor");
+            verifyNoInteractions(passwordRepository);
+        }
+
+        @Test
+        @DisplayName("Should throw exception when the cursor is invalid")
+        void shouldThrowExceptionWhenCursorIsInvalid() {
+            // act & assert
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> passwordService.listPasswords("bm90LWEtY3Vyc29y", 10, false, user.getId().toString()));
+            assertEquals("Invalid cursor", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when page size is 0")
+        void shouldThrowExceptionWhenPageSizeIs0() {
+            // act & assert
+            assertThrows(IllegalArgumentException.class, () -> passwordService.listPasswords("", 0, false, user.getId().toString()),
                     "Should throw IllegalArgumentException when page size is 0");
         }
     }
@@ -131,6 +314,22 @@ class PasswordServiceTest {
             assertNotNull(response, "Retrieved password should not be null");
             assertEquals(PASSWORD_VALUE, response.password(), "Password value should match");
             verify(passwordRepository, times(1)).findByIdAndOwnerId(PASSWORD_ID, user.getId());
+            verify(vaultCache, times(1)).fill(eq(user.getId()), eq(0L), eq(List.of(VaultCache.CachedPassword.of(password))), eq(false));
+        }
+
+        @Test
+        @DisplayName("Should answer from the vault cache without a query")
+        void shouldGetCachedPassword() {
+            // arrange
+            when(vaultCache.get(user.getId(), PASSWORD_ID)).thenReturn(VaultCache.CachedPassword.of(password));
+
+            // act
+            PasswordResponseRecord response = passwordService.getPassword(PASSWORD_ID, user.getId().toString());
+
+            // assert
+            assertEquals(PASSWORD_VALUE, response.password(), "Password value should match");
+            assertEquals(0L, response.version(), "Version should come from the cache");
+            verifyNoInteractions(passwordRepository);
         }
 
         @Test
@@ -145,25 +344,80 @@ class PasswordServiceTest {
         }
     }
 
+    @Nested
+    class getPasswords {
+        @Test
+        @DisplayName("Should return found passwords in request order and report missing ids")
+        void shouldReturnFoundAndMissingPasswords() {
+            // arrange
+            Password other = new Password(UUID.randomUUID(), "Other", "0th3r", user);
+            UUID missingId = UUID.randomUUID();
+            List<UUID> ids = List.of(other.getId(), missingId, PASSWORD_ID, other.getId());
+            when(passwordRepository.findAllByOwnerIdAndIdIn(eq(user.getId()), any())).thenReturn(List.of(password, other));
+
+            // act
+            PasswordMultiGetResponseRecord response = passwordService.getPasswords(ids, user.getId().toString());
+
+            // assert
+            assertEquals(List.of(other.getId(), PASSWORD_ID), response.found().stream().map(PasswordResponseRecord::id).toList(),
+                    "Found passwords should follow the request order once each");
+            assertEquals(List.of(missingId), response.missing(), "Missing ids should be reported");
+            verify(passwordRepository, times(1)).findAllByOwnerIdAndIdIn(eq(user.getId()), any());
+            verify(passwordRepository, never()).findByIdAndOwnerId(any(), any());
+        }
+    }
+
     @Nested
     class updatePassword {
         @Test
-        @DisplayName("Should update password successfully")
+        @DisplayName("Should update password with a single conditional statement")
         void shouldUpdatePasswordSuccessfully() {
             // arrange
-            Password updatedPassword = new Password(PASSWORD_ID, PASSWORD_LABEL, PASSWORD_VALUE, user);
             PasswordRequestRecord passwordRequestRecord = new PasswordRequestRecord(PASSWORD_LABEL, PASSWORD_VALUE);
-            when(passwordRepository.findById(PASSWORD_ID)).thenReturn(Optional.of(password));
-            when(passwordRepository.save(any(Password.class))).thenReturn(updatedPassword);
+            when(passwordRepository.updateByIdAndOwnerId(eq(PASSWORD_ID), eq(user.getId()), eq(PASSWORD_LABEL), eq(PASSWORD_VALUE), any(), eq(3L)))
+                    .thenReturn(1);
 
             // act
-            PasswordResponseRecord response = passwordService.updatePassword(PASSWORD_ID, passwordRequestRecord, user.getId().toString());
+            PasswordResponseRecord response = passwordService.updatePassword(PASSWORD_ID, passwordRequestRecord, 3L, user.getId().toString());
 
             // assert
             assertNotNull(response, "Updated password should not be null");
-            assertEquals(updatedPassword.getPassword(), response.password(), "Updated password value should match");
-            verify(passwordRepository, times(1)).findById(PASSWORD_ID);
-            verify(passwordRepository, times(1)).save(any(Password.class));
+            assertEquals(PASSWORD_VALUE, response.password(), "Updated password value should match");
+            assertEquals(4L, response.version(), "Version should be bumped");
+            verify(passwordRepository, never()).findById(any());
+            verify(passwordRepository, never()).findByIdAndOwnerId(any(), any());
+            verify(passwordRepository, never()).save(any(Password.class));
+        }
+
+        @Test
+        @DisplayName("Should read the password back after an unconditional update")
+        void shouldReadBackAfterUnconditionalUpdate() {
+            // arrange
+            PasswordRequestRecord passwordRequestRecord = new PasswordRequestRecord(PASSWORD_LABEL, PASSWORD_VALUE);
+            password.setVersion(7);
+            when(passwordRepository.updateByIdAndOwnerId(eq(PASSWORD_ID), eq(user.getId()), eq(PASSWORD_LABEL), eq(PASSWORD_VALUE), any(), isNull()))
+                    .thenReturn(1);
+            when(passwordRepository.findByIdAndOwnerId(PASSWORD_ID, user.getId())).thenReturn(Optional.of(password));
+
+            // act
+            PasswordResponseRecord response = passwordService.updatePassword(PASSWORD_ID, passwordRequestRecord, user.getId().toString());
+
+            // assert
+            assertEquals(7L, response.version(), "Version should be the stored one");
+        }
+
+        @Test
+        @DisplayName("Should throw optimistic locking failure when the version changed")
+        void shouldThrowOptimisticLockingFailureWhenVersionChanged() {
+            // arrange
+            PasswordRequestRecord passwordRequestRecord = new PasswordRequestRecord(PASSWORD_LABEL, PASSWORD_VALUE);
+            when(passwordRepository.updateByIdAndOwnerId(eq(PASSWORD_ID), eq(user.getId()), any(), any(), any(), eq(3L))).thenReturn(0);
+            when(passwordRepository.existsByIdAndOwnerId(PASSWORD_ID, user.getId())).thenReturn(true);
+
+            // act & assert
+            assertThrows(OptimisticLockingFailureException.class,
+                    () -> passwordService.updatePassword(PASSWORD_ID, passwordRequestRecord, 3L, user.getId().toString()),
+                    "Should throw OptimisticLockingFailureException when the password changed");
         }
 
         @Test
@@ -171,10 +425,11 @@ class PasswordServiceTest {
         void shouldThrowExceptionWhenUpdatingPasswordThatDoesNotExist() {
             // arrange
             PasswordRequestRecord passwordRequestRecord = new PasswordRequestRecord(PASSWORD_LABEL, PASSWORD_VALUE);
-            when(passwordRepository.findById(PASSWORD_ID)).thenReturn(Optional.empty());
+            when(passwordRepository.updateByIdAndOwnerId(eq(PASSWORD_ID), eq(user.getId()), any(), any(), any(), eq(3L))).thenReturn(0);
+            when(passwordRepository.existsByIdAndOwnerId(PASSWORD_ID, user.getId())).thenReturn(false);
 
             // act & assert
-            assertThrows(EntityNotFoundException.class, () -> passwordService.updatePassword(PASSWORD_ID, passwordRequestRecord, user.getId().toString()),
+            assertThrows(EntityNotFoundException.class, () -> passwordService.updatePassword(PASSWORD_ID, passwordRequestRecord, 3L, user.getId().toString()),
                     "Should throw EntityNotFoundException when password is not found");
         }
     }
@@ -193,6 +448,7 @@ class PasswordServiceTest {
 
             // assert
             verify(passwordRepository, times(1)).delete(password);
+            verify(vaultCounterRepository, times(1)).addToPasswordCount(user.getId(), -1);
         }
 
         @Test
@@ -207,4 +463,72 @@ class PasswordServiceTest {
         }
     }
 
-}
\ No newline at end of file
+    @Nested
+    class applyBatch {
+        @Test
+        @DisplayName("Should apply mixed operations with one lookup and one flush")
+        void shouldApplyBatchSuccessfully() {
+            // arrange
+            Password deleted = new Password(UUID.randomUUID(), "Old", "0ld", user);
+            List<PasswordBatchOperationRecord> operations = List.of(
+                    new PasswordBatchOperationRecord("create", null, "New", "N3w", null),
+                    new PasswordBatchOperationRecord("update", PASSWORD_ID, "Renamed", null, 0L),
+                    new PasswordBatchOperationRecord("delete", deleted.getId(), null, null, null));
+            when(passwordRepository.findAllByOwnerIdAndIdIn(eq(user.getId()), any())).thenReturn(List.of(password, deleted));
+            when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+            when(passwordRepository.save(any(Password.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // act
+            PasswordBatchResponseRecord response = passwordService.applyBatch(operations, user.getId().toString());
+
+            // assert
+            assertTrue(response.committed(), "Batch should be committed");
+            assertEquals(List.of(201, 200, 204), response.results().stream().map(PasswordBatchResultRecord::status).toList(),
+                    "Each operation should report its status");
+            assertEquals("Renamed", password.getLabel(), "Update should change the loaded password");
+            assertEquals(PASSWORD_VALUE, password.getPassword(), "Update should keep fields it does not set");
+            verify(passwordRepository, times(1)).findAllByOwnerIdAndIdIn(eq(user.getId()), any());
+            verify(passwordRepository, times(1)).delete(deleted);
+            verify(passwordRepository, times(1)).flush();
+            verify(vaultCounterRepository, never()).addToPasswordCount(any(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should roll back the whole batch when an operation fails")
+        void shouldRollBackBatchWhenOperationFails() {
+            // arrange
+            UUID missingId = UUID.randomUUID();
+            List<PasswordBatchOperationRecord> operations = List.of(
+                    new PasswordBatchOperationRecord("update", PASSWORD_ID, "Renamed", null, 2L),
+                    new PasswordBatchOperationRecord("delete", missingId, null, null, null));
+            when(passwordRepository.findAllByOwnerIdAndIdIn(eq(user.getId()), any())).thenReturn(List.of(password));
+
+            // act
+            PasswordBatchException exception = assertThrows(PasswordBatchException.class,
+                    () -> passwordService.applyBatch(operations, user.getId().toString()));
+
+            // assert
+            assertFalse(exception.getResponse().committed(), "Batch should not be committed");
+            assertEquals(List.of(412, 404), exception.getResponse().results().stream().map(PasswordBatchResultRecord::status).toList(),
+                    "Failed operations should report why");
+            verify(passwordRepository, never()).flush();
+            verify(vaultCounterRepository, never()).addToPasswordCount(any(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should reject operations without the fields they need")
+        void shouldRejectInvalidOperations() {
+            // arrange
+            List<PasswordBatchOperationRecord> operations = List.of(
+                    new PasswordBatchOperationRecord("create", null, "New", "N3w", null),
+                    new PasswordBatchOperationRecord("update", null, "Renamed", null, null));
+
+            // act & assert
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> passwordService.applyBatch(operations, user.getId().toString()));
+            assertEquals("Operation 1: id is required to update", exception.getMessage());
+            verifyNoInteractions(passwordRepository);
+        }
+    }
+
+}
@@ -0,0 +1,306 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import com.wesleybertipaglia.securepass.records.cache.CacheInvalidationRecord;
+import com.wesleybertipaglia.securepass.services.cache.CacheInvalidationBus;
+import com.wesleybertipaglia.securepass.services.password.VaultCache.CachedPassword;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VaultCacheTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 9, 1, 12, 0);
+
+    private final UUID ownerId = UUID.randomUUID();
+
+    private VaultCache vaultCache;
+
+    @BeforeEach
+    void setup() {
+        vaultCache = new VaultCache();
+        inject("enabled", true);
+        inject("maxSize", DataSize.ofMegabytes(1));
+        inject("loadLimit", 1000);
+        inject("invalidationBus", new CacheInvalidationBus());
+    }
+
+    private void inject(String fieldName, Object value) {
+        try {
+            Field field = VaultCache.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(vaultCache, value);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to inject " + fieldName, e);
+        }
+    }
+
+    private static CachedPassword password(String label, int secondsAfter, long version) {
+        return new CachedPassword(UUID.randomUUID(), label, "S3cret!", CREATED_AT.plusSeconds(secondsAfter),
+                CREATED_AT, version);
+    }
+
+    private static CachedPassword withVersion(CachedPassword password, String label, long version) {
+        return new CachedPassword(password.id(), label, password.password(), password.createdAt(), password.updatedAt(),
+                version);
+    }
+
+    @Test
+    @DisplayName("Should serve filled entries and count hits and misses")
+    void shouldServeFilledEntries() {
+        // arrange
+        CachedPassword mail = password("Mail", 0, 0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        vaultCache.bindTo(registry);
+
+        // act
+        CachedPassword miss = vaultCache.get(ownerId, mail.id());
+        vaultCache.fill(ownerId, vaultCache.stamp(ownerId), List.of(mail), false);
+        CachedPassword hit = vaultCache.get(ownerId, mail.id());
+
+        // assert
+        assertNull(miss);
+        assertEquals(mail, hit);
+        assertNull(vaultCache.list(ownerId), "A partial vault should not be listed");
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should list a complete vault in creation order")
+    void shouldListCompleteVault() {
+        // arrange
+        CachedPassword newer = password("Newer", 10, 0);
+        CachedPassword older = password("Older", 0, 0);
+        vaultCache.fill(ownerId, vaultCache.stamp(ownerId), List.of(newer, older), true);
+
+        // act
+        CachedPassword created = password("Created", 20, 0);
+        vaultCache.put(ownerId, created);
+        vaultCache.remove(ownerId, older.id());
+
+        // assert
+        assertEquals(List.of(newer, created), vaultCache.list(ownerId), "Writes should go through to the listing");
+    }
+
+    @Test
+    @DisplayName("Should not fill data read before a concurrent write")
+    void shouldRejectStaleFill() {
+        // arrange
+        CachedPassword mail = password("Mail", 0, 0);
+        long stamp = vaultCache.stamp(ownerId);
+
+        // act
+        vaultCache.remove(ownerId, mail.id());
+        vaultCache.fill(ownerId, stamp, List.of(mail), true);
+
+        // assert
+        assertNull(vaultCache.get(ownerId, mail.id()), "A deleted password should not come back");
+        assertNull(vaultCache.list(ownerId), "A stale load should not mark the vault complete");
+    }
+
+    @Test
+    @DisplayName("Should not fill data read before an invalidation while nothing was cached")
+    void shouldRejectFillAfterUncachedInvalidation() {
+        // arrange
+        CachedPassword mail = password("Mail", 0, 0);
+        long remoteStamp = vaultCache.stamp(ownerId);
+        long localStamp;
+
+        // act
+        vaultCache.invalidate(CacheInvalidationRecord.password(ownerId, mail.id(), 1L));
+        vaultCache.fill(ownerId, remoteStamp, List.of(mail), true);
+        localStamp = vaultCache.stamp(ownerId);
+        vaultCache.evictVault(ownerId);
+        vaultCache.fill(ownerId, localStamp, List.of(mail), true);
+
+        // assert
+        assertNull(vaultCache.get(ownerId, mail.id()), "A read racing an invalidation should not be cached");
+        assertNull(vaultCache.list(ownerId), "A stale load should not mark the vault complete");
+        assertEquals(0, vaultCache.bytes(), "Nothing should have been cached");
+    }
+
+    @Test
+    @DisplayName("Should keep the newest version when writes land out of order")
+    void shouldKeepNewestVersion() {
+        // arrange
+        CachedPassword mail = password("Mail", 0, 3);
+
+        // act
+        vaultCache.put(ownerId, withVersion(mail, "Mail v4", 4));
+        vaultCache.put(ownerId, mail);
+
+        // assert
+        assertEquals("Mail v4", vaultCache.get(ownerId, mail.id()).label());
+    }
+
+    @Test
+    @DisplayName("Should patch an entry at the expected version and drop it otherwise")
+    void shouldApplyUpdates() {
+        // arrange
+        CachedPassword mail = password("Mail", 0, 1);
+        CachedPassword bank = password("Bank", 1, 1);
+        vaultCache.fill(ownerId, vaultCache.stamp(ownerId), List.of(mail, bank), true);
+        LocalDateTime updatedAt = CREATED_AT.plusDays(1);
+
+        // act
+        vaultCache.update(ownerId, mail.id(), "Mail (work)", null, updatedAt, 2);
+        vaultCache.update(ownerId, bank.id(), "Bank (old)", null, updatedAt, 5);
+
+        // assert
+        CachedPassword updated = vaultCache.get(ownerId, mail.id());
+        assertEquals("Mail (work)", updated.label());
+        assertEquals("S3cret!", updated.password(), "Unset fields should be kept");
+        assertEquals(updatedAt, updated.updatedAt());
+        assertEquals(2, updated.version());
+        assertNull(vaultCache.get(ownerId, bank.id()), "An entry at another version should be dropped");
+        assertNull(vaultCache.list(ownerId), "Dropping an entry should make the vault partial");
+    }
+
+    @Test
+    @DisplayName("Should apply writes only after the transaction commits")
+    void shouldWriteAfterCommit() {
+        // arrange
+        CachedPassword mail = password("Mail", 0, 0);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // act
+            vaultCache.put(ownerId, mail);
+            CachedPassword beforeCommit = vaultCache.get(ownerId, mail.id());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // assert
+            assertNull(beforeCommit, "Uncommitted writes should not be visible");
+            assertEquals(mail, vaultCache.get(ownerId, mail.id()));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used vaults to stay within the byte budget")
+    void shouldEvictByBytes() {
+        // arrange
+        long budget = 2 * (VaultCache.VAULT_OVERHEAD_BYTES + VaultCache.ENTRY_OVERHEAD_BYTES + 64);
+        inject("maxSize", DataSize.ofBytes(budget));
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        CachedPassword firstPassword = password("First", 0, 0);
+        CachedPassword secondPassword = password("Second", 0, 0);
+
+        // act
+        vaultCache.put(first, firstPassword);
+        vaultCache.put(second, secondPassword);
+        vaultCache.get(first, firstPassword.id());
+        vaultCache.put(third, password("Third", 0, 0));
+
+        // assert
+        assertNotNull(vaultCache.get(first, firstPassword.id()), "Recently read vault should stay");
+        assertNull(vaultCache.get(second, secondPassword.id()), "Least recently used vault should be evicted");
+        assertEquals(1, vaultCache.evictionCount());
+        assertTrue(vaultCache.bytes() <= budget, "Cache should be back within its budget");
+    }
+
+    @Test
+    @DisplayName("Should not fill data read before a write whose vault was then evicted")
+    void shouldRejectFillAfterWriteAndEviction() {
+        // arrange
+        inject("maxSize", DataSize.ofBytes(VaultCache.VAULT_OVERHEAD_BYTES + VaultCache.ENTRY_OVERHEAD_BYTES + 64));
+        CachedPassword stale = password("Mail", 0, 0);
+        long stamp = vaultCache.stamp(ownerId);
+
+        // act
+        vaultCache.put(ownerId, withVersion(stale, "Mail (work)", 1));
+        vaultCache.put(UUID.randomUUID(), password("Other", 0, 0));
+        vaultCache.fill(ownerId, stamp, List.of(stale), true);
+
+        // assert
+        assertEquals(1, vaultCache.evictionCount(), "The written vault should have been evicted");
+        assertNull(vaultCache.get(ownerId, stale.id()), "Data read before the write should not be cached");
+        assertNull(vaultCache.list(ownerId), "A stale load should not mark the vault complete");
+    }
+
+    @Test
+    @DisplayName("Should keep filling an uncached owner when other owners are invalidated")
+    void shouldFillDespiteOtherOwnersInvalidations() {
+        // arrange
+        CachedPassword mail = password("Mail", 0, 0);
+        long stamp = vaultCache.stamp(ownerId);
+
+        // act
+        vaultCache.invalidate(CacheInvalidationRecord.password(UUID.randomUUID(), UUID.randomUUID(), 1L));
+        vaultCache.invalidate(CacheInvalidationRecord.vault(UUID.randomUUID()));
+        vaultCache.fill(ownerId, stamp, List.of(mail), true);
+
+        // assert
+        assertEquals(mail, vaultCache.get(ownerId, mail.id()));
+        assertEquals(List.of(mail), vaultCache.list(ownerId));
+    }
+
+    @Test
+    @DisplayName("Should drop passwords written on another instance unless already up to date")
+    void shouldApplyRemoteInvalidations() {
+        // arrange
+        CachedPassword mail = password("Mail", 0, 2);
+        CachedPassword bank = password("Bank", 1, 1);
+        vaultCache.fill(ownerId, vaultCache.stamp(ownerId), List.of(mail, bank), true);
+        long stamp = vaultCache.stamp(ownerId);
+
+        // act
+        vaultCache.invalidate(CacheInvalidationRecord.password(ownerId, mail.id(), 2L));
+        List<CachedPassword> afterOwnWrite = vaultCache.list(ownerId);
+        vaultCache.invalidate(CacheInvalidationRecord.password(ownerId, bank.id(), 2L));
+        vaultCache.fill(ownerId, stamp, List.of(bank), true);
+
+        // assert
+        assertEquals(List.of(mail, bank), afterOwnWrite, "An invalidation for the cached version should be ignored");
+        assertNull(vaultCache.get(ownerId, bank.id()), "A newer version elsewhere should drop the entry");
+        assertNull(vaultCache.list(ownerId), "A read started before the invalidation should not refill");
+        assertEquals(mail, vaultCache.get(ownerId, mail.id()));
+    }
+
+    @Test
+    @DisplayName("Should drop a vault invalidated on another instance")
+    void shouldApplyRemoteVaultInvalidation() {
+        // arrange
+        CachedPassword mail = password("Mail", 0, 0);
+        vaultCache.fill(ownerId, vaultCache.stamp(ownerId), List.of(mail), true);
+
+        // act
+        vaultCache.invalidate(CacheInvalidationRecord.vault(ownerId));
+        vaultCache.invalidate(CacheInvalidationRecord.password(UUID.randomUUID(), UUID.randomUUID(), null));
+
+        // assert
+        assertNull(vaultCache.get(ownerId, mail.id()));
+        assertEquals(0, vaultCache.bytes(), "Owners with nothing cached should stay uncached");
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void shouldDoNothingWhenDisabled() {
+        // arrange
+        inject("enabled", false);
+        CachedPassword mail = password("Mail", 0, 0);
+
+        // act
+        vaultCache.put(ownerId, mail);
+        vaultCache.fill(ownerId, 0, List.of(mail), true);
+
+        // assert
+        assertNull(vaultCache.get(ownerId, mail.id()));
+        assertNull(vaultCache.list(ownerId));
+        assertEquals(0, vaultCache.bytes());
+    }
+}
@@ -0,0 +1,109 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import com.wesleybertipaglia.securepass.entities.VaultCounter;
+import com.wesleybertipaglia.securepass.repositories.PasswordRepository;
+import com.wesleybertipaglia.securepass.repositories.VaultCounterRepository;
+import com.wesleybertipaglia.securepass.services.lock.JobLockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VaultCounterReconcilerTest {
+
+    @InjectMocks
+    private VaultCounterReconciler vaultCounterReconciler;
+
+    @Mock
+    private VaultCounterRepository vaultCounterRepository;
+
+    @Mock
+    private PasswordRepository passwordRepository;
+
+    @Mock
+    private JobLockService jobLockService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        Field field = VaultCounterReconciler.class.getDeclaredField("interval");
+        field.setAccessible(true);
+        field.set(vaultCounterReconciler, Duration.ofHours(1));
+        when(jobLockService.tryLock(VaultCounterReconciler.JOB_NAME, Duration.ofHours(1))).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should skip the job while another instance holds its lock")
+    void shouldSkipWithoutLock() {
+        // arrange
+        when(jobLockService.tryLock(VaultCounterReconciler.JOB_NAME, Duration.ofHours(1))).thenReturn(false);
+
+        // act
+        vaultCounterReconciler.reconcile();
+
+        // assert
+        verifyNoInteractions(vaultCounterRepository, passwordRepository);
+    }
+
+    @Test
+    @DisplayName("Should recount each drifted counter after locking it")
+    void shouldRecountLockedCounters() {
+        // arrange
+        UUID drifted = UUID.randomUUID();
+        UUID fixedMeanwhile = UUID.randomUUID();
+        VaultCounter driftedCounter = new VaultCounter(drifted, 3);
+        VaultCounter fixedCounter = new VaultCounter(fixedMeanwhile, 2);
+        when(vaultCounterRepository.findDriftedOwnerIds()).thenReturn(List.of(drifted, fixedMeanwhile));
+        when(vaultCounterRepository.findForUpdateByOwnerId(drifted)).thenReturn(Optional.of(driftedCounter));
+        when(vaultCounterRepository.findForUpdateByOwnerId(fixedMeanwhile)).thenReturn(Optional.of(fixedCounter));
+        when(passwordRepository.countByOwnerId(drifted)).thenReturn(5L);
+        when(passwordRepository.countByOwnerId(fixedMeanwhile)).thenReturn(2L);
+
+        // act
+        vaultCounterReconciler.reconcile();
+
+        // assert
+        assertEquals(5, driftedCounter.getPasswordCount());
+        assertEquals(2, fixedCounter.getPasswordCount());
+        InOrder inOrder = inOrder(vaultCounterRepository, passwordRepository);
+        inOrder.verify(vaultCounterRepository).findForUpdateByOwnerId(drifted);
+        inOrder.verify(passwordRepository).countByOwnerId(drifted);
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should go on when counters of new users were created concurrently")
+    void shouldContinueAfterConcurrentSignUp() {
+        // arrange
+        when(vaultCounterRepository.createMissing()).thenThrow(new DataIntegrityViolationException("owner_id"));
+
+        // act
+        vaultCounterReconciler.reconcile();
+
+        // assert
+        verify(vaultCounterRepository).deleteOrphans();
+        verify(vaultCounterRepository).findDriftedOwnerIds();
+    }
+}
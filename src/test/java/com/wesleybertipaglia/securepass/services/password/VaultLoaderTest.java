@@ -0,0 +1,138 @@
+package com.wesleybertipaglia.securepass.services.password;
+
+import com.wesleybertipaglia.securepass.entities.Password;
+import com.wesleybertipaglia.securepass.entities.User;
+import com.wesleybertipaglia.securepass.repositories.PasswordRepository;
+import com.wesleybertipaglia.securepass.repositories.VaultCounterRepository;
+import com.wesleybertipaglia.securepass.services.password.VaultCache.CachedPassword;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class VaultLoaderTest {
+
+    @InjectMocks
+    private VaultLoader vaultLoader;
+
+    @Mock
+    private PasswordRepository passwordRepository;
+
+    @Mock
+    private VaultCounterRepository vaultCounterRepository;
+
+    @Mock
+    private VaultCache vaultCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User(UUID.randomUUID(), "User Name", "user@email.com", "U$&rP4s$w0r#");
+        when(vaultCache.enabled()).thenReturn(true);
+        when(vaultCache.loadLimit()).thenReturn(2);
+        when(vaultCache.stamp(user.getId())).thenReturn(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        vaultLoader.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should cache a small vault as complete with the stamp taken before reading it")
+    void shouldLoadSmallVault() {
+        // arrange
+        Password first = new Password(UUID.randomUUID(), "First", "F1rst!", user);
+        Password second = new Password(UUID.randomUUID(), "Second", "S3cond!", user);
+        when(vaultCounterRepository.findPasswordCountByOwnerId(user.getId())).thenReturn(Optional.of(2L));
+        when(passwordRepository.findAllByOwnerIdOrderByCreatedAtAscIdAsc(user.getId(), Limit.of(3))).thenReturn(List.of(first, second));
+
+        // act
+        vaultLoader.load(user.getId());
+
+        // assert
+        verify(vaultCache, times(1)).fill(user.getId(), 7L, List.of(CachedPassword.of(first), CachedPassword.of(second)), true);
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    @Test
+    @DisplayName("Should not read vaults whose counter is over the load limit")
+    void shouldSkipLargeVault() {
+        // arrange
+        when(vaultCounterRepository.findPasswordCountByOwnerId(user.getId())).thenReturn(Optional.of(5000L));
+
+        // act
+        vaultLoader.load(user.getId());
+
+        // assert
+        verify(passwordRepository, never()).findAllByOwnerIdOrderByCreatedAtAscIdAsc(any(), any());
+        verify(vaultCache, never()).fill(any(), anyLong(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should not cache a vault that grew past the load limit")
+    void shouldSkipVaultOverLimit() {
+        // arrange
+        when(vaultCounterRepository.findPasswordCountByOwnerId(user.getId())).thenReturn(Optional.empty());
+        when(passwordRepository.findAllByOwnerIdOrderByCreatedAtAscIdAsc(user.getId(), Limit.of(3))).thenReturn(List.of(
+                new Password(UUID.randomUUID(), "A", "A!", user), new Password(UUID.randomUUID(), "B", "B!", user),
+                new Password(UUID.randomUUID(), "C", "C!", user)));
+
+        // act
+        vaultLoader.load(user.getId());
+
+        // assert
+        verify(vaultCache, never()).fill(any(), anyLong(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should load in the background and not at all with the cache off")
+    void shouldLoadLater() throws Exception {
+        // arrange
+        UUID otherOwner = UUID.randomUUID();
+        CountDownLatch filled = new CountDownLatch(1);
+        when(vaultCounterRepository.findPasswordCountByOwnerId(user.getId())).thenReturn(Optional.of(0L));
+        when(passwordRepository.findAllByOwnerIdOrderByCreatedAtAscIdAsc(user.getId(), Limit.of(3))).thenReturn(List.of());
+        doAnswer(invocation -> {
+            filled.countDown();
+            return null;
+        }).when(vaultCache).fill(user.getId(), 7L, List.of(), true);
+
+        // act
+        vaultLoader.loadLater(user.getId());
+        boolean loaded = filled.await(5, TimeUnit.SECONDS);
+        when(vaultCache.enabled()).thenReturn(false);
+        vaultLoader.loadLater(otherOwner);
+
+        // assert
+        assertTrue(loaded, "Expected the vault to be filled in the background");
+        verify(vaultCounterRepository, after(100).never()).findPasswordCountByOwnerId(otherOwner);
+    }
+}
@@ -0,0 +1,126 @@
+package com.wesleybertipaglia.securepass.services.policy;
+
+import com.wesleybertipaglia.securepass.records.checker.PasswordCheckerResponseRecord;
+import com.wesleybertipaglia.securepass.services.checker.PasswordCheckerEngine;
+import com.wesleybertipaglia.securepass.services.validation.BreachedPasswordValidation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordPolicyServiceTest {
+
+    private static final String POLICIES = """
+            [
+              {"id": "strict", "minLength": 12, "maxLength": 64, "specialCharacters": "!#", "mediumMaxSuggestions": 1},
+              {"id": "pin", "minLength": 4, "requireLowercase": false, "requireUppercase": false,
+               "requireSpecial": false, "breachCheck": false}
+            ]
+            """;
+
+    @TempDir
+    Path directory;
+
+    private Path policyFile;
+
+    private PasswordPolicyService passwordPolicyService;
+
+    @BeforeEach
+    void setup() throws IOException {
+        policyFile = Files.writeString(directory.resolve("policies.json"), POLICIES);
+        passwordPolicyService = new PasswordPolicyService();
+        inject("policyFile", policyFile.toString());
+        inject("objectMapper", new ObjectMapper());
+        inject("breachedPasswordValidation", new BreachedPasswordValidation());
+        passwordPolicyService.loadPolicies();
+    }
+
+    private void inject(String fieldName, Object value) {
+        try {
+            Field field = PasswordPolicyService.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(passwordPolicyService, value);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to inject " + fieldName, e);
+        }
+    }
+
+    @Test
+    @DisplayName("Should compile each policy with its own rules and thresholds.")
+    void shouldCompilePolicies() {
+        // act
+        PasswordCheckerResponseRecord strict = passwordPolicyService.getEngine("strict").check("Password1$");
+        PasswordCheckerResponseRecord strong = passwordPolicyService.getEngine("strict").check("Password1234#");
+        PasswordCheckerResponseRecord pin = passwordPolicyService.getEngine("pin").check("1234");
+
+        // assert
+        assertEquals(List.of("Password must be at least 12 characters long",
+                "Password must contain at least one special character (!#)"), strict.suggestions());
+        assertEquals("Weak", strict.strength(), "Expected two failures to exceed the strict medium threshold");
+        assertEquals("Strong", strong.strength());
+        assertEquals("Strong", pin.strength(), "Expected a PIN policy to only require length and numbers");
+    }
+
+    @Test
+    @DisplayName("Should reject passwords over the maximum length with a single suggestion.")
+    void shouldShortCircuitMaxLength() {
+        // act
+        PasswordCheckerResponseRecord result = passwordPolicyService.getEngine("strict").check("a".repeat(65));
+
+        // assert
+        assertEquals("Weak", result.strength());
+        assertEquals(List.of("Password must be at most 64 characters long"), result.suggestions());
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for an unknown policy.")
+    void shouldRejectUnknownPolicy() {
+        // act & assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> passwordPolicyService.getEngine("missing"));
+        assertEquals("Unknown password policy: missing", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should swap in reloaded policies and keep them when a reload fails.")
+    void shouldReloadPolicies() throws IOException {
+        // arrange
+        PasswordCheckerEngine previous = passwordPolicyService.getEngine("pin");
+        Files.writeString(policyFile, "[{\"id\": \"pin\", \"minLength\": 6, \"requireLowercase\": false,"
+                + " \"requireUppercase\": false, \"requireSpecial\": false}]");
+
+        // act
+        passwordPolicyService.reloadPolicies();
+        PasswordCheckerEngine reloaded = passwordPolicyService.getEngine("pin");
+        Files.writeString(policyFile, "[{\"id\": \"pin\", \"minLenght\": 6}]");
+        passwordPolicyService.reloadPolicies();
+
+        // assert
+        assertEquals("Strong", previous.check("1234").strength(), "Expected in-flight engines to keep their policy");
+        assertEquals("Weak", reloaded.check("1234").strength(), "Expected the reloaded minimum length");
+        assertSame(reloaded, passwordPolicyService.getEngine("pin"), "Expected a broken file to keep the policies");
+        assertThrows(IllegalArgumentException.class, () -> passwordPolicyService.getEngine("strict"));
+    }
+
+    @Test
+    @DisplayName("Should refuse invalid policy definitions.")
+    void shouldValidatePolicies() throws IOException {
+        // arrange
+        Files.writeString(policyFile, "[{\"id\": \"broken\", \"minLength\": 12, \"maxLength\": 8}]");
+
+        // act & assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> passwordPolicyService.loadPolicies());
+        assertEquals("Policy broken maxLength must not be less than minLength", exception.getMessage());
+    }
+}